@@ -0,0 +1,237 @@
+package Arkanoid.Benchmarks;
+
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.BoxColumns;
+import Arkanoid.Geometry.CollisionInfo;
+import Arkanoid.Geometry.HitRecord;
+import Arkanoid.Geometry.ImpactRecord;
+import Arkanoid.Geometry.Line;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.SlabBatch;
+import Arkanoid.Geometry.SlabRay;
+import Arkanoid.Sprites.Block;
+import Arkanoid.Sprites.SpriteCollection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * benchmarks of the collision geometry and of a full frame step.
+ * usage: ArkanoidBenchmarks [filter] [--blocks n,n,...] [--balls n,n,...]
+ * only benchmarks whose name contains the filter are run. the vector batch slab test is only measured when the JVM
+ * runs with --add-modules jdk.incubator.vector and the vector/ source root was compiled.
+ * the tile map benchmarks build their boards without block objects, so they can run with a million blocks:
+ * ArkanoidBenchmarks tileMap --blocks 1000000
+ */
+public final class ArkanoidBenchmarks {
+    private static final int TRAJECTORIES = 1024, MASK = TRAJECTORIES - 1;
+    private static final long SEED = 42;
+
+    private ArkanoidBenchmarks() {
+    }
+
+    /**
+     * runs the benchmarks.
+     *
+     * @param args optional filter and parameter lists
+     */
+    public static void main(String[] args) {
+        String filter = "";
+        int[] blockCounts = {100, 1000, 10000}, ballCounts = {10, 100, 1000};
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--blocks")) {
+                blockCounts = parseList(args[++i]);
+            } else if (args[i].equals("--balls")) {
+                ballCounts = parseList(args[++i]);
+            } else {
+                filter = args[i];
+            }
+        }
+        Harness.printHeader();
+        System.out.println("# batch slab test: " + SlabBatch.create().getName());
+        //only the tile map benchmarks are run scenario, the boards of block objects aren't built
+        for (int i = 0; !filter.contains("tileMap") && i < blockCounts.length; i++) {
+            Board board = new Board(blockCounts[i], 0, SEED);
+            for (TrajectoryType type : TrajectoryType.values()) {
+                geometry(filter, board, blockCounts[i], type);
+            }
+        }
+        for (int blocks : blockCounts) {
+            if (matches(filter, "GameEnvironment.findClosestCollision.tileMap")
+                    || matches(filter, "GameEnvironment.findFirstImpact.tileMap")) {
+                TileBoard board = new TileBoard(blocks);
+                for (TrajectoryType type : TrajectoryType.values()) {
+                    tileMap(filter, board, blocks, type);
+                }
+            }
+        }
+        for (int blocks : blockCounts) {
+            for (int balls : ballCounts) {
+                if (matches(filter, "frameStep")) {
+                    SpriteCollection sprites = new Board(blocks, balls, SEED).sprites();
+                    Harness.measure("frameStep", "blocks=" + blocks + " balls=" + balls, i -> {
+                        sprites.notifyAllTimePassed();
+                        return i;
+                    });
+                }
+            }
+        }
+        System.out.println("# sink " + Harness.sink());
+    }
+
+    private static void geometry(String filter, Board board, int blocks, TrajectoryType type) {
+        Random rand = new Random(SEED);
+        List<Block> targets = board.blocks();
+        Line[] lines = type.create(targets, TRAJECTORIES, rand);
+        Block[] hit = new Block[TRAJECTORIES];
+        Line[] edges = new Line[TRAJECTORIES];
+        //trajectories' coordinates as x1, y1, x2, y2 for the allocation-free query
+        double[] coordinates = new double[TRAJECTORIES * 4];
+        for (int i = 0; i < TRAJECTORIES; i++) {
+            Point start = lines[i].start(), end = lines[i].end();
+            coordinates[4 * i] = start.getX();
+            coordinates[4 * i + 1] = start.getY();
+            coordinates[4 * i + 2] = end.getX();
+            coordinates[4 * i + 3] = end.getY();
+            //the block around which the trajectory was created is the nearest one to its start
+            hit[i] = nearest(targets, lines[i].start());
+            edges[i] = hit[i].vertices()[rand.nextInt(hit[i].vertices().length)];
+        }
+        String params = "blocks=" + blocks + " trajectory=" + type;
+        GameEnvironment environment = board.environment();
+        HitRecord record = new HitRecord();
+        if (matches(filter, "Line.intersectionWith")) {
+            Harness.measure("Line.intersectionWith", params, i -> {
+                Point p = lines[i & MASK].intersectionWith(edges[i & MASK]);
+                return p == null ? 0 : p.getX();
+            });
+        }
+        if (matches(filter, "Rectangle.intersectionPoints")) {
+            Harness.measure("Rectangle.intersectionPoints", params,
+                    i -> hit[i & MASK].intersectionPoints(lines[i & MASK]).size());
+        }
+        if (matches(filter, "Line.closestIntersectionToStartOfLine")) {
+            Harness.measure("Line.closestIntersectionToStartOfLine", params, i -> {
+                Point p = lines[i & MASK].closestIntersectionToStartOfLine(hit[i & MASK]);
+                return p == null ? 0 : p.getX();
+            });
+        }
+        if (matches(filter, "GameEnvironment.getClosestCollision")) {
+            Harness.measure("GameEnvironment.getClosestCollision", params, i -> {
+                CollisionInfo info = environment.getClosestCollision(lines[i & MASK]);
+                return info == null ? 0 : 1;
+            });
+        }
+        if (matches(filter, "GameEnvironment.findClosestCollision")) {
+            Harness.measure("GameEnvironment.findClosestCollision", params, i -> {
+                int j = 4 * (i & MASK);
+                return environment.findClosestCollision(coordinates[j], coordinates[j + 1], coordinates[j + 2],
+                        coordinates[j + 3], record) ? record.getX() : 0;
+            });
+        }
+        batches(filter, board, params, coordinates, record);
+    }
+
+    /**
+     * measures the queries against a tile map, with trajectories around its tiles like the ones of geometry.
+     */
+    private static void tileMap(String filter, TileBoard board, int blocks, TrajectoryType type) {
+        Random rand = new Random(SEED);
+        Line[] lines = type.create(board.sample(TRAJECTORIES, rand), TRAJECTORIES, rand);
+        double[] coordinates = new double[TRAJECTORIES * 4];
+        for (int i = 0; i < TRAJECTORIES; i++) {
+            Point start = lines[i].start(), end = lines[i].end();
+            coordinates[4 * i] = start.getX();
+            coordinates[4 * i + 1] = start.getY();
+            coordinates[4 * i + 2] = end.getX();
+            coordinates[4 * i + 3] = end.getY();
+        }
+        String params = "blocks=" + blocks + " trajectory=" + type;
+        GameEnvironment environment = board.environment();
+        HitRecord record = new HitRecord();
+        ImpactRecord impact = new ImpactRecord();
+        if (matches(filter, "GameEnvironment.findClosestCollision.tileMap")) {
+            Harness.measure("GameEnvironment.findClosestCollision.tileMap", params, i -> {
+                int j = 4 * (i & MASK);
+                return environment.findClosestCollision(coordinates[j], coordinates[j + 1], coordinates[j + 2],
+                        coordinates[j + 3], record) ? record.getX() : 0;
+            });
+        }
+        if (matches(filter, "GameEnvironment.findFirstImpact.tileMap")) {
+            double radius = 3;
+            Harness.measure("GameEnvironment.findFirstImpact.tileMap", params, i -> {
+                int j = 4 * (i & MASK);
+                double x = coordinates[j], y = coordinates[j + 1];
+                return environment.findFirstImpact(x, y, coordinates[j + 2] - x, coordinates[j + 3] - y, radius,
+                        impact) ? impact.getTime() : 0;
+            });
+        }
+    }
+
+    /**
+     * compares the batch slab tests, scalar and vector, on their own and inside findClosestCollision.
+     */
+    private static void batches(String filter, Board board, String params, double[] coordinates, HitRecord record) {
+        List<SlabBatch> batches = new ArrayList<>();
+        batches.add(SlabBatch.scalar());
+        SlabBatch best = SlabBatch.create();
+        //the Vector API is available scenario
+        if (!best.getName().equals(batches.get(0).getName())) {
+            batches.add(best);
+        }
+        BoxColumns boxes = new BoxColumns();
+        for (Block block : board.blocks()) {
+            boxes.add(block.getLowXBound(), block.getLowYBound(), block.getHighXBound(), block.getHighYBound());
+        }
+        SlabRay[] rays = new SlabRay[TRAJECTORIES];
+        for (int i = 0; i < TRAJECTORIES; i++) {
+            rays[i] = new SlabRay();
+            rays[i].set(coordinates[4 * i], coordinates[4 * i + 1], coordinates[4 * i + 2], coordinates[4 * i + 3]);
+        }
+        int[] reached = new int[boxes.size()];
+        GameEnvironment environment = board.environment();
+        for (SlabBatch batch : batches) {
+            String name = batch.getName().startsWith("vector") ? "vector" : "scalar";
+            if (matches(filter, "SlabBatch.reachAll." + name)) {
+                Harness.measure("SlabBatch.reachAll." + name, params,
+                        i -> batch.reachAll(rays[i & MASK], boxes, reached));
+            }
+            if (matches(filter, "GameEnvironment.findClosestCollision.batch." + name)) {
+                environment.setSlabBatch(batch);
+                Harness.measure("GameEnvironment.findClosestCollision.batch." + name, params, i -> {
+                    int j = 4 * (i & MASK);
+                    return environment.findClosestCollision(coordinates[j], coordinates[j + 1], coordinates[j + 2],
+                            coordinates[j + 3], record) ? record.getX() : 0;
+                });
+                environment.setSlabBatch(null);
+            }
+        }
+    }
+
+    private static Block nearest(List<Block> blocks, Point p) {
+        Block nearest = blocks.get(0);
+        double best = Double.POSITIVE_INFINITY;
+        for (Block block : blocks) {
+            double cx = block.getLowXBound() + block.getWidth() / 2, cy = block.getLowYBound() + block.getHeight() / 2;
+            double distance = p.distance(new Point(cx, cy));
+            if (distance < best) {
+                best = distance;
+                nearest = block;
+            }
+        }
+        return nearest;
+    }
+
+    private static boolean matches(String filter, String name) {
+        return name.contains(filter);
+    }
+
+    private static int[] parseList(String list) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : list.split(",")) {
+            values.add(Integer.parseInt(value.trim()));
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
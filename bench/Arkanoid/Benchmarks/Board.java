@@ -0,0 +1,94 @@
+package Arkanoid.Benchmarks;
+
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Velocity;
+import Arkanoid.Sprites.Ball;
+import Arkanoid.Sprites.Block;
+import Arkanoid.Sprites.SpriteCollection;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * a benchmark board: an 800x600 screen with closed borders, a grid of blocks in its upper part and balls moving in
+ * its lower part. nothing listens to hits, so no block or ball is ever removed and every tick costs about the same.
+ */
+final class Board {
+    private static final int WIDTH = 800, HEIGHT = 600, BORDER = 25, BLOCKS_BOTTOM = 400, RADIUS = 3, SPEED = 5;
+    private final GameEnvironment environment = new GameEnvironment();
+    private final SpriteCollection sprites = new SpriteCollection();
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<Ball> balls = new ArrayList<>();
+
+    /**
+     * class constructor.
+     *
+     * @param blockCount number of blocks
+     * @param ballCount  number of balls
+     * @param seed       seed of the balls' positions and directions
+     */
+    Board(int blockCount, int ballCount, long seed) {
+        Random rand = new Random(seed);
+        double areaWidth = WIDTH - 2 * BORDER, areaHeight = BLOCKS_BOTTOM - 2 * BORDER, fill = 0.8;
+        int columns = (int) Math.ceil(Math.sqrt(blockCount * areaWidth / areaHeight));
+        int rows = (int) Math.ceil((double) blockCount / columns);
+        double cellWidth = areaWidth / columns, cellHeight = areaHeight / rows;
+        addWall(0, 0, WIDTH, BORDER);
+        addWall(0, HEIGHT - BORDER, WIDTH, BORDER);
+        addWall(0, 0, BORDER, HEIGHT);
+        addWall(WIDTH - BORDER, 0, BORDER, HEIGHT);
+        //blocks fill 80% of their grid cell, so balls can also move between them
+        for (int i = 0; i < blockCount; i++) {
+            double x = 2 * BORDER + (i % columns) * cellWidth, y = 2 * BORDER + (i / columns) * cellHeight;
+            Block block = new Block(new Point(x, y), cellWidth * fill, cellHeight * fill, Color.BLUE);
+            environment.addCollidable(block);
+            sprites.addSprite(block);
+            blocks.add(block);
+        }
+        for (int i = 0; i < ballCount; i++) {
+            double x = BORDER + RADIUS + rand.nextDouble() * (WIDTH - 2 * (BORDER + RADIUS));
+            double y = BLOCKS_BOTTOM + rand.nextDouble() * (HEIGHT - BORDER - RADIUS - BLOCKS_BOTTOM);
+            Velocity v = Velocity.fromAngleAndSpeed(rand.nextInt(360), SPEED);
+            Ball ball = new Ball(new Point(x, y), RADIUS, Color.RED, v, environment);
+            sprites.addSprite(ball);
+            balls.add(ball);
+        }
+    }
+
+    private void addWall(double x, double y, double width, double height) {
+        Block wall = new Block(new Point(x, y), width, height, Color.GRAY);
+        environment.addCollidable(wall);
+        sprites.addSprite(wall);
+    }
+
+    /**
+     * @return the board's game environment
+     */
+    GameEnvironment environment() {
+        return environment;
+    }
+
+    /**
+     * @return the board's sprites
+     */
+    SpriteCollection sprites() {
+        return sprites;
+    }
+
+    /**
+     * @return the board's blocks, without the walls
+     */
+    List<Block> blocks() {
+        return blocks;
+    }
+
+    /**
+     * @return the board's balls
+     */
+    List<Ball> balls() {
+        return balls;
+    }
+}
@@ -0,0 +1,113 @@
+package Arkanoid.Benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * a small JMH-style measurement harness: every benchmark is run for a few warmup iterations and then for a few
+ * measured iterations of a fixed duration. it reports the throughput (ops/s, mean and standard deviation over the
+ * iterations) and the allocation rate, which is read from the thread's allocated bytes counter like JMH's gc profiler.
+ * the iteration counts and durations can be changed with the bench.warmup, bench.iterations and bench.millis
+ * system properties.
+ */
+final class Harness {
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long MILLIS = Long.getLong("bench.millis", 500);
+    private static final int BATCH = 256;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    //results are summed into the sink so the JIT can't remove the measured work
+    private static double sink;
+
+    /**
+     * a measured operation.
+     */
+    interface Operation {
+        /**
+         * runs the operation once.
+         *
+         * @param i the index of the invocation, used to cycle through prepared inputs
+         * @return any value that depends on the work that was done
+         */
+        double run(int i);
+    }
+
+    private Harness() {
+    }
+
+    /**
+     * prints the header of the results table.
+     */
+    static void printHeader() {
+        System.out.printf(Locale.ROOT, "%-52s %-40s %14s %10s %12s %10s%n",
+                "Benchmark", "Params", "ops/s", "error", "B/op", "MB/s");
+    }
+
+    /**
+     * measures an operation and prints a row of the results table.
+     *
+     * @param name      benchmark's name
+     * @param params    description of the benchmark's parameters
+     * @param operation the measured operation
+     */
+    static void measure(String name, String params, Operation operation) {
+        double[] throughput = new double[ITERATIONS];
+        long allocated = 0, ops = 0, nanos = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            iteration(operation, new long[2]);
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] result = new long[2];
+            long bytesBefore = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            double opsPerSecond = iteration(operation, result);
+            allocated += THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - bytesBefore;
+            throughput[i] = opsPerSecond;
+            ops += result[0];
+            nanos += result[1];
+        }
+        double mean = 0, variance = 0;
+        for (double value : throughput) {
+            mean += value / ITERATIONS;
+        }
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean) / Math.max(1, ITERATIONS - 1);
+        }
+        double bytesPerOp = (double) allocated / ops, megabytes = 1024.0 * 1024.0;
+        double mbPerSecond = allocated / megabytes / (nanos / NANOS_PER_SECOND);
+        System.out.printf(Locale.ROOT, "%-52s %-40s %14.1f %10.1f %12.2f %10.1f%n",
+                name, params, mean, Math.sqrt(variance), bytesPerOp, mbPerSecond);
+    }
+
+    /**
+     * runs the operation in batches until the iteration's time is up.
+     *
+     * @param operation the measured operation
+     * @param result    receives the number of operations and the nanoseconds they took
+     * @return the iteration's throughput in operations per second
+     */
+    private static double iteration(Operation operation, long[] result) {
+        long start = System.nanoTime(), deadline = start + MILLIS * 1_000_000L, now;
+        long ops = 0;
+        double acc = 0;
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                acc += operation.run((int) (ops + i));
+            }
+            ops += BATCH;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink += acc;
+        result[0] = ops;
+        result[1] = now - start;
+        return ops * NANOS_PER_SECOND / (now - start);
+    }
+
+    /**
+     * @return the sum of all results, printed at the end so it's used
+     */
+    static double sink() {
+        return sink;
+    }
+}
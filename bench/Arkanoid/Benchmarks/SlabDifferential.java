@@ -0,0 +1,200 @@
+package Arkanoid.Benchmarks;
+
+import Arkanoid.Geometry.Line;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.SlabRay;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * a differential test of the slab kernel (SlabRay) against Line.closestIntersectionToStartOfLine: millions of
+ * random segments are intersected with random rectangles by both, and every disagreement is counted.
+ * usage: SlabDifferential [rays] [seed]
+ * the segments are of a few kinds, including axis aligned ones and ones that graze an edge or a corner, where the
+ * two implementations are most likely to disagree. Line accepts points up to Operations.EPSILON outside of a segment,
+ * so the segments that only touch or miss the rectangle by about that much are counted as borderline instead of as
+ * mismatches: they are the ones whose result changes when the rectangle is grown or shrunk by a hair.
+ * every run also checks the pruning GameEnvironment does with SlabRay.reach, which must never skip a rectangle the
+ * exact test hits. the program exits with status 1 if there's a mismatch or a wrongly pruned rectangle.
+ */
+public final class SlabDifferential {
+    private static final int DEFAULT_RAYS = 4_000_000;
+    private static final int WIDTH = 800, HEIGHT = 600;
+    //the largest distance between the two implementations' points that still counts as the same point
+    private static final double TOLERANCE = 1e-6;
+    //how much a rectangle is grown and shrunk by to tell borderline segments apart
+    private static final double BORDERLINE = 1e-5;
+    //the margin GameEnvironment grows the bounds by before pruning with SlabRay.reach
+    private static final double PRUNE_MARGIN = 0.001;
+    private static final String[] KINDS = {"random", "axis aligned", "grazing", "from the boundary", "ball step"};
+
+    private SlabDifferential() {
+    }
+
+    /**
+     * runs the test.
+     *
+     * @param args optional number of segments and seed
+     */
+    public static void main(String[] args) {
+        int rays = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RAYS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        Random rand = new Random(seed);
+        SlabRay ray = new SlabRay();
+        double[] segment = new double[4];
+        long[] hits = new long[KINDS.length], borderline = new long[KINDS.length];
+        long[] mismatches = new long[KINDS.length], wrongEdges = new long[KINDS.length];
+        long pruneMisses = 0;
+        for (int i = 0; i < rays; i++) {
+            int kind = i % KINDS.length;
+            double left = coordinate(rand, WIDTH - 100), top = coordinate(rand, HEIGHT - 100);
+            double right = left + 1 + coordinate(rand, 99), bottom = top + 1 + coordinate(rand, 99);
+            createSegment(kind, rand, left, top, right, bottom, segment);
+            double x1 = segment[0], y1 = segment[1], x2 = segment[2], y2 = segment[3];
+            Point expected = new Line(x1, y1, x2, y2).closestIntersectionToStartOfLine(
+                    new Rectangle(new Point(left, top), right - left, bottom - top));
+            ray.set(x1, y1, x2, y2);
+            double t = ray.enter(left, top, right, bottom);
+            int edge = ray.getEdge();
+            if (expected != null) {
+                hits[kind]++;
+                //pruning scenario, the grown rectangle has to be reached no later than the exact hit
+                double reach = ray.reach(left - PRUNE_MARGIN, top - PRUNE_MARGIN, right + PRUNE_MARGIN,
+                        bottom + PRUNE_MARGIN);
+                double distance = expected.distance(new Point(x1, y1));
+                if (reach == SlabRay.NO_HIT || reach * ray.getLength() > distance + PRUNE_MARGIN) {
+                    pruneMisses++;
+                }
+            }
+            if (agrees(expected, ray, t)) {
+                if (expected != null && !isOnEdge(expected, edge, left, top, right, bottom)) {
+                    wrongEdges[kind]++;
+                }
+            } else if (isBorderline(ray, left, top, right, bottom)) {
+                borderline[kind]++;
+            } else {
+                mismatches[kind]++;
+                if (mismatches[kind] <= 3) {
+                    System.out.printf(Locale.ROOT, "mismatch (%s): segment (%s, %s) -> (%s, %s), rectangle [%s, %s]"
+                                    + " x [%s, %s], Line: %s, slab: %s%n", KINDS[kind], x1, y1, x2, y2, left, right,
+                            top, bottom, expected, t == SlabRay.NO_HIT ? "null" : ray.getX(t) + ", " + ray.getY(t));
+                }
+            }
+        }
+        long totalMismatches = 0, totalEdges = 0;
+        System.out.printf(Locale.ROOT, "%-18s %10s %10s %11s %11s %12s%n", "segments", "count", "hits",
+                "borderline", "mismatches", "wrong edges");
+        for (int k = 0; k < KINDS.length; k++) {
+            long count = rays / KINDS.length + (k < rays % KINDS.length ? 1 : 0);
+            System.out.printf(Locale.ROOT, "%-18s %10d %10d %11d %11d %12d%n", KINDS[k], count, hits[k],
+                    borderline[k], mismatches[k], wrongEdges[k]);
+            totalMismatches += mismatches[k];
+            totalEdges += wrongEdges[k];
+        }
+        System.out.println("wrongly pruned: " + pruneMisses);
+        if (totalMismatches > 0 || totalEdges > 0 || pruneMisses > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param rand random generator
+     * @param max  largest value
+     * @return a random coordinate, a whole number half of the time like the game's blocks
+     */
+    private static double coordinate(Random rand, double max) {
+        double value = rand.nextDouble() * max;
+        return rand.nextBoolean() ? Math.floor(value) : value;
+    }
+
+    private static void createSegment(int kind, Random rand, double left, double top, double right, double bottom,
+                                      double[] out) {
+        double margin = 50;
+        double x1 = left - margin + rand.nextDouble() * (right - left + 2 * margin);
+        double y1 = top - margin + rand.nextDouble() * (bottom - top + 2 * margin);
+        double x2 = left - margin + rand.nextDouble() * (right - left + 2 * margin);
+        double y2 = top - margin + rand.nextDouble() * (bottom - top + 2 * margin);
+        if (kind == 1) {
+            //vertical or horizontal segment scenario
+            if (rand.nextBoolean()) {
+                x2 = x1;
+            } else {
+                y2 = y1;
+            }
+        } else if (kind == 2) {
+            //along an edge's line, or through a corner scenario
+            double[] xs = {left, right}, ys = {top, bottom};
+            double cornerX = xs[rand.nextInt(2)], cornerY = ys[rand.nextInt(2)];
+            int grazing = rand.nextInt(3);
+            if (grazing == 0) {
+                x1 = cornerX;
+                x2 = cornerX;
+            } else if (grazing == 1) {
+                y1 = cornerY;
+                y2 = cornerY;
+            } else {
+                double along = rand.nextDouble() * 2;
+                x2 = x1 + (cornerX - x1) * along;
+                y2 = y1 + (cornerY - y1) * along;
+            }
+        } else if (kind == 3) {
+            //from a point on the boundary, or from inside the rectangle scenario
+            x1 = left + rand.nextDouble() * (right - left);
+            y1 = top + rand.nextDouble() * (bottom - top);
+            int side = rand.nextInt(5);
+            if (side == 0) {
+                x1 = left;
+            } else if (side == 1) {
+                x1 = right;
+            } else if (side == 2) {
+                y1 = top;
+            } else if (side == 3) {
+                y1 = bottom;
+            }
+        } else if (kind == 4) {
+            //a short step, like a ball's step near a block scenario
+            double angle = rand.nextDouble() * 2 * Math.PI, speed = 1 + rand.nextDouble() * 9;
+            x2 = x1 + speed * Math.cos(angle);
+            y2 = y1 + speed * Math.sin(angle);
+        }
+        out[0] = x1;
+        out[1] = y1;
+        out[2] = x2;
+        out[3] = y2;
+    }
+
+    private static boolean agrees(Point expected, SlabRay ray, double t) {
+        if (expected == null || t == SlabRay.NO_HIT) {
+            return expected == null && t == SlabRay.NO_HIT;
+        }
+        return Math.abs(expected.getX() - ray.getX(t)) <= TOLERANCE
+                && Math.abs(expected.getY() - ray.getY(t)) <= TOLERANCE;
+    }
+
+    /**
+     * @return true if the segment's result changes when the rectangle is grown or shrunk by BORDERLINE
+     */
+    private static boolean isBorderline(SlabRay ray, double left, double top, double right, double bottom) {
+        double grown = ray.enter(left - BORDERLINE, top - BORDERLINE, right + BORDERLINE, bottom + BORDERLINE);
+        double shrunk = ray.enter(left + BORDERLINE, top + BORDERLINE, right - BORDERLINE, bottom - BORDERLINE);
+        double exact = ray.enter(left, top, right, bottom);
+        return (grown == SlabRay.NO_HIT) != (exact == SlabRay.NO_HIT)
+                || (shrunk == SlabRay.NO_HIT) != (exact == SlabRay.NO_HIT)
+                || ray.getLength() < BORDERLINE;
+    }
+
+    private static boolean isOnEdge(Point p, int edge, double left, double top, double right, double bottom) {
+        if (edge == SlabRay.RIGHT) {
+            return Math.abs(p.getX() - right) <= TOLERANCE;
+        } else if (edge == SlabRay.LEFT) {
+            return Math.abs(p.getX() - left) <= TOLERANCE;
+        } else if (edge == SlabRay.UPPER) {
+            return Math.abs(p.getY() - top) <= TOLERANCE;
+        } else if (edge == SlabRay.LOWER) {
+            return Math.abs(p.getY() - bottom) <= TOLERANCE;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package Arkanoid.Benchmarks;
+
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Sprites.Block;
+import Arkanoid.Sprites.TileMap;
+import Arkanoid.Utils.Palette;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * a benchmark board like Board, whose blocks are the tiles of a tile map instead of block objects. the tiles fill
+ * their whole grid cell, so a board of a million tiles fits in memory.
+ */
+final class TileBoard {
+    private static final int WIDTH = 800, HEIGHT = 600, BORDER = 25, BLOCKS_BOTTOM = 400;
+    private final GameEnvironment environment = new GameEnvironment();
+    private final TileMap map;
+
+    /**
+     * class constructor.
+     *
+     * @param tileCount number of tiles
+     */
+    TileBoard(int tileCount) {
+        double areaWidth = WIDTH - 2 * BORDER, areaHeight = BLOCKS_BOTTOM - 2 * BORDER;
+        int columns = (int) Math.ceil(Math.sqrt(tileCount * areaWidth / areaHeight));
+        int rows = (int) Math.ceil((double) tileCount / columns);
+        addWall(0, 0, WIDTH, BORDER);
+        addWall(0, HEIGHT - BORDER, WIDTH, BORDER);
+        addWall(0, 0, BORDER, HEIGHT);
+        addWall(WIDTH - BORDER, 0, BORDER, HEIGHT);
+        Palette palette = new Palette();
+        int[] colorIds = {palette.idOf(Color.BLUE), palette.idOf(Color.GREEN)};
+        map = new TileMap(new Point(2 * BORDER, 2 * BORDER), areaWidth / columns, areaHeight / rows, columns, rows,
+                palette);
+        for (int i = 0; i < tileCount; i++) {
+            map.setTile(i % columns, i / columns, colorIds[(i / columns) % 2]);
+        }
+        environment.addTileMap(map);
+    }
+
+    private void addWall(double x, double y, double width, double height) {
+        environment.addCollidable(new Block(new Point(x, y), width, height, Color.GRAY));
+    }
+
+    /**
+     * @return the board's game environment
+     */
+    GameEnvironment environment() {
+        return environment;
+    }
+
+    /**
+     * @return the board's tile map
+     */
+    TileMap map() {
+        return map;
+    }
+
+    /**
+     * picks random tiles of the board, as block objects.
+     *
+     * @param count number of tiles to pick
+     * @param rand  random generator
+     * @return the tiles
+     */
+    List<Block> sample(int count, Random rand) {
+        List<Block> tiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = rand.nextInt(map.getAliveCount());
+            tiles.add(map.tile(index % map.getColumns(), index / map.getColumns()));
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,68 @@
+package Arkanoid.Benchmarks;
+
+import Arkanoid.Geometry.Line;
+import Arkanoid.Geometry.Rectangle;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * the kinds of ball trajectories the geometry benchmarks are run with.
+ * every trajectory is a single ball step, placed around the blocks of the board.
+ */
+enum TrajectoryType {
+    /**
+     * straight up or down.
+     */
+    VERTICAL,
+    /**
+     * straight left or right.
+     */
+    HORIZONTAL,
+    /**
+     * any random direction.
+     */
+    DIAGONAL,
+    /**
+     * 45 degrees through a block's corner, or along one of its edges.
+     */
+    GRAZING;
+
+    private static final double STEP = 8;
+
+    /**
+     * creates trajectories of this type around the given blocks.
+     *
+     * @param blocks the blocks' rectangles
+     * @param count  number of trajectories to create
+     * @param rand   random generator
+     * @return the trajectories
+     */
+    Line[] create(List<? extends Rectangle> blocks, int count, Random rand) {
+        Line[] lines = new Line[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle block = blocks.get(rand.nextInt(blocks.size()));
+            //a point around the block, up to one step away from it
+            double x = block.getLowXBound() - STEP + rand.nextDouble() * (block.getWidth() + 2 * STEP);
+            double y = block.getLowYBound() - STEP + rand.nextDouble() * (block.getHeight() + 2 * STEP);
+            double sign = rand.nextBoolean() ? 1 : -1;
+            if (this == VERTICAL) {
+                lines[i] = new Line(x, y, x, y + sign * STEP);
+            } else if (this == HORIZONTAL) {
+                lines[i] = new Line(x, y, x + sign * STEP, y);
+            } else if (this == DIAGONAL) {
+                double angle = rand.nextDouble() * 2 * Math.PI;
+                lines[i] = new Line(x, y, x + STEP * Math.cos(angle), y + STEP * Math.sin(angle));
+            } else if (rand.nextBoolean()) {
+                //through the upper left corner at 45 degrees
+                double cx = block.getLowXBound(), cy = block.getLowYBound(), half = STEP / 2;
+                lines[i] = new Line(cx - half, cy - sign * half, cx + half, cy + sign * half);
+            } else {
+                //along the upper edge
+                double ex = block.getLowXBound() + rand.nextDouble() * block.getWidth(), ey = block.getLowYBound();
+                lines[i] = new Line(ex, ey, ex + sign * STEP, ey);
+            }
+        }
+        return lines;
+    }
+}
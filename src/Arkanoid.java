@@ -1,17 +1,338 @@
+import Arkanoid.GameAssets.FrameProfiler;
 import Arkanoid.GameAssets.Game;
+import Arkanoid.GameAssets.InputReplay;
+import Arkanoid.GameAssets.LevelPack;
+import Arkanoid.GameAssets.MonteCarloRunner;
+import Arkanoid.GameAssets.PaddlePolicy;
+import Arkanoid.GameAssets.SessionLoadClient;
+import Arkanoid.GameAssets.SessionServer;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 /**
  * runs the Arkanoid game.
  */
 public class Arkanoid {
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    private static final long REPORT_INTERVAL_MILLIS = 10_000;
+
     /**
      * runs the Arkanoid game by creating a new game object, initialize it and run the game through it.
+     * supported options:
+     * "--headless [ticks]" plays the game without a window and as fast as possible, for the given number of ticks
+     * (or until it's over), and prints a summary of the run.
+     * "--tick-rate n" plays the game at n ticks per second instead of 60, at the same speed with finer steps.
+     * "--ball-field n" plays the game with n balls kept in a ball field.
+     * "--threads n" steps the balls on n threads.
+     * "--swept" moves the balls with swept collisions, several bounces per tick.
+     * "--balls n" plays the game with n ball objects instead of 3.
+     * "--ball-collisions" makes the balls bounce off each other.
+     * "--events" moves the balls with an event-driven engine, from one impact to the next, and skips the ticks in
+     * which only the balls move when the game is played headless and no key is pressed.
+     * "--tile-map" keeps the built-in rows of blocks in a tile map instead of as block objects.
+     * "--batch-queries" tests the balls' trajectories against all the blocks at once with a batch slab test, which
+     * uses the Vector API when the JVM runs with --add-modules jdk.incubator.vector.
+     * "--static-layer" draws the blocks once into a cached layer instead of on every frame.
+     * "--render-thread" draws and shows the frames on a separate thread from the game's ticks.
+     * "--profile file [ms]" writes frame time histograms to a CSV file, once every ms milliseconds (1000 by default).
+     * "--seed n" makes the game's random choices from the seed n.
+     * "--record file" records the seed, the options and the keys pressed on every tick to a file.
+     * "--replay file" plays a recorded game again without a window and as fast as possible, and checks that it ends
+     * with the recorded score and number of blocks.
+     * "--monte-carlo games [ticks]" plays many headless games in parallel (on all the cores, or on the number of
+     * threads given by "--threads"), for up to ticks ticks each, and prints their score and duration distributions.
+     * "--policy idle|sweep|random" is the way the paddle is played in these games (random by default).
+     * "--level file [n]" plays level n (0 by default) of a binary level pack instead of the built-in rows.
+     * "--convert-levels text binary" converts a level pack from its text format to its binary format and exits.
+     * "--serve [port]" hosts headless game sessions for socket clients on the loopback address, and prints the
+     * server's load every 10 seconds.
+     * "--load sessions seconds [port]" plays the given number of sessions on a session server at once (the one
+     * started by "--serve", or one already running on the port) and prints the rates their frames arrived at.
+     * "--read-delay ms" makes every load client wait after each frame it reads, like a slow client.
      *
-     * @param args user command line input, unnecessary in our program.
+     * @param args user command line input, optional.
+     * @throws IOException if the profile or recording file can't be created, the replayed file can't be read,
+     *                     or the session server can't listen on its port
      */
-    public static void main(String[] args) {
-        Game g = new Game();
+    public static void main(String[] args) throws IOException {
+        Game g = null;
+        String profileFile = null, recordFile = null, replayFile = null, levelFile = null;
+        Long seed = null;
+        long maxTicks = Long.MAX_VALUE, profileInterval = 1000;
+        int tickRate = 0, ballField = 0, threads = 0, monteCarloGames = 0, levelIndex = 0, ballCount = 0;
+        int serverPort = SessionServer.DEFAULT_PORT, loadSessions = 0;
+        double loadSeconds = 0;
+        long readDelay = 0;
+        boolean serve = false;
+        PaddlePolicy policy = PaddlePolicy.RANDOM;
+        boolean swept = false, staticLayer = false, renderThread = false, ballCollisions = false;
+        boolean batchQueries = false, events = false, tiles = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--headless")) {
+                g = Game.headless();
+                //optional ticks limit scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    maxTicks = Long.parseLong(args[++i]);
+                }
+            } else if (args[i].equals("--tick-rate")) {
+                tickRate = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--ball-field")) {
+                ballField = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--swept")) {
+                swept = true;
+            } else if (args[i].equals("--balls")) {
+                ballCount = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--ball-collisions")) {
+                ballCollisions = true;
+            } else if (args[i].equals("--events")) {
+                events = true;
+            } else if (args[i].equals("--tile-map")) {
+                tiles = true;
+            } else if (args[i].equals("--batch-queries")) {
+                batchQueries = true;
+            } else if (args[i].equals("--static-layer")) {
+                staticLayer = true;
+            } else if (args[i].equals("--render-thread")) {
+                renderThread = true;
+            } else if (args[i].equals("--profile")) {
+                profileFile = args[++i];
+                //optional dump interval scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    profileInterval = Long.parseLong(args[++i]);
+                }
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--record")) {
+                recordFile = args[++i];
+            } else if (args[i].equals("--replay")) {
+                replayFile = args[++i];
+            } else if (args[i].equals("--monte-carlo")) {
+                monteCarloGames = Integer.parseInt(args[++i]);
+                //optional ticks limit scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    maxTicks = Long.parseLong(args[++i]);
+                }
+            } else if (args[i].equals("--policy")) {
+                policy = PaddlePolicy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if (args[i].equals("--level")) {
+                levelFile = args[++i];
+                //optional level index scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    levelIndex = Integer.parseInt(args[++i]);
+                }
+            } else if (args[i].equals("--serve")) {
+                serve = true;
+                //optional port scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    serverPort = Integer.parseInt(args[++i]);
+                }
+            } else if (args[i].equals("--load")) {
+                loadSessions = Integer.parseInt(args[++i]);
+                loadSeconds = Double.parseDouble(args[++i]);
+                //optional port scenario
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    serverPort = Integer.parseInt(args[++i]);
+                }
+            } else if (args[i].equals("--read-delay")) {
+                readDelay = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--convert-levels")) {
+                convertLevels(args[i + 1], args[i + 2]);
+                return;
+            } else {
+                throw new IllegalArgumentException("Error: unknown option " + args[i]);
+            }
+        }
+        LevelPack.Level level = null;
+        if (levelFile != null) {
+            long start = System.nanoTime();
+            level = LevelPack.map(Paths.get(levelFile)).getLevel(levelIndex);
+            System.out.printf("level %s: %d blocks mapped in %.2f ms%n", level.getName(), level.getBlockCount(),
+                    (System.nanoTime() - start) / NANOS_PER_MILLISECOND);
+        }
+        int fieldSize = ballField, balls = ballCount;
+        boolean sweptBalls = swept, bouncingBalls = ballCollisions, batch = batchQueries;
+        boolean eventDriven = events, tileMap = tiles;
+        LevelPack.Level runLevel = level;
+        //the options every game of a monte carlo run or a session server starts with
+        Consumer<Game> setup = game -> {
+            game.setLevel(runLevel);
+            if (fieldSize > 0) {
+                game.setBallField(fieldSize);
+            }
+            if (balls > 0) {
+                game.setBallCount(balls);
+            }
+            game.setSweptCollisions(sweptBalls);
+            game.setBallCollisions(bouncingBalls);
+            game.setBatchQueries(batch);
+            game.setEventDriven(eventDriven);
+            game.setTileMap(tileMap);
+        };
+        if (serve || loadSessions > 0) {
+            SessionServer server = null;
+            if (serve) {
+                server = new SessionServer(serverPort);
+                if (tickRate > 0) {
+                    server.setTickRate(tickRate);
+                }
+                if (threads > 0) {
+                    server.setThreads(threads);
+                }
+                server.setSetup(setup);
+                server.start();
+                System.out.printf("serving game sessions on port %d%n", server.getPort());
+            }
+            //server only scenario, it runs until the process is stopped
+            if (loadSessions == 0) {
+                reportForever(server);
+                return;
+            }
+            SessionLoadClient client = new SessionLoadClient(server != null ? server.getPort() : serverPort,
+                    loadSessions, loadSeconds);
+            client.setPolicy(policy);
+            if (tickRate > 0) {
+                client.setTickRate(tickRate);
+            }
+            if (seed != null) {
+                client.setSeed(seed);
+            }
+            client.setReadDelay(readDelay);
+            client.run();
+            client.report(System.out);
+            if (server != null) {
+                server.report(System.out);
+                server.close();
+            }
+            return;
+        }
+        if (monteCarloGames > 0) {
+            MonteCarloRunner runner = new MonteCarloRunner(monteCarloGames, maxTicks, policy);
+            runner.setSetup(setup);
+            if (seed != null) {
+                runner.setSeed(seed);
+            }
+            if (threads > 0) {
+                runner.setThreads(threads);
+            }
+            runner.run();
+            runner.report(System.out);
+            return;
+        }
+        InputReplay replay = null;
+        //replay scenario, the recorded game is played headless, for all its ticks
+        if (replayFile != null) {
+            try (InputStream in = new FileInputStream(replayFile)) {
+                replay = new InputReplay(in);
+            }
+            g = Game.headless();
+        }
+        boolean headless = g != null;
+        if (!headless) {
+            g = new Game();
+        }
+        if (tickRate > 0) {
+            g.setTickRate(tickRate);
+        }
+        if (ballField > 0) {
+            g.setBallField(ballField);
+        }
+        g.setThreads(Math.max(threads, 1));
+        g.setSweptCollisions(swept);
+        if (ballCount > 0) {
+            g.setBallCount(ballCount);
+        }
+        g.setBallCollisions(ballCollisions);
+        g.setBatchQueries(batchQueries);
+        g.setEventDriven(events);
+        g.setTileMap(tiles);
+        g.setStaticLayer(staticLayer);
+        g.setRenderThread(renderThread);
+        if (profileFile != null) {
+            g.setProfiler(new FrameProfiler(new FileWriter(profileFile), profileInterval));
+        }
+        if (seed != null) {
+            g.setSeed(seed);
+        }
+        g.setLevel(level);
+        if (recordFile != null) {
+            g.setInputRecording(new FileOutputStream(recordFile));
+        }
+        //the recording's seed and options override the command line ones
+        if (replay != null) {
+            g.setReplay(replay);
+        }
         g.initialize();
-        g.run();
+        if (batchQueries) {
+            System.out.printf("batch queries: %s%n", g.getSlabBatchName());
+        }
+        if (replay != null) {
+            runReplay(g, replay);
+        } else if (headless) {
+            runHeadless(g, maxTicks);
+            g.stopRecording();
+        } else {
+            g.run();
+        }
+    }
+
+    private static void convertLevels(String textFile, String binaryFile) throws IOException {
+        LevelPack pack;
+        try (Reader text = Files.newBufferedReader(Paths.get(textFile))) {
+            pack = LevelPack.fromText(text);
+        }
+        pack.write(Paths.get(binaryFile));
+        System.out.printf("converted %d levels to %s%n", pack.getLevelCount(), binaryFile);
+    }
+
+    private static void runHeadless(Game g, long maxTicks) {
+        double nanosPerSecond = 1e9;
+        long start = System.nanoTime();
+        long ticks = g.runTicks(maxTicks);
+        double seconds = (System.nanoTime() - start) / nanosPerSecond;
+        System.out.printf("ticks: %d, score: %d, blocks left: %d, balls left: %d, ticks per second: %.0f%n",
+                ticks, g.getScore(), g.getRemainingBlocks(), g.getRemainingBalls(), ticks / seconds);
+        //event-driven scenario
+        if (g.getEventCount() > 0) {
+            System.out.printf("impacts played: %d%n", g.getEventCount());
+        }
+    }
+
+    private static void reportForever(SessionServer server) {
+        while (true) {
+            try {
+                Thread.sleep(REPORT_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                server.close();
+                return;
+            }
+            server.report(System.out);
+        }
+    }
+
+    private static void runReplay(Game g, InputReplay replay) {
+        double nanosPerSecond = 1e9;
+        long start = System.nanoTime();
+        long ticks = g.runTicks(replay.getTickCount());
+        double seconds = (System.nanoTime() - start) / nanosPerSecond;
+        boolean match = ticks == replay.getTickCount() && g.getScore() == replay.getScore()
+                && g.getRemainingBlocks() == replay.getBlocksLeft();
+        System.out.printf("replay %s: ticks: %d/%d, score: %d/%d, blocks left: %d/%d, ticks per second: %.0f%n",
+                match ? "matches" : "DIFFERS", ticks, replay.getTickCount(), g.getScore(), replay.getScore(),
+                g.getRemainingBlocks(), replay.getBlocksLeft(), ticks / seconds);
+        //the replay didn't end like the recorded game scenario
+        if (!match) {
+            System.exit(1);
+        }
     }
 }
@@ -0,0 +1,32 @@
+package Arkanoid.GameAssets;
+
+/**
+ * the part a level's block plays in the game, which decides the hit events it raises.
+ */
+public enum BlockRole {
+    /**
+     * a block the player has to remove, removed and scored when a ball of another color hits it.
+     */
+    REMOVABLE(HitEventType.BLOCK_HIT),
+    /**
+     * a block that takes out the balls that hit it, like the region under the paddle.
+     */
+    DEATH(HitEventType.BALL_LOST),
+    /**
+     * a block the balls only bounce off.
+     */
+    SOLID(null);
+
+    private final HitEventType eventType;
+
+    BlockRole(HitEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * @return the type of the events the block's hits raise, or null if they raise none
+     */
+    public HitEventType getEventType() {
+        return eventType;
+    }
+}
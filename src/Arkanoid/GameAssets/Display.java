@@ -0,0 +1,32 @@
+package Arkanoid.GameAssets;
+
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * the screen and keyboard our game runs on, either a real biuoop window or a headless stand-in.
+ */
+public interface Display {
+
+    /**
+     * @return a new surface to draw the next frame on
+     */
+    DrawSurface getDrawSurface();
+
+    /**
+     * shows a frame that was drawn on a surface returned by getDrawSurface.
+     *
+     * @param d the drawn surface
+     */
+    void show(DrawSurface d);
+
+    /**
+     * @return the keyboard sensor the player controls the paddle with
+     */
+    KeyboardSensor getKeyboardSensor();
+
+    /**
+     * closes the display once the game is over.
+     */
+    void close();
+}
@@ -0,0 +1,90 @@
+package Arkanoid.GameAssets;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * a flight recorder event holding the time spent in each phase of a single frame, and the collision queries made
+ * during it. the event is only committed while a recording with it enabled is running
+ * (for example java -XX:StartFlightRecording ...), otherwise it costs next to nothing.
+ */
+@Name("Arkanoid.Frame")
+@Label("Arkanoid Frame")
+@Category("Arkanoid")
+@Description("Time spent in each phase of a frame of the game's animation loop")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Ticks")
+    private int ticks;
+    @Label("Clear")
+    @Timespan
+    private long clear;
+    @Label("Draw All On")
+    @Timespan
+    private long draw;
+    @Label("Show")
+    @Timespan
+    private long show;
+    @Label("Time Passed")
+    @Timespan
+    private long timePassed;
+    @Label("Sleep")
+    @Timespan
+    private long sleep;
+    @Label("Collision Queries")
+    private long queries;
+    @Label("Collision Hits")
+    private long hits;
+
+    /**
+     * adds time spent in a phase to the frame.
+     *
+     * @param phase the phase
+     * @param nanos the time spent, in nanoseconds
+     */
+    void addPhase(FramePhase phase, long nanos) {
+        switch (phase) {
+            case CLEAR:
+                clear += nanos;
+                break;
+            case DRAW:
+                draw += nanos;
+                break;
+            case SHOW:
+                show += nanos;
+                break;
+            case TIME_PASSED:
+                timePassed += nanos;
+                break;
+            case SLEEP:
+                sleep += nanos;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * adds a tick played during the frame.
+     *
+     * @param tickQueries collision queries made during the tick
+     * @param tickHits    collision queries that found a collision during the tick
+     */
+    void addTick(long tickQueries, long tickHits) {
+        ticks++;
+        queries += tickQueries;
+        hits += tickHits;
+    }
+
+    /**
+     * @return true if no tick was played and nothing was shown during the frame, false otherwise
+     */
+    boolean isIdle() {
+        return ticks == 0 && show == 0;
+    }
+}
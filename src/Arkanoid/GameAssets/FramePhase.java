@@ -0,0 +1,40 @@
+package Arkanoid.GameAssets;
+
+/**
+ * the timed phases of the game's animation loop.
+ */
+public enum FramePhase {
+    /**
+     * getting a new draw surface and filling it with the background color.
+     */
+    CLEAR("clear"),
+    /**
+     * drawing all the sprites on the surface.
+     */
+    DRAW("draw_all_on"),
+    /**
+     * showing the surface on the display.
+     */
+    SHOW("show"),
+    /**
+     * notifying all the sprites that a tick has passed.
+     */
+    TIME_PASSED("time_passed"),
+    /**
+     * waiting for the next tick to be due.
+     */
+    SLEEP("sleep");
+
+    private final String metricName;
+
+    FramePhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return the name the phase is reported by
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,184 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Utils.LatencyHistogram;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * measures where the game's frame time goes. the game reports the time it spends in each phase of its loop and the
+ * collision queries of each tick, and the profiler keeps them in histograms. every frame is also committed as a
+ * flight recorder FrameEvent, and the histograms can be dumped periodically as CSV rows
+ * (elapsed_ms,metric,count,mean,p50,p99,p99.9,max), after which they start over.
+ * durations are in nanoseconds, the queries and hits metrics count collision queries per tick.
+ */
+public class FrameProfiler {
+    private static final String HEADER = "elapsed_ms,metric,count,mean,p50,p99,p99.9,max";
+    private static final double P50 = 50, P99 = 99, P999 = 99.9;
+    private static final long NANOS_PER_MILLISECOND = 1_000_000L;
+    private final LatencyHistogram[] phases = new LatencyHistogram[FramePhase.values().length];
+    private final LatencyHistogram queries = new LatencyHistogram();
+    private final LatencyHistogram hits = new LatencyHistogram();
+    private final PrintWriter csv;
+    private final long dumpIntervalNanos;
+    private final long startTime;
+    private long lastDump;
+    private long lastQueries = 0;
+    private long lastHits = 0;
+    private FrameEvent frame = null;
+
+    /**
+     * class constructor, creates a profiler that doesn't dump its histograms.
+     */
+    public FrameProfiler() {
+        this(null, 0);
+    }
+
+    /**
+     * class constructor.
+     *
+     * @param csv                the writer the CSV rows are written to, or null to never dump the histograms.
+     *                           the profiler closes it when it's closed
+     * @param dumpIntervalMillis the histograms are dumped after a frame ends, once every given number of milliseconds
+     */
+    public FrameProfiler(Writer csv, long dumpIntervalMillis) {
+        if (csv != null && dumpIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Error: dump interval must be positive");
+        }
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        this.csv = csv == null ? null : new PrintWriter(csv);
+        this.dumpIntervalNanos = dumpIntervalMillis * NANOS_PER_MILLISECOND;
+        this.startTime = System.nanoTime();
+        this.lastDump = startTime;
+        if (this.csv != null) {
+            this.csv.println(HEADER);
+        }
+    }
+
+    /**
+     * starts a new frame.
+     */
+    public void beginFrame() {
+        frame = new FrameEvent();
+        frame.begin();
+    }
+
+    /**
+     * records the time spent in a phase that started at a given time and ends now.
+     *
+     * @param phase      the phase
+     * @param phaseStart the System.nanoTime value at the start of the phase
+     * @return the System.nanoTime value at the end of the phase, so the next phase can start from it
+     */
+    public long record(FramePhase phase, long phaseStart) {
+        long now = System.nanoTime(), duration = now - phaseStart;
+        phases[phase.ordinal()].record(duration);
+        if (frame != null) {
+            frame.addPhase(phase, duration);
+        }
+        return now;
+    }
+
+    /**
+     * records the collision queries made during a tick.
+     *
+     * @param totalQueries the game environment's query count at the end of the tick
+     * @param totalHits    the game environment's hit count at the end of the tick
+     */
+    public void endTick(long totalQueries, long totalHits) {
+        long tickQueries = totalQueries - lastQueries, tickHits = totalHits - lastHits;
+        lastQueries = totalQueries;
+        lastHits = totalHits;
+        queries.record(tickQueries);
+        hits.record(tickHits);
+        if (frame != null) {
+            frame.addTick(tickQueries, tickHits);
+        }
+    }
+
+    /**
+     * ends the current frame: commits its flight recorder event, and dumps the histograms if it's time to.
+     * a frame in which the loop only waited for the next tick isn't committed.
+     */
+    public void endFrame() {
+        if (frame != null) {
+            frame.end();
+            //idle frame, or no recording is interested in the event scenario, committing is skipped
+            if (!frame.isIdle() && frame.shouldCommit()) {
+                frame.commit();
+            }
+            frame = null;
+        }
+        if (csv != null && System.nanoTime() - lastDump >= dumpIntervalNanos) {
+            dump();
+        }
+    }
+
+    /**
+     * writes a CSV row for every histogram and starts the histograms over. does nothing if there's no CSV writer.
+     */
+    public void dump() {
+        if (csv == null) {
+            return;
+        }
+        lastDump = System.nanoTime();
+        long elapsedMillis = (lastDump - startTime) / NANOS_PER_MILLISECOND;
+        for (FramePhase phase : FramePhase.values()) {
+            writeRow(elapsedMillis, phase.getMetricName(), phases[phase.ordinal()]);
+        }
+        writeRow(elapsedMillis, "queries", queries);
+        writeRow(elapsedMillis, "hits", hits);
+        csv.flush();
+        for (LatencyHistogram histogram : phases) {
+            histogram.reset();
+        }
+        queries.reset();
+        hits.reset();
+    }
+
+    /**
+     * dumps what's left in the histograms and closes the CSV writer.
+     */
+    public void close() {
+        if (csv == null) {
+            return;
+        }
+        dump();
+        csv.close();
+    }
+
+    /**
+     * @param phase the phase
+     * @return the histogram of the given phase's durations since the last dump
+     */
+    public LatencyHistogram getPhase(FramePhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * @return the histogram of collision queries per tick since the last dump
+     */
+    public LatencyHistogram getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return the histogram of collision hits per tick since the last dump
+     */
+    public LatencyHistogram getHits() {
+        return hits;
+    }
+
+    private void writeRow(long elapsedMillis, String metric, LatencyHistogram histogram) {
+        //nothing happened in this phase since the last dump scenario
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        csv.printf(Locale.ROOT, "%d,%s,%d,%.1f,%d,%d,%d,%d%n", elapsedMillis, metric, histogram.getCount(),
+                histogram.getMean(), histogram.percentile(P50), histogram.percentile(P99), histogram.percentile(P999),
+                histogram.getMax());
+    }
+}
@@ -0,0 +1,237 @@
+package Arkanoid.GameAssets;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+/**
+ * a draw surface that records the drawing calls made on it, so a frame drawn on one thread can be drawn again on
+ * another thread's surface. the calls are kept in a compact array of ints (an operation code and its values), and
+ * the colors, texts, images and polygons they use are kept in a second array. once the arrays are big enough,
+ * recording a frame only allocates copies of polygons, and the snapshot is reused for later frames after clear.
+ * colors and texts can't change after they are recorded; images are recorded by reference, so an image must not
+ * change while a snapshot of it may still be drawn.
+ */
+public class FrameSnapshot implements DrawSurface {
+    private static final int SET_COLOR = 0, DRAW_LINE = 1, DRAW_OVAL = 2, FILL_OVAL = 3, DRAW_RECTANGLE = 4,
+            FILL_RECTANGLE = 5, DRAW_IMAGE = 6, DRAW_CIRCLE = 7, FILL_CIRCLE = 8, DRAW_TEXT = 9, DRAW_POLYGON = 10,
+            FILL_POLYGON = 11;
+    private static final int INITIAL_CAPACITY = 256;
+    private final int width;
+    private final int height;
+    private int[] calls = new int[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int callsSize = 0;
+    private int objectsSize = 0;
+
+    /**
+     * class constructor.
+     *
+     * @param width  surface's width
+     * @param height surface's height
+     */
+    public FrameSnapshot(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * forgets the recorded calls, so the snapshot can record a new frame.
+     */
+    public void clear() {
+        callsSize = 0;
+        //the objects are released, so old frames don't keep them alive
+        Arrays.fill(objects, 0, objectsSize, null);
+        objectsSize = 0;
+    }
+
+    /**
+     * makes the recorded calls again, in order, on a given surface.
+     *
+     * @param d the surface
+     */
+    public void drawOn(DrawSurface d) {
+        int i = 0;
+        while (i < callsSize) {
+            switch (calls[i]) {
+                case SET_COLOR:
+                    d.setColor((Color) objects[calls[i + 1]]);
+                    i += 2;
+                    break;
+                case DRAW_LINE:
+                    d.drawLine(calls[i + 1], calls[i + 2], calls[i + 3], calls[i + 4]);
+                    i += 5;
+                    break;
+                case DRAW_OVAL:
+                    d.drawOval(calls[i + 1], calls[i + 2], calls[i + 3], calls[i + 4]);
+                    i += 5;
+                    break;
+                case FILL_OVAL:
+                    d.fillOval(calls[i + 1], calls[i + 2], calls[i + 3], calls[i + 4]);
+                    i += 5;
+                    break;
+                case DRAW_RECTANGLE:
+                    d.drawRectangle(calls[i + 1], calls[i + 2], calls[i + 3], calls[i + 4]);
+                    i += 5;
+                    break;
+                case FILL_RECTANGLE:
+                    d.fillRectangle(calls[i + 1], calls[i + 2], calls[i + 3], calls[i + 4]);
+                    i += 5;
+                    break;
+                case DRAW_IMAGE:
+                    d.drawImage(calls[i + 1], calls[i + 2], (Image) objects[calls[i + 3]]);
+                    i += 4;
+                    break;
+                case DRAW_CIRCLE:
+                    d.drawCircle(calls[i + 1], calls[i + 2], calls[i + 3]);
+                    i += 4;
+                    break;
+                case FILL_CIRCLE:
+                    d.fillCircle(calls[i + 1], calls[i + 2], calls[i + 3]);
+                    i += 4;
+                    break;
+                case DRAW_TEXT:
+                    d.drawText(calls[i + 1], calls[i + 2], (String) objects[calls[i + 3]], calls[i + 4]);
+                    i += 5;
+                    break;
+                case DRAW_POLYGON:
+                    d.drawPolygon((Polygon) objects[calls[i + 1]]);
+                    i += 2;
+                    break;
+                default:
+                    d.fillPolygon((Polygon) objects[calls[i + 1]]);
+                    i += 2;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return the number of ints the recorded calls take
+     */
+    public int getRecordedSize() {
+        return callsSize;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        record(SET_COLOR, object(color));
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        record(DRAW_LINE, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        record(DRAW_OVAL, x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        record(FILL_OVAL, x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        record(DRAW_RECTANGLE, x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        record(FILL_RECTANGLE, x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        record(DRAW_IMAGE, x, y, object(image));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        record(DRAW_CIRCLE, x, y, r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        record(FILL_CIRCLE, x, y, r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        record(DRAW_TEXT, x, y, object(s), fontSize);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        //polygons can change, so a copy is recorded
+        record(DRAW_POLYGON, object(new Polygon(p.xpoints, p.ypoints, p.npoints)));
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        record(FILL_POLYGON, object(new Polygon(p.xpoints, p.ypoints, p.npoints)));
+    }
+
+    /**
+     * @param o an object a call uses
+     * @return the object's index in the objects array
+     */
+    private int object(Object o) {
+        if (objectsSize == objects.length) {
+            objects = Arrays.copyOf(objects, objectsSize * 2);
+        }
+        objects[objectsSize] = o;
+        return objectsSize++;
+    }
+
+    private void record(int op, int a) {
+        int at = reserve(2);
+        calls[at] = op;
+        calls[at + 1] = a;
+    }
+
+    private void record(int op, int a, int b, int c) {
+        int at = reserve(4);
+        calls[at] = op;
+        calls[at + 1] = a;
+        calls[at + 2] = b;
+        calls[at + 3] = c;
+    }
+
+    private void record(int op, int a, int b, int c, int d) {
+        int at = reserve(5);
+        calls[at] = op;
+        calls[at + 1] = a;
+        calls[at + 2] = b;
+        calls[at + 3] = c;
+        calls[at + 4] = d;
+    }
+
+    /**
+     * @param count number of ints a call takes
+     * @return the index the call's ints start at
+     */
+    private int reserve(int count) {
+        if (callsSize + count > calls.length) {
+            calls = Arrays.copyOf(calls, Math.max(calls.length * 2, callsSize + count));
+        }
+        int at = callsSize;
+        callsSize += count;
+        return at;
+    }
+}
@@ -2,6 +2,7 @@ package Arkanoid.GameAssets;
 
 import Arkanoid.Geometry.Point;
 import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.SlabBatch;
 
 import Arkanoid.Sprites.Sprite;
 import Arkanoid.Sprites.Collidable;
@@ -12,29 +13,112 @@ import Arkanoid.Sprites.ScoreIndicator;
 import Arkanoid.Sprites.BlockRemover;
 import Arkanoid.Sprites.Ball;
 import Arkanoid.Sprites.BallRemover;
+import Arkanoid.Sprites.BallField;
+import Arkanoid.Sprites.BallCollider;
+import Arkanoid.Sprites.BallSpawner;
+import Arkanoid.Sprites.ImpactScheduler;
+import Arkanoid.Sprites.StaticLayer;
+import Arkanoid.Sprites.TileMap;
 
 import Arkanoid.Utils.Counter;
+import Arkanoid.Utils.GameRandom;
+import Arkanoid.Utils.TripleBuffer;
 import Arkanoid.Utils.Operations;
+import Arkanoid.Utils.Palette;
 
 import biuoop.DrawSurface;
-import biuoop.GUI;
+import biuoop.KeyboardSensor;
 import biuoop.Sleeper;
 
 import java.awt.Color;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * stores the game's sprite collection and collidables list and runs the game animation.
  */
 public class Game {
+    private static final Color BACKGROUND = new Color(204, 255, 255);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L, NANOS_PER_MILLISECOND = 1_000_000L;
+    //the tick rate the velocities and the paddle's step are measured at
+    static final int BASE_TICK_RATE = 60;
     private SpriteCollection sprites;
     private GameEnvironment environment;
-    private GUI gui;
+    private Display display;
+    private boolean frameCap;
+    private boolean finished = false;
+    private int tickRate = 60;
+    private int renderRate = 60;
+    private int maxCatchUpTicks = 5;
+    private int ballFieldSize = 0;
+    private int threads = 1;
+    private boolean sweptCollisions = false;
+    private boolean batchQueries = false;
+    private int ballCount = 3;
+    private boolean ballCollisions = false;
+    private boolean eventDriven = false;
+    private boolean tileMap = false;
+    private boolean staticLayer = false;
+    private boolean renderThread = false;
+    private TripleBuffer<FrameSnapshot> frames = null;
+    private Thread renderer = null;
+    private volatile boolean simulationOver = false;
+    private volatile RuntimeException renderError = null;
+    private ForkJoinPool pool = null;
+    private HitEventDispatcher hitEvents;
+    //the game's colors, blocks and balls carry their color's id in it
+    private Palette palette;
+    private long seed = new GameRandom().nextLong();
+    private OutputStream recordingOut = null;
+    private InputRecorder recorder = null;
+    private TickInput input = null;
+    //the recording the game plays again, null if it isn't a replay
+    private InputReplay replay = null;
+    private LevelPack.Level level = null;
+    private Paddle paddle = null;
+    private BallField field = null;
+    private ImpactScheduler scheduler = null;
+    //the ball objects in the game, in the order they were added, a lost ball is taken out without a search
+    private final Set<Ball> ballSprites = new LinkedHashSet<>();
+    private FrameProfiler profiler = null;
     private final Counter blockCounter = new Counter();
     private final Counter ballCounter = new Counter();
     private final Counter score = new Counter();
 
+    /**
+     * class constructor, creates a game that is shown in a window at 60 frames per second.
+     * the window is opened by initialize.
+     */
+    public Game() {
+        this.display = null;
+        this.frameCap = true;
+    }
+
+    /**
+     * class constructor, creates a game that runs on a given display.
+     *
+     * @param display  the display the game is drawn on and reads the keyboard from
+     * @param frameCap true to limit the game to 60 frames per second, false to run it as fast as possible
+     */
+    public Game(Display display, boolean frameCap) {
+        this.display = display;
+        this.frameCap = frameCap;
+    }
+
+    /**
+     * creates a game that runs without a window and without a frame cap, on a new headless display.
+     *
+     * @return the headless game, before it was initialized
+     */
+    public static Game headless() {
+        return new Game(new HeadlessDisplay(), false);
+    }
+
     /**
      * adds a given collidable object to the game's collidable objects list.
      *
@@ -54,96 +138,776 @@ public class Game {
     }
 
     /**
-     * initializes all our game components: sprite collection, game environment, gui, paddle, balls and blocks.
+     * initializes all our game components: sprite collection, game environment, display, paddle, balls and blocks.
      */
     public void initialize() {
+        if (ballCollisions && ballFieldSize > 0) {
+            throw new IllegalArgumentException("Error: ball collisions can't be used with a ball field");
+        }
+        if (eventDriven && (ballCollisions || ballFieldSize > 0)) {
+            throw new IllegalArgumentException("Error: the event-driven engine only moves ball objects that pass "
+                    + "through each other");
+        }
+        if (tileMap && level != null) {
+            throw new IllegalArgumentException("Error: a tile map only holds the built-in rows, not a level");
+        }
+        //replay scenario, the recorded keys only play the same game on the level they were recorded on
+        if (replay != null && replay.getLevelHash() != levelHash()) {
+            throw new IllegalArgumentException("Error: the recording was made on another level");
+        }
         sprites = new SpriteCollection();
         environment = new GameEnvironment();
-        gui = new GUI("Arkanoid", 800, 600);
+        if (batchQueries) {
+            environment.setSlabBatch(SlabBatch.create());
+        }
+        hitEvents = new HitEventDispatcher();
+        //the layer's image keeps changing on the game's thread, so a render thread can't draw it
+        if (staticLayer && !renderThread) {
+            sprites.setStaticLayer(new StaticLayer(800, 600, BACKGROUND));
+        }
+        //parallel mode scenario, the balls' collision queries are spread over a pool of threads
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+            sprites.setParallelism(pool);
+        }
+        //no display was given scenario, the game is shown in a window
+        if (display == null) {
+            display = new GuiDisplay("Arkanoid", 800, 600);
+        }
+        //recording scenario, the paddle reads the keys the recorder latched for the current tick
+        if (recordingOut != null) {
+            recorder = new InputRecorder(display.getKeyboardSensor(), recordingOut, seed, ballFieldSize,
+                    sweptCollisions, ballCount, ballCollisions, eventDriven, tileMap, levelHash(), tickRate);
+            input = recorder;
+        }
+        //every random choice of the game comes from the seed, so a recorded game can be played again.
+        //the colors and the balls get their own streams, so drawing more balls doesn't change the colors
+        GameRandom random = new GameRandom(seed), colors = random.split(), balls = random.split();
+        palette = new Palette();
 
         Point screenUpperLeft = new Point(0, 0), upperLeft;
         Rectangle screen = new Rectangle(screenUpperLeft, 800, 600);
-        int width = 50, height = 15, numBlocks = 12, numRows = 6, numBalls = 3, r = 5, blockAdded = 1, ballAdded = 1;
+        int width = 50, height = 15, numBlocks = 12, numRows = 6, r = 5, blockAdded = 1, ballAdded = 1;
         List<Rectangle> obstacles = new ArrayList<>();
-        List<Block> blocks = new ArrayList<>();
-        Color color;
+        int colorId;
         Block block;
         Ball ball;
-        Paddle paddle = new Paddle(gui.getKeyboardSensor());
+        paddle = new Paddle(input == null ? display.getKeyboardSensor() : input, palette,
+                palette.idOf(Operations.getRandColor(colors)));
+        paddle.setTimeStep(getTimeStep());
         BlockRemover blockRemover = new BlockRemover(this, blockCounter);
         ScoreTrackingListener stl = new ScoreTrackingListener(score);
+        //every block hit removes the block and adds to the score
+        hitEvents.subscribe(HitEventType.BLOCK_HIT, blockRemover);
+        hitEvents.subscribe(HitEventType.BLOCK_HIT, stl);
         createBounds(obstacles);
         ScoreIndicator si = new ScoreIndicator(score);
         obstacles.add(si);
         environment.addCollidable(si);
         sprites.addSprite(si);
 
+        //level scenario, the blocks are read from the level instead of the built-in rows
+        if (level != null) {
+            createLevelBlocks(obstacles);
+        }
+        //tile map scenario, the built-in rows are kept as tiles instead of block objects
+        if (tileMap) {
+            createTileRows(obstacles, colors, numBlocks, numRows);
+        }
         //loop decided how many blocks will be in a row
-        for (int i = 0; i < numRows; i++) {
-            color = Operations.getRandColor();
+        for (int i = 0; level == null && !tileMap && i < numRows; i++) {
+            colorId = palette.idOf(Operations.getRandColor(colors));
             //loop creates the blocks in the current row
             for (int j = 0; j < numBlocks - i; j++) {
                 upperLeft = new Point(745 - j * width, 150 + i * height);
-                block = new Block(upperLeft, width, height, color);
+                block = new Block(upperLeft, width, height, palette, colorId);
                 block.addToGame(this);
                 obstacles.add(block);
-                blocks.add(block);
                 //we update the block's counter accordingly
                 blockCounter.increase(blockAdded);
-                block.addHitListener(blockRemover);
-                block.addHitListener(stl);
+                block.setHitEvents(hitEvents, HitEventType.BLOCK_HIT);
             }
         }
         paddle.addToGame(this);
         obstacles.add(paddle.getBlock());
-        //loop creates 2 balls with random location and speed and adds them to the game's sprites collection
-        for (int i = 0; i < numBalls; i++) {
-            color = Color.RED;
-            ball = Ball.createRandomBall(r, screen, obstacles, color, environment);
+        //the balls are created in the free space left by all the obstacles, which is mapped once
+        BallSpawner spawner = new BallSpawner(r, screen, obstacles, balls);
+        //ball field scenario, the balls are kept in parallel arrays instead of ball objects
+        if (ballFieldSize > 0) {
+            field = new BallField(environment, palette);
+            field.setSweptCollisions(sweptCollisions);
+            field.setTimeStep(getTimeStep());
+            for (int i = 0; i < ballFieldSize; i++) {
+                field.addBall(spawner.nextCenter(), spawner.getSize(), Color.RED, spawner.nextVelocity());
+            }
+            addSprite(field);
+            ballCounter.increase(ballFieldSize);
+            hitEvents.subscribe(HitEventType.BLOCK_HIT, field.getHitter(), field.getHitter());
+            return;
+        }
+        //ball collisions scenario, the collider is stepped before the balls, so they move with its bounces
+        BallCollider collider = null;
+        if (ballCollisions) {
+            collider = new BallCollider(hitEvents);
+            collider.addToGame(this);
+        }
+        //event-driven scenario, the scheduler moves the balls after the paddle moved
+        if (eventDriven) {
+            scheduler = new ImpactScheduler(environment, paddle);
+            scheduler.setTimeStep(getTimeStep());
+            scheduler.addToGame(this);
+        }
+        //loop creates the balls with random location and speed and adds them to the game's sprites collection
+        for (int i = 0; i < ballCount; i++) {
+            colorId = palette.idOf(Color.RED);
+            ball = spawner.spawn(palette, colorId, environment);
+            ball.setSweptCollisions(sweptCollisions);
+            ball.setTimeStep(getTimeStep());
             ball.addToGame(this);
-            ballCounter.increase(ballAdded);
-            //adds the new ball as a listener to all the removable blocks in the game
-            for (Block b : blocks) {
-                b.addHitListener(ball);
+            ballSprites.add(ball);
+            if (collider != null) {
+                collider.add(ball);
             }
+            if (scheduler != null) {
+                scheduler.add(ball);
+            }
+            ballCounter.increase(ballAdded);
+            //the ball listens to the blocks it hits, so it takes their color
+            hitEvents.subscribe(HitEventType.BLOCK_HIT, ball, ball);
         }
     }
 
     /**
-     * runs the game's animation loop.
+     * runs the game's animation loop with a fixed timestep: the game is played at a constant tick rate,
+     * measured with System.nanoTime, no matter how long drawing takes. when the loop falls behind, it plays
+     * several ticks before drawing the next frame (frames are skipped), but no more than the catch-up limit,
+     * after which the missed time is dropped so a slow machine can't fall further and further behind.
+     * frames are drawn at most at the render rate. without a frame cap, a tick is played and drawn on every
+     * iteration of the loop, as fast as possible.
+     * with a render thread (see setRenderThread), the loop only records its frames, and the render thread draws
+     * and shows them.
      */
     public void run() {
+        if (renderThread) {
+            startRenderer();
+        }
         Sleeper sleeper = new Sleeper();
-        int framesPerSecond = 60, screenWidth = 800, screenHeight = 600, levelPassed = 100;
-        int millisecondsPerFrame = 1000 / framesPerSecond;
-
-        while (true) {
-            //if there are no block left to remove or all the balls have gone out we close the game.
-            if ((blockCounter.getValue() == 0) || (ballCounter.getValue() == 0)) {
-                //no blocks left scenario, we add 100 points to the player's score
-                if (blockCounter.getValue() == 0) {
-                    score.increase(levelPassed);
+        long tickNanos = NANOS_PER_SECOND / tickRate, renderNanos = NANOS_PER_SECOND / renderRate;
+        long previous = System.nanoTime(), nextRender = previous, accumulator = 0;
+
+        while (!isOver()) {
+            beginFrame();
+            //no frame cap scenario, there's no time to keep track of
+            if (!frameCap) {
+                tick();
+                presentFrame();
+                endFrame();
+                continue;
+            }
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+            int ticks = 0;
+            while (accumulator >= tickNanos && ticks < maxCatchUpTicks && !isOver()) {
+                tick();
+                accumulator -= tickNanos;
+                ticks++;
+            }
+            //the loop is too far behind to catch up scenario, we drop the missed time
+            if (accumulator >= tickNanos) {
+                accumulator %= tickNanos;
+            }
+            now = System.nanoTime();
+            if (ticks > 0 && now >= nextRender) {
+                presentFrame();
+                //frames are scheduled on a fixed grid too, unless drawing fell behind it
+                nextRender = Math.max(nextRender + renderNanos, now);
+            }
+            //sleeps until the next tick is due
+            long nanosToNextTick = tickNanos - accumulator - (System.nanoTime() - previous);
+            long millisToSleep = nanosToNextTick / NANOS_PER_MILLISECOND, sleepStart = startPhase();
+            if (millisToSleep > 0) {
+                sleeper.sleepFor(millisToSleep);
+            } else if (nanosToNextTick > 0) {
+                Thread.yield();
+            }
+            endPhase(FramePhase.SLEEP, sleepStart);
+            endFrame();
+        }
+        if (renderer != null) {
+            stopRenderer();
+        }
+        finish();
+    }
+
+    /**
+     * sets the number of ticks played per second when the game runs with a frame cap (60 by default).
+     * velocities and the paddle's step are measured per tick at the base rate of 60 ticks per second, and every
+     * tick moves the balls and the paddle by its part of such a tick, so a higher tick rate keeps the game's speed
+     * and only makes its steps finer. the game plays the same way at 60 ticks per second as before the tick rate
+     * could be set. a recorded game is replayed at its recorded tick rate. must be called before initialize.
+     *
+     * @param ticksPerSecond the tick rate, for example 60, 120 or 240
+     */
+    public void setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Error: tick rate must be positive");
+        }
+        this.tickRate = ticksPerSecond;
+    }
+
+    /**
+     * @return the part of a tick at the base rate every tick of the game takes
+     */
+    private double getTimeStep() {
+        return (double) BASE_TICK_RATE / tickRate;
+    }
+
+    /**
+     * sets the maximal number of frames drawn per second when the game runs with a frame cap (60 by default).
+     *
+     * @param framesPerSecond the render rate
+     */
+    public void setRenderRate(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Error: render rate must be positive");
+        }
+        this.renderRate = framesPerSecond;
+    }
+
+    /**
+     * makes the game play with a given number of balls that are kept in a single ball field,
+     * instead of the 3 ball objects it has by default. must be called before initialize.
+     *
+     * @param balls number of balls in the field
+     */
+    public void setBallField(int balls) {
+        if (balls <= 0) {
+            throw new IllegalArgumentException("Error: ball field must contain balls");
+        }
+        this.ballFieldSize = balls;
+    }
+
+    /**
+     * makes the game play with a given number of ball objects instead of 3. must be called before initialize.
+     *
+     * @param balls number of balls
+     */
+    public void setBallCount(int balls) {
+        if (balls <= 0) {
+            throw new IllegalArgumentException("Error: ball count must be positive");
+        }
+        this.ballCount = balls;
+    }
+
+    /**
+     * makes the game's balls bounce off each other (see BallCollider), every hit between two balls raises
+     * BALL_HIT events. only ball objects bounce off each other, so the option can't be used with a ball field.
+     * must be called before initialize.
+     *
+     * @param enabled true to make the balls bounce off each other, false to let them pass through each other
+     *                (the default)
+     */
+    public void setBallCollisions(boolean enabled) {
+        this.ballCollisions = enabled;
+    }
+
+    /**
+     * makes the game move its balls with an event-driven engine (see ImpactScheduler): every ball's next impact is
+     * looked for once and kept in a priority queue, and only the impacts that are due are played on every tick.
+     * the balls move and bounce like they do with swept collisions, though not to the last bit, and runTicks skips
+     * the ticks in which only the balls move straight to the next impact. only ball objects that pass through each
+     * other can be moved this way, so the option can't be used with a ball field or ball collisions.
+     * must be called before initialize.
+     *
+     * @param enabled true to use the event-driven engine, false to step the balls on every tick (the default)
+     */
+    public void setEventDriven(boolean enabled) {
+        this.eventDriven = enabled;
+    }
+
+    /**
+     * makes the game keep its built-in rows of blocks in a tile map (see TileMap) instead of as block objects.
+     * the rows look the same and have the same colors, and the balls bounce off them the same way, though not to
+     * the last bit. a level's blocks aren't kept in a tile map, so the option can't be used with a level.
+     * must be called before initialize.
+     *
+     * @param enabled true to keep the blocks in a tile map, false to create a block object for each of them
+     *                (the default)
+     */
+    public void setTileMap(boolean enabled) {
+        this.tileMap = enabled;
+    }
+
+    /**
+     * @return the number of impacts the event-driven engine played so far, 0 if the game doesn't use it
+     */
+    public long getEventCount() {
+        return scheduler == null ? 0 : scheduler.getEventCount();
+    }
+
+    /**
+     * makes the game step its balls on several threads. the balls look for their collisions in parallel,
+     * and the hits are then applied in the balls' order, so the game plays exactly like it does on one thread.
+     * must be called before initialize.
+     *
+     * @param threadCount number of threads, 1 to step every sprite on the game's thread
+     */
+    public void setThreads(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Error: thread count must be positive");
+        }
+        this.threads = threadCount;
+    }
+
+    /**
+     * makes the game's balls move with swept collisions (see Ball.setSweptCollisions), so fast balls and low tick
+     * rates don't let balls pass through blocks. must be called before initialize.
+     *
+     * @param enabled true to use swept collisions, false to move the balls' centers (the default)
+     */
+    public void setSweptCollisions(boolean enabled) {
+        this.sweptCollisions = enabled;
+    }
+
+    /**
+     * makes the game's collision queries test all the blocks at once with a batch slab test instead of walking the
+     * environment's grid (see GameEnvironment.setSlabBatch), with the Vector API when it's available.
+     * the results are the same either way. must be called before initialize.
+     *
+     * @param enabled true to use batch queries, false to walk the grid (the default)
+     */
+    public void setBatchQueries(boolean enabled) {
+        this.batchQueries = enabled;
+    }
+
+    /**
+     * @return the name of the batch slab test the game's collision queries use, or null if they walk the grid
+     */
+    public String getSlabBatchName() {
+        SlabBatch batch = environment.getSlabBatch();
+        return batch == null ? null : batch.getName();
+    }
+
+    /**
+     * makes the game draw its static sprites (the blocks) once into a cached layer, which is drawn again only
+     * where a block was removed, instead of drawing the background and every block on every frame.
+     * must be called before initialize.
+     *
+     * @param enabled true to use a static layer, false to draw everything on every frame (the default)
+     */
+    public void setStaticLayer(boolean enabled) {
+        this.staticLayer = enabled;
+    }
+
+    /**
+     * makes the game play a level from a level pack instead of its built-in rows of blocks.
+     * must be called before initialize.
+     *
+     * @param gameLevel the level, or null for the built-in rows
+     */
+    public void setLevel(LevelPack.Level gameLevel) {
+        this.level = gameLevel;
+    }
+
+    /**
+     * sets the seed the game's random choices (the colors and the balls' locations and velocities) are made from.
+     * by default every game gets a random seed. must be called before initialize.
+     *
+     * @param randomSeed the seed
+     */
+    public void setSeed(long randomSeed) {
+        this.seed = randomSeed;
+    }
+
+    /**
+     * @return the seed the game's random choices are made from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * makes the game record the keys pressed on every tick, with its seed and options, to a given stream
+     * (see InputRecorder). the recording is closed when the game is over or stopRecording is called.
+     * must be called before initialize.
+     *
+     * @param out the stream the recording is written to, or null to stop recording
+     */
+    public void setInputRecording(OutputStream out) {
+        this.recordingOut = out;
+    }
+
+    /**
+     * makes the game play again a recorded game: it takes the recording's seed and options, and its paddle is moved
+     * by the recorded keys instead of the display's keyboard. the game must be given the level the recording was
+     * made on (see setLevel), initialize rejects another one. must be called before initialize.
+     *
+     * @param recording the recording
+     */
+    public void setReplay(InputReplay recording) {
+        this.seed = recording.getSeed();
+        this.ballFieldSize = recording.getBallField();
+        this.sweptCollisions = recording.isSweptCollisions();
+        this.ballCount = recording.getBallCount();
+        this.ballCollisions = recording.isBallCollisions();
+        this.eventDriven = recording.isEventDriven();
+        this.tileMap = recording.isTileMap();
+        this.tickRate = recording.getTickRate();
+        this.input = recording;
+        this.replay = recording;
+    }
+
+    /**
+     * writes the end of the game's recording with the current score and number of blocks, if the game is recorded.
+     * called when the game is over, or by the caller of runTicks when it stops playing before that.
+     */
+    public void stopRecording() {
+        if (recorder != null) {
+            recorder.close(score.getValue(), blockCounter.getValue());
+        }
+    }
+
+    /**
+     * makes run draw and show the frames on a separate render thread, so a slow display never delays the game's
+     * ticks and drawing can use another core. the game's loop records every frame into a snapshot of its drawing
+     * calls and publishes it through a triple buffer, and the render thread draws the latest published snapshot
+     * on the display; frames it's too slow to draw are skipped. the static layer isn't used in this mode, and
+     * only the game's thread is profiled (its draw phase is the recording of the snapshot).
+     * must be called before initialize.
+     *
+     * @param enabled true to use a render thread, false to draw on the game's thread (the default)
+     */
+    public void setRenderThread(boolean enabled) {
+        this.renderThread = enabled;
+    }
+
+    /**
+     * makes the game report the time it spends in each phase of its loop, and the collision queries of each tick,
+     * to a given profiler. the profiler is closed when the game is over.
+     *
+     * @param frameProfiler the profiler, or null to stop profiling
+     */
+    public void setProfiler(FrameProfiler frameProfiler) {
+        this.profiler = frameProfiler;
+    }
+
+    /**
+     * sets the maximal number of ticks played in a row to catch up with the time, before drawing a frame.
+     *
+     * @param ticks the catch-up limit (5 by default)
+     */
+    public void setMaxCatchUpTicks(int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Error: catch-up limit must be positive");
+        }
+        this.maxCatchUpTicks = ticks;
+    }
+
+    /**
+     * plays the game without drawing it, as fast as possible, until it's over or a number of ticks was played.
+     * with the event-driven engine, the ticks in which only the balls move are skipped at once, as long as no key
+     * is pressed and the game isn't recorded or replayed.
+     *
+     * @param maxTicks maximal number of ticks to play
+     * @return the number of ticks played
+     */
+    public long runTicks(long maxTicks) {
+        long ticks = 0;
+        while (ticks < maxTicks && !isOver()) {
+            //only the balls move until the next impact scenario, they move straight there
+            if (scheduler != null && isIdle()) {
+                long quiet = Math.min(scheduler.quietTicks(), maxTicks - ticks);
+                if (quiet > 0) {
+                    scheduler.skip(quiet);
+                    ticks += quiet;
+                    continue;
                 }
-                gui.close();
-                return;
             }
-            long startTime = System.currentTimeMillis(); // timing
-            DrawSurface d = gui.getDrawSurface();
-            //screen's background color
-            d.setColor(new Color(204, 255, 255));
+            beginFrame();
+            tick();
+            endFrame();
+            ticks++;
+        }
+        //the game ended during the run scenario
+        if (isOver()) {
+            finish();
+        }
+        return ticks;
+    }
+
+    /**
+     * @return true if nothing but the balls moves in the next tick: the paddle's keys aren't pressed, and the ticks
+     * aren't recorded, replayed or profiled
+     */
+    private boolean isIdle() {
+        KeyboardSensor keyboard = display.getKeyboardSensor();
+        return input == null && profiler == null && !keyboard.isPressed(KeyboardSensor.LEFT_KEY)
+                && !keyboard.isPressed(KeyboardSensor.RIGHT_KEY);
+    }
+
+    /**
+     * plays a single step of the game: every sprite is notified that a frame's time has passed.
+     */
+    public void tick() {
+        long start = startPhase();
+        if (input != null) {
+            input.nextTick();
+        }
+        this.sprites.notifyAllTimePassed();
+        endPhase(FramePhase.TIME_PASSED, start);
+        if (profiler != null) {
+            profiler.endTick(environment.getQueryCount(), environment.getHitCount());
+        }
+    }
+
+    /**
+     * draws the game's current state on a new surface of the display and shows it.
+     */
+    public void drawFrame() {
+        int screenWidth = 800, screenHeight = 600;
+        long start = startPhase();
+        DrawSurface d = display.getDrawSurface();
+        //screen's background color, the static layer already has it
+        if (!staticLayer) {
+            d.setColor(BACKGROUND);
             d.fillRectangle(0, 0, screenWidth, screenHeight);
-            //draws all the game's sprites
-            this.sprites.drawAllOn(d);
-            gui.show(d);
-            this.sprites.notifyAllTimePassed();
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
-            if (milliSecondLeftToSleep > 0) {
-                sleeper.sleepFor(milliSecondLeftToSleep);
+        }
+        start = endPhase(FramePhase.CLEAR, start);
+        //draws all the game's sprites
+        this.sprites.drawAllOn(d);
+        start = endPhase(FramePhase.DRAW, start);
+        display.show(d);
+        endPhase(FramePhase.SHOW, start);
+    }
+
+    /**
+     * the game is over when there are no blocks left to remove or all the balls have gone out.
+     *
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isOver() {
+        return (blockCounter.getValue() == 0) || (ballCounter.getValue() == 0);
+    }
+
+    /**
+     * @return the player's score
+     */
+    public int getScore() {
+        return score.getValue();
+    }
+
+    /**
+     * @return the number of blocks left to remove
+     */
+    public int getRemainingBlocks() {
+        return blockCounter.getValue();
+    }
+
+    /**
+     * @return the number of balls left in the game
+     */
+    public int getRemainingBalls() {
+        return ballCounter.getValue();
+    }
+
+    /**
+     * @return the x coordinate of the paddle's left edge
+     */
+    public double getPaddleX() {
+        return paddle.getCollisionRectangle().getLowXBound();
+    }
+
+    /**
+     * adds the centers of the balls that are still in the game to a given list.
+     *
+     * @param centers the list
+     */
+    public void collectBallCenters(List<Point> centers) {
+        for (Ball ball : ballSprites) {
+            centers.add(ball.getCenter());
+        }
+        //ball field scenario
+        if (field != null) {
+            for (int i = 0; i < field.size(); i++) {
+                centers.add(field.getCenter(i));
+            }
+        }
+    }
+
+    /**
+     * @return the dispatcher that routes the game's hit events
+     */
+    public HitEventDispatcher getHitEvents() {
+        return hitEvents;
+    }
+
+    /**
+     * @return the display the game runs on
+     */
+    public Display getDisplay() {
+        return display;
+    }
+
+    /**
+     * gives the level passing bonus if all the blocks were removed and closes the display, only once.
+     */
+    private void finish() {
+        int levelPassed = 100;
+        if (finished) {
+            return;
+        }
+        finished = true;
+        //no blocks left scenario, we add 100 points to the player's score
+        if (blockCounter.getValue() == 0) {
+            score.increase(levelPassed);
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (profiler != null) {
+            profiler.close();
+        }
+        stopRecording();
+        display.close();
+    }
+
+    /**
+     * @return the content hash of the game's level, or InputRecorder.BUILT_IN_ROWS if it plays the built-in rows
+     */
+    private long levelHash() {
+        return level == null ? InputRecorder.BUILT_IN_ROWS : level.getContentHash();
+    }
+
+    /**
+     * creates the blocks of the game's level, each block raises the hit events of its role.
+     *
+     * @param obstacles the list the blocks are added to, so balls aren't created inside them
+     */
+    private void createLevelBlocks(List<Rectangle> obstacles) {
+        int blockAdded = 1;
+        //the level's palette ids are turned into the game's palette ids once, not for every block
+        int[] colorIds = new int[level.getPaletteSize()];
+        for (int id = 0; id < colorIds.length; id++) {
+            colorIds[id] = palette.idOf(level.getPaletteColor(id));
+        }
+        for (int i = 0; i < level.getBlockCount(); i++) {
+            Block block = new Block(new Point(level.getX(i), level.getY(i)), level.getWidth(i), level.getHeight(i),
+                    palette, colorIds[level.getColorId(i)]);
+            block.addToGame(this);
+            obstacles.add(block);
+            BlockRole role = level.getRole(i);
+            //only the removable blocks have to be removed to pass the level
+            if (role == BlockRole.REMOVABLE) {
+                blockCounter.increase(blockAdded);
+            }
+            block.setHitEvents(role.getEventType() == null ? null : hitEvents, role.getEventType());
+        }
+    }
+
+    /**
+     * draws the game's current state, or publishes it to the render thread if there is one.
+     */
+    private void presentFrame() {
+        if (renderer == null) {
+            drawFrame();
+            return;
+        }
+        long start = startPhase();
+        FrameSnapshot snapshot = frames.getBack();
+        snapshot.clear();
+        this.sprites.drawAllOn(snapshot);
+        frames.publish();
+        endPhase(FramePhase.DRAW, start);
+        LockSupport.unpark(renderer);
+    }
+
+    private void startRenderer() {
+        int screenWidth = 800, screenHeight = 600;
+        frames = new TripleBuffer<>(() -> new FrameSnapshot(screenWidth, screenHeight));
+        simulationOver = false;
+        renderer = new Thread(this::render, "Arkanoid render");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    /**
+     * publishes the game's final state, and waits for the render thread to draw it and stop.
+     */
+    private void stopRenderer() {
+        presentFrame();
+        simulationOver = true;
+        LockSupport.unpark(renderer);
+        try {
+            renderer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderer = null;
+        if (renderError != null) {
+            throw renderError;
+        }
+    }
+
+    /**
+     * the render thread's loop: draws every new snapshot on a new surface of the display and shows it, and waits
+     * for the next snapshot in between, until the game is over and its last snapshot was drawn.
+     */
+    private void render() {
+        int screenWidth = 800, screenHeight = 600;
+        long waitNanos = NANOS_PER_SECOND / renderRate;
+        try {
+            while (true) {
+                //read before looking for a snapshot, so the last snapshot is drawn before the thread stops
+                boolean over = simulationOver;
+                if (frames.update()) {
+                    DrawSurface d = display.getDrawSurface();
+                    d.setColor(BACKGROUND);
+                    d.fillRectangle(0, 0, screenWidth, screenHeight);
+                    frames.getFront().drawOn(d);
+                    display.show(d);
+                } else if (over) {
+                    return;
+                } else {
+                    //the game's thread wakes the render thread up when it publishes a snapshot
+                    LockSupport.parkNanos(this, waitNanos);
+                }
             }
+        } catch (RuntimeException e) {
+            renderError = e;
+        }
+    }
+
+    private void beginFrame() {
+        if (profiler != null) {
+            profiler.beginFrame();
+        }
+    }
+
+    private void endFrame() {
+        if (profiler != null) {
+            profiler.endFrame();
         }
     }
 
+    /**
+     * @return the current System.nanoTime value if the game is profiled, 0 otherwise
+     */
+    private long startPhase() {
+        return profiler == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * reports a phase that started at a given time and ends now to the profiler, if the game is profiled.
+     *
+     * @param phase the phase
+     * @param start the value startPhase returned at the start of the phase
+     * @return the end time of the phase, so the next phase can start from it
+     */
+    private long endPhase(FramePhase phase, long start) {
+        return profiler == null ? 0 : profiler.record(phase, start);
+    }
+
     /**
      * removes a given Collidable object from the game environment's collidables list.
      *
@@ -151,6 +915,10 @@ public class Game {
      */
     public void removeCollidable(Collidable c) {
         environment.removeCollidable(c);
+        //only the balls that were about to hit the collidable have to look for a new impact
+        if (scheduler != null) {
+            scheduler.collidableRemoved(c);
+        }
     }
 
     /**
@@ -160,12 +928,43 @@ public class Game {
      */
     public void removeSprite(Sprite s) {
         sprites.removeSprite(s);
+        //a lost ball scenario
+        if (s instanceof Ball) {
+            ballSprites.remove(s);
+        }
+    }
+
+    /**
+     * creates the built-in rows of blocks as the tiles of a tile map: row i fills the columns from i to the right
+     * end of the map, and takes the next random color, like the rows of block objects.
+     *
+     * @param obstacles the list the tiles' bounds are added to, so balls aren't created inside them
+     * @param colors    the random numbers the rows' colors are drawn from
+     * @param numBlocks number of tiles in the first row
+     * @param numRows   number of rows
+     */
+    private void createTileRows(List<Rectangle> obstacles, GameRandom colors, int numBlocks, int numRows) {
+        int width = 50, height = 15, blockAdded = 1;
+        TileMap map = new TileMap(new Point(795 - numBlocks * width, 150), width, height, numBlocks, numRows,
+                palette);
+        for (int row = 0; row < numRows; row++) {
+            int colorId = palette.idOf(Operations.getRandColor(colors));
+            for (int column = row; column < numBlocks; column++) {
+                map.setTile(column, row, colorId);
+                obstacles.add(map.tile(column, row));
+                blockCounter.increase(blockAdded);
+            }
+        }
+        map.setHitEvents(hitEvents, HitEventType.BLOCK_HIT);
+        environment.addTileMap(map);
+        sprites.addSprite(map);
     }
 
     private void createDeathRegion(List<Rectangle> obstacles) {
-        Block deathRegion = new Block(new Point(0, 595), 800, 600, Color.GRAY);
+        Block deathRegion = new Block(new Point(0, 595), 800, 600, palette, palette.idOf(Color.GRAY));
         BallRemover ballRemover = new BallRemover(this, ballCounter);
-        deathRegion.addHitListener(ballRemover);
+        hitEvents.subscribe(HitEventType.BALL_LOST, ballRemover);
+        deathRegion.setHitEvents(hitEvents, HitEventType.BALL_LOST);
         environment.addCollidable(deathRegion);
         sprites.addSprite(deathRegion);
         obstacles.add(deathRegion);
@@ -173,21 +972,21 @@ public class Game {
 
     private void createBounds(List<Rectangle> obstacles) {
         int screenWidth = 800, screenHeight = 600, thickness = 5, scoreIndThick = 20;
-        Color borderColor = Color.GRAY;
+        int borderColor = palette.idOf(Color.GRAY);
         //creates the upper screen border and adds it to the Game's collidable list and sprite collection
-        Block up = new Block(new Point(0, 0), screenWidth, scoreIndThick + thickness, borderColor);
+        Block up = new Block(new Point(0, 0), screenWidth, scoreIndThick + thickness, palette, borderColor);
         environment.addCollidable(up);
         sprites.addSprite(up);
         obstacles.add(up);
         //the death region is the down block
         createDeathRegion(obstacles);
         //creates the right screen border and adds it to the Game's collidable list and sprite collection
-        Block right = new Block(new Point(screenWidth - thickness, 0), thickness, screenHeight, borderColor);
+        Block right = new Block(new Point(screenWidth - thickness, 0), thickness, screenHeight, palette, borderColor);
         environment.addCollidable(right);
         sprites.addSprite(right);
         obstacles.add(right);
         //creates the left screen border and adds it to the Game's collidable list and sprite collection
-        Block left = new Block(new Point(0, 0), thickness, screenHeight, borderColor);
+        Block left = new Block(new Point(0, 0), thickness, screenHeight, palette, borderColor);
         environment.addCollidable(left);
         sprites.addSprite(left);
         obstacles.add(left);
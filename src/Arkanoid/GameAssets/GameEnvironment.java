@@ -1,19 +1,93 @@
 package Arkanoid.GameAssets;
 
+import Arkanoid.Geometry.BoxColumns;
 import Arkanoid.Geometry.CollisionInfo;
+import Arkanoid.Geometry.HitRecord;
+import Arkanoid.Geometry.ImpactRecord;
 import Arkanoid.Geometry.Line;
+import Arkanoid.Geometry.MutablePoint;
 import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.SegmentMath;
+import Arkanoid.Geometry.SlabBatch;
+import Arkanoid.Geometry.SlabRay;
+import Arkanoid.Geometry.SweptCircle;
 
 import Arkanoid.Sprites.Collidable;
+import Arkanoid.Sprites.TileMap;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * contains all the objects our ball can possibly collide with.
+ * collidables with static bounds (like blocks) are also stored in a uniform grid of cells, and a collision query
+ * only checks the ones stored in the cells its trajectory crosses. a collidable that moves (like the paddle) is
+ * checked every query, and its bounds are only fetched again when their version changes.
+ * a collision's result doesn't depend on the order the collidables are stored in (ties go to the collidable that
+ * was added first), so a removed collidable's place is taken by the last one, and removing takes constant time
+ * (plus the size of the cells it's stored in).
+ * tile maps are kept apart from the other collidables, and every query walks the tiles along its trajectory
+ * (see TileMap), so a map of any size takes a single place in the insertion order.
  */
 public class GameEnvironment {
-    private final List<Collidable> collidables = new ArrayList<>();
+    private static final double DEFAULT_WIDTH = 800, DEFAULT_HEIGHT = 600, DEFAULT_CELL_SIZE = 25;
+    //indexed rectangles are widened by this margin, which is bigger than the epsilon of the intersection checks
+    private static final double CELL_MARGIN = 0.001;
+    //how much a collidable's bounds are grown by before the slab test, more than Line's epsilon and rounding errors
+    private static final double SLAB_MARGIN = 0.001;
+    private final Map<Collidable, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> indexed = new ArrayList<>();
+    private final List<Entry> unindexed = new ArrayList<>();
+    private final List<List<Entry>> cells;
+    //the indexed entries' bounds, grown by SLAB_MARGIN, in the same order as the indexed entries
+    private final BoxColumns boxes = new BoxColumns();
+    private final List<MapEntry> maps = new ArrayList<>();
+    private SlabBatch batch = null;
+    private final double width;
+    private final double height;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private long nextOrder = 0;
+    private long modifications = 0;
+    //queries may run on several threads at once, so they are counted with adders
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    //record used by the queries that return a new CollisionInfo
+    private final HitRecord record = new HitRecord();
+
+    /**
+     * class constructor, creates an environment whose grid covers the 800x600 game screen.
+     */
+    public GameEnvironment() {
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * class constructor.
+     *
+     * @param width    width of the area covered by the grid, starting at x = 0
+     * @param height   height of the area covered by the grid, starting at y = 0
+     * @param cellSize width and height of each grid cell
+     */
+    public GameEnvironment(double width, double height, double cellSize) {
+        if (width <= 0 || height <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("Error: grid dimensions must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cells = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            cells.add(new ArrayList<>());
+        }
+    }
 
     /**
      * adds a given collidable object into the list of all collidable objects.
@@ -21,7 +95,32 @@ public class GameEnvironment {
      * @param c the collidable object
      */
     public void addCollidable(Collidable c) {
-        collidables.add(c);
+        Entry entry = new Entry(c, nextOrder++);
+        modifications++;
+        entries.put(c, entry);
+        //only collidables whose bounds never change can be kept in the grid
+        if (c.getBoundsVersion() == Collidable.STATIC_BOUNDS) {
+            Rectangle bounds = entry.bounds.rectangle;
+            entry.slot = indexed.size();
+            indexed.add(entry);
+            boxes.add(bounds.getLowXBound() - SLAB_MARGIN, bounds.getLowYBound() - SLAB_MARGIN,
+                    bounds.getHighXBound() + SLAB_MARGIN, bounds.getHighYBound() + SLAB_MARGIN);
+            insertIntoCells(entry, bounds);
+        } else {
+            entry.slot = unindexed.size();
+            unindexed.add(entry);
+        }
+    }
+
+    /**
+     * adds a tile map, its tiles are collidable from now on. a tile is removed from the game environment by
+     * removing it from the map.
+     *
+     * @param map the tile map
+     */
+    public void addTileMap(TileMap map) {
+        maps.add(new MapEntry(map, nextOrder++));
+        modifications++;
     }
 
     /**
@@ -30,51 +129,456 @@ public class GameEnvironment {
      * @param c the Collidable object we want to remove.
      */
     public void removeCollidable(Collidable c) {
-        collidables.remove(c);
+        Entry entry = entries.remove(c);
+        //the collidable was never added scenario
+        if (entry == null) {
+            return;
+        }
+        modifications++;
+        if (entry.minColumn < 0) {
+            removeSlot(unindexed, entry);
+            return;
+        }
+        removeSlot(indexed, entry);
+        boxes.remove(entry.slot);
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+                List<Entry> cell = cells.get(row * columns + column);
+                int i = cell.indexOf(entry);
+                //the last entry of the cell takes the removed entry's place, so nothing is shifted
+                cell.set(i, cell.get(cell.size() - 1));
+                cell.remove(cell.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * makes findClosestCollision test a trajectory against the bounds of all the static collidables at once with
+     * a batch slab test (see SlabBatch), instead of walking the grid cells it crosses. the bounds are stored as
+     * packed columns, so the vector batch tests several of them per instruction. the collidables the trajectory
+     * reaches are then checked exactly, so the results are the same as the grid's.
+     *
+     * @param slabBatch the batch slab test, or null to walk the grid (the default)
+     */
+    public void setSlabBatch(SlabBatch slabBatch) {
+        this.batch = slabBatch;
+    }
+
+    /**
+     * @return the batch slab test findClosestCollision uses, or null if it walks the grid
+     */
+    public SlabBatch getSlabBatch() {
+        return batch;
+    }
+
+    /**
+     * the modification count grows whenever a collidable is added or removed, so a query result computed
+     * earlier is still valid as long as the count didn't change. the tiles set and removed in the tile maps
+     * are counted too.
+     *
+     * @return the number of additions and removals made so far
+     */
+    public long getModificationCount() {
+        long count = modifications;
+        for (int i = 0; i < maps.size(); i++) {
+            count += maps.get(i).map.getChangeCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of collision queries made so far
+     */
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    /**
+     * @return the number of collision queries that found a collision so far
+     */
+    public long getHitCount() {
+        return hits.sum();
     }
 
     /**
      * given an object trajectory, we find the first obstacle he'll collide with and the collision point.
+     * the result is the same as checking every collidable in the order they were added:
+     * the closest collision wins, and on equal distances the collidable that was added first wins.
      *
      * @param trajectory object's trajectory
      * @return first obstacle to collide with and the collision point, or null if there are no collisions
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        double closestDistance = 0, tempDistance;
-        Point closestCollision = null, temp;
-        Collidable closestCollidable = null;
+        Point start = trajectory.start(), end = trajectory.end();
+        findClosestCollision(start.getX(), start.getY(), end.getX(), end.getY(), record);
+        return record.toCollisionInfo();
+    }
+
+    /**
+     * finds the first obstacle an object moving from (x1 , y1) to (x2 , y2) will collide with, like
+     * getClosestCollision, but writes the result into a given record instead of creating new objects.
+     * queries with different records may run at the same time, as long as no collidable is added or removed.
+     *
+     * @param x1  trajectory's start x coordinates
+     * @param y1  trajectory's start y coordinates
+     * @param x2  trajectory's end x coordinates
+     * @param y2  trajectory's end y coordinates
+     * @param out receives the first obstacle to collide with and the collision point
+     * @return true if there's a collision, false otherwise
+     */
+    public boolean findClosestCollision(double x1, double y1, double x2, double y2, HitRecord out) {
+        out.clear();
+        out.ray().set(x1, y1, x2, y2);
+        queries.increment();
         //there's nothing to collide with scenario
-        if (collidables.isEmpty()) {
-            return null;
-        }
-        for (Collidable collidable : collidables) {
-            /*
-             * stores current collidable's closest intersection point to the start of the trajectory line,
-             * or null if there's no intersection
-             */
-            temp = trajectory.closestIntersectionToStartOfLine(collidable.getCollisionRectangle());
-            //current collidable and trajectory line are intersecting scenario
-            if (temp != null) {
-                //first intersection point found scenario
-                if (closestCollision == null) {
-                    closestCollision = temp;
-                    closestCollidable = collidable;
-                    closestDistance = trajectory.start().distance(closestCollision);
-                } else {
-                    tempDistance = trajectory.start().distance(temp);
-                    //new point is closer to the start of the line than the current closest one scenario
-                    if (tempDistance < closestDistance) {
-                        closestCollision = temp;
-                        closestCollidable = collidable;
-                        closestDistance = tempDistance;
+        if (entries.isEmpty() && maps.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < unindexed.size(); i++) {
+            checkEntry(unindexed.get(i), x1, y1, x2, y2, out);
+        }
+        //batch scenario, the bounds of all the indexed blocks are tested at once
+        if (batch != null) {
+            int[] candidates = out.candidates(boxes.size());
+            int count = batch.reachAll(out.ray(), boxes, candidates);
+            for (int i = 0; i < count; i++) {
+                checkBounds(indexed.get(candidates[i]), x1, y1, x2, y2, out);
+            }
+        } else if (isInGrid(x1, y1) && isInGrid(x2, y2)) {
+            //the grid only covers its own area, a trajectory leaving it is checked against all the indexed blocks
+            walkCells(x1, y1, x2, y2, out);
+        } else {
+            //every indexed block is met exactly once, so there's nothing to deduplicate
+            for (int i = 0; i < indexed.size(); i++) {
+                checkBounds(indexed.get(i), x1, y1, x2, y2, out);
+            }
+        }
+        for (int i = 0; i < maps.size(); i++) {
+            MapEntry entry = maps.get(i);
+            entry.map.findClosestCollision(x1, y1, x2, y2, out, entry.order);
+        }
+        if (out.isHit()) {
+            hits.increment();
+        }
+        return out.isHit();
+    }
+
+    /**
+     * finds the first collidable a ball of a given radius touches while its center moves from (x , y) by (dx , dy).
+     * unlike findClosestCollision, the whole ball is checked, not only its center: the earliest contact wins,
+     * and on equal times the collidable that was added first wins. collidables the ball already overlaps at the
+     * start of the movement are ignored, so the ball can move out of them.
+     * queries with different records may run at the same time, as long as no collidable is added or removed.
+     *
+     * @param x   ball's center x coordinates at the start of the movement
+     * @param y   ball's center y coordinates at the start of the movement
+     * @param dx  movement along the x-axis
+     * @param dy  movement along the y-axis
+     * @param r   ball's radius
+     * @param out receives the first collidable to be touched, the contact time, point and normal
+     * @return true if the ball touches a collidable during the movement, false otherwise
+     */
+    public boolean findFirstImpact(double x, double y, double dx, double dy, double r, ImpactRecord out) {
+        out.clear();
+        queries.increment();
+        out.ray().set(x, y, x + dx, y + dy);
+        //there's nothing to collide with scenario
+        if (entries.isEmpty() && maps.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < unindexed.size(); i++) {
+            checkImpact(unindexed.get(i), x, y, dx, dy, r, out);
+        }
+        //every cell the ball may touch is inside the box around the ball at the start and at the end of the move
+        double minX = Math.min(x, x + dx) - r, maxX = Math.max(x, x + dx) + r;
+        double minY = Math.min(y, y + dy) - r, maxY = Math.max(y, y + dy) + r;
+        if (isInGrid(minX, minY) && isInGrid(maxX, maxY)) {
+            int minColumn = columnOf(minX - CELL_MARGIN), minRow = rowOf(minY - CELL_MARGIN);
+            int maxColumn = columnOf(maxX + CELL_MARGIN), maxRow = rowOf(maxY + CELL_MARGIN);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    List<Entry> cell = cells.get(row * columns + column);
+                    for (int i = 0; i < cell.size(); i++) {
+                        Entry entry = cell.get(i);
+                        //an entry stored in several cells is only checked in the first of them the box covers
+                        if (Math.max(entry.minColumn, minColumn) == column && Math.max(entry.minRow, minRow) == row) {
+                            checkImpact(entry, x, y, dx, dy, r, out);
+                        }
                     }
                 }
             }
+        } else {
+            for (int i = 0; i < indexed.size(); i++) {
+                checkImpact(indexed.get(i), x, y, dx, dy, r, out);
+            }
+        }
+        for (int i = 0; i < maps.size(); i++) {
+            MapEntry entry = maps.get(i);
+            entry.map.findFirstImpact(x, y, dx, dy, r, out, entry.order);
+        }
+        if (out.isHit()) {
+            hits.increment();
+        }
+        return out.isHit();
+    }
+
+    /**
+     * visits the grid cells crossed by the trajectory from its start to its end (Amanatides-Woo traversal),
+     * and checks the blocks stored in each of them. the walk stops once the next cell is farther from the start
+     * of the trajectory than a collision that was already found.
+     *
+     * @param x1  trajectory's start x coordinates
+     * @param y1  trajectory's start y coordinates
+     * @param x2  trajectory's end x coordinates
+     * @param y2  trajectory's end y coordinates
+     * @param out the query's closest collision so far
+     */
+    private void walkCells(double x1, double y1, double x2, double y2, HitRecord out) {
+        double dx = x2 - x1, dy = y2 - y1, length = SegmentMath.distance(x1, y1, x2, y2);
+        int column = columnOf(x1), row = rowOf(y1), endColumn = columnOf(x2), endRow = rowOf(y2);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1;
+        double nextX = stepX > 0 ? (column + 1) * cellSize : column * cellSize;
+        double nextY = stepY > 0 ? (row + 1) * cellSize : row * cellSize;
+        //trajectory parameter (0 at the start, 1 at the end) of the next vertical and horizontal cell borders
+        double tMaxX = dx != 0 ? (nextX - x1) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy != 0 ? (nextY - y1) / dy : Double.POSITIVE_INFINITY;
+        double tDeltaX = dx != 0 ? cellSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? cellSize / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        int steps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        double t;
+        checkCell(column, row, x1, y1, x2, y2, out);
+        for (int i = 0; i < steps; i++) {
+            if (tMaxX < tMaxY) {
+                t = tMaxX;
+                tMaxX += tDeltaX;
+                column = clamp(column + stepX, columns);
+            } else {
+                t = tMaxY;
+                tMaxY += tDeltaY;
+                row = clamp(row + stepY, rows);
+            }
+            //every collision left in the next cells is farther than the one we found scenario
+            if (out.isHit() && t * length > out.getDistance() + CELL_MARGIN) {
+                return;
+            }
+            checkCell(column, row, x1, y1, x2, y2, out);
+        }
+        //rounding errors may end the walk next to the last cell, we make sure it is checked anyway
+        checkCell(endColumn, endRow, x1, y1, x2, y2, out);
+    }
+
+    private void checkCell(int column, int row, double x1, double y1, double x2, double y2, HitRecord out) {
+        List<Entry> cell = cells.get(row * columns + column);
+        for (int i = 0; i < cell.size(); i++) {
+            checkEntry(cell.get(i), x1, y1, x2, y2, out);
+        }
+    }
+
+    /**
+     * checks if the trajectory collides with the entry's collidable closer than the closest collision found so far.
+     *
+     * @param entry the entry
+     * @param x1    trajectory's start x coordinates
+     * @param y1    trajectory's start y coordinates
+     * @param x2    trajectory's end x coordinates
+     * @param y2    trajectory's end y coordinates
+     * @param out   the query's closest collision so far
+     */
+    private void checkEntry(Entry entry, double x1, double y1, double x2, double y2, HitRecord out) {
+        //entry is stored in several cells and was already checked in another one during this query scenario
+        if (entry.isInSeveralCells() && !out.markVisited(entry.slot)) {
+            return;
+        }
+        checkBounds(entry, x1, y1, x2, y2, out);
+    }
+
+    /**
+     * checks if the trajectory collides with the entry's collidable closer than the closest collision found so far,
+     * without checking if the entry was already checked during the query.
+     *
+     * @param entry the entry
+     * @param x1    trajectory's start x coordinates
+     * @param y1    trajectory's start y coordinates
+     * @param x2    trajectory's end x coordinates
+     * @param y2    trajectory's end y coordinates
+     * @param out   the query's closest collision so far
+     */
+    private void checkBounds(Entry entry, double x1, double y1, double x2, double y2, HitRecord out) {
+        Rectangle bounds = entry.currentBounds();
+        SlabRay ray = out.ray();
+        double reach = ray.reach(bounds.getLowXBound() - SLAB_MARGIN, bounds.getLowYBound() - SLAB_MARGIN,
+                bounds.getHighXBound() + SLAB_MARGIN, bounds.getHighYBound() + SLAB_MARGIN);
+        //the trajectory doesn't reach the collidable, or only reaches it after the closest collision so far scenario
+        if (reach == SlabRay.NO_HIT || (out.isHit() && reach * ray.getLength() > out.getDistance() + SLAB_MARGIN)) {
+            return;
+        }
+        MutablePoint temp = out.scratch();
+        //current collidable and trajectory line aren't intersecting scenario
+        if (!bounds.closestIntersection(x1, y1, x2, y2, temp)) {
+            return;
+        }
+        double tempDistance = SegmentMath.distance(x1, y1, temp.getX(), temp.getY());
+        //first intersection point, a closer one, or an equally close one of an earlier collidable scenario
+        if (!out.isHit() || tempDistance < out.getDistance()
+                || (tempDistance == out.getDistance() && entry.order < out.getOrder())) {
+            out.set(temp.getX(), temp.getY(), entry.collidable, tempDistance, entry.order);
+        }
+    }
+
+    /**
+     * checks if a moving ball touches the entry's collidable before the earliest contact found so far.
+     *
+     * @param entry the entry
+     * @param x     ball's center x coordinates at the start of the movement
+     * @param y     ball's center y coordinates at the start of the movement
+     * @param dx    movement along the x-axis
+     * @param dy    movement along the y-axis
+     * @param r     ball's radius
+     * @param out   the query's earliest contact so far
+     */
+    private void checkImpact(Entry entry, double x, double y, double dx, double dy, double r, ImpactRecord out) {
+        SlabRay ray = out.ray();
+        double reach;
+        //indexed entry scenario, its bounds are read from the packed columns, which are already grown by SLAB_MARGIN
+        if (entry.minColumn >= 0) {
+            int i = entry.slot;
+            reach = ray.reach(boxes.left()[i] - r, boxes.top()[i] - r, boxes.right()[i] + r, boxes.bottom()[i] + r);
+        } else {
+            Rectangle moving = entry.currentBounds();
+            double grow = r + SLAB_MARGIN;
+            reach = ray.reach(moving.getLowXBound() - grow, moving.getLowYBound() - grow,
+                    moving.getHighXBound() + grow, moving.getHighYBound() + grow);
+        }
+        //the ball's center never gets within its radius of the collidable's bounds, or only after the earliest
+        //contact so far scenario. long movements, like the event-driven engine's, meet many collidables like that
+        if (reach == SlabRay.NO_HIT
+                || (out.isHit() && (reach - out.getTime()) * ray.getLength() > SLAB_MARGIN)) {
+            return;
+        }
+        Rectangle bounds = entry.currentBounds();
+        MutablePoint normal = out.scratchNormal(), contact = out.scratch();
+        double time = SweptCircle.timeOfImpact(x, y, dx, dy, r, bounds.getLowXBound(), bounds.getLowYBound(),
+                bounds.getHighXBound(), bounds.getHighYBound(), normal, contact);
+        //no contact scenario
+        if (time == SweptCircle.NO_IMPACT) {
+            return;
+        }
+        //first contact, an earlier one, or one at the same time with an earlier collidable scenario
+        if (!out.isHit() || time < out.getTime() || (time == out.getTime() && entry.order < out.getOrder())) {
+            out.setImpact(time, normal.getX(), normal.getY(), contact.getX(), contact.getY(), entry.collidable,
+                    entry.order);
+        }
+    }
+
+    /**
+     * removes an entry from the list it's stored in, the list's last entry takes its slot.
+     *
+     * @param list  the list
+     * @param entry the entry
+     */
+    private static void removeSlot(List<Entry> list, Entry entry) {
+        Entry last = list.remove(list.size() - 1);
+        if (last != entry) {
+            list.set(entry.slot, last);
+            last.slot = entry.slot;
         }
-        //no collisions in the trajectory scenario
-        if (closestCollision == null) {
-            return null;
+    }
+
+    private void insertIntoCells(Entry entry, Rectangle bounds) {
+        entry.minColumn = columnOf(bounds.getLowXBound() - CELL_MARGIN);
+        entry.maxColumn = columnOf(bounds.getHighXBound() + CELL_MARGIN);
+        entry.minRow = rowOf(bounds.getLowYBound() - CELL_MARGIN);
+        entry.maxRow = rowOf(bounds.getHighYBound() + CELL_MARGIN);
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+                cells.get(row * columns + column).add(entry);
+            }
+        }
+    }
+
+    private boolean isInGrid(double x, double y) {
+        return x >= 0 && x <= width && y >= 0 && y <= height;
+    }
+
+    private int columnOf(double x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    private int rowOf(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+
+    /**
+     * a collidable together with its place in the insertion order, its cached bounds and the grid cells it's
+     * stored in.
+     */
+    private static final class Entry {
+        private final Collidable collidable;
+        private final long order;
+        //replaced as a whole, so a query running at the same time never sees a rectangle with a wrong version
+        private volatile Bounds bounds;
+        private int minColumn = -1;
+        private int maxColumn = -1;
+        private int minRow = -1;
+        private int maxRow = -1;
+        //the entry's index in the list of indexed or unindexed entries
+        private int slot;
+
+        private Entry(Collidable collidable, long order) {
+            this.collidable = collidable;
+            this.order = order;
+            this.bounds = new Bounds(collidable.getCollisionRectangle(), collidable.getBoundsVersion());
+        }
+
+        /**
+         * @return the collidable's bounds, fetched again only if they changed since they were cached
+         */
+        private Rectangle currentBounds() {
+            Bounds cached = bounds;
+            //static bounds never change, so their version isn't checked again
+            if (cached.version == Collidable.STATIC_BOUNDS) {
+                return cached.rectangle;
+            }
+            long version = collidable.getBoundsVersion();
+            if (version != cached.version) {
+                cached = new Bounds(collidable.getCollisionRectangle(), version);
+                bounds = cached;
+            }
+            return cached.rectangle;
+        }
+
+        private boolean isInSeveralCells() {
+            return minColumn != maxColumn || minRow != maxRow;
+        }
+    }
+
+    /**
+     * a collision rectangle together with the bounds version it was taken at.
+     */
+    private static final class Bounds {
+        private final Rectangle rectangle;
+        private final long version;
+
+        private Bounds(Rectangle rectangle, long version) {
+            this.rectangle = rectangle;
+            this.version = version;
+        }
+    }
+
+    /**
+     * a tile map together with its place in the insertion order.
+     */
+    private static final class MapEntry {
+        private final TileMap map;
+        private final long order;
+
+        private MapEntry(TileMap map, long order) {
+            this.map = map;
+            this.order = order;
         }
-        return new CollisionInfo(closestCollision, closestCollidable);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Geometry.Point;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * a headless game played by a client of the session server over a socket.
+ * the client first sends its game's seed (8 bytes), then a byte whenever its keys change, bit 0 for left and bit 1
+ * for right like in a recording (see InputRecorder), or QUIT to end the session. the client also acknowledges
+ * every ACK_FRAMES frames it reads, by sending its keys with the ACK bit set.
+ * after every tick the server sends a state frame: the frame's length (2 bytes), then the tick (4 bytes), the score
+ * (4 bytes), the number of blocks left (2 bytes), the flags (1 byte, OVER once the game is over), the paddle's x
+ * (2 bytes), the number of balls (2 bytes) and every ball's center (2 bytes for x and 2 for y, rounded).
+ * the frames wait in a small queue for the session's writer thread, and the writer never sends more than
+ * WINDOW_FRAMES frames the client hasn't acknowledged, so the frames can't pile up in the sockets' buffers either.
+ * when a client reads too slowly, the writer waits, the queue fills up, and the session isn't ticked until there's
+ * room again: a slow client slows down only its own game, and the server never keeps more than a few frames for it.
+ */
+public class GameSession {
+    static final int QUIT = 0xFF;
+    static final int ACK = 0x80;
+    static final int ACK_FRAMES = 8, WINDOW_FRAMES = 32;
+    static final int OVER = 1;
+    static final int HEADER_BYTES = 15, BALL_BYTES = 4;
+    //the flags' place in a frame, after its length
+    static final int FLAGS_OFFSET = 10;
+    //queued by close to wake the writer thread up
+    private static final byte[] CLOSED = new byte[0];
+    private final Socket socket;
+    private final Game game;
+    private final ScriptedKeyboardSensor keyboard;
+    private final BlockingQueue<byte[]> frames;
+    private final List<Point> centers = new ArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    //the number of frames the writer can send before the client acknowledges more
+    private final Semaphore credits = new Semaphore(WINDOW_FRAMES);
+    private volatile int keys = 0;
+    private int tick = 0;
+
+    /**
+     * class constructor, creates and initializes the session's game.
+     *
+     * @param socket        the client's socket
+     * @param game          the game, headless and before it was initialized
+     * @param queueCapacity the number of frames the session keeps for a client that reads slowly
+     */
+    public GameSession(Socket socket, Game game, int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Error: frame queue capacity must be positive");
+        }
+        this.socket = socket;
+        this.game = game;
+        this.keyboard = ((HeadlessDisplay) game.getDisplay()).getScriptedKeyboard();
+        this.frames = new ArrayBlockingQueue<>(queueCapacity);
+        game.initialize();
+    }
+
+    /**
+     * @return true if the session's client is behind and the session can't be ticked until it reads its frames
+     */
+    public boolean isBackedUp() {
+        return frames.remainingCapacity() == 0;
+    }
+
+    /**
+     * @return true if the session was closed, or its game is over
+     */
+    public boolean isDone() {
+        return closed.get() || game.isOver();
+    }
+
+    /**
+     * plays the game's next tick with the client's latest keys, and queues the tick's state frame.
+     * called by the server's tick scheduler, on one thread at a time, and only when the session isn't backed up.
+     */
+    public void tick() {
+        int pressed = keys;
+        keyboard.releaseAll();
+        if ((pressed & InputRecorder.LEFT) != 0) {
+            keyboard.press(KeyboardSensor.LEFT_KEY);
+        }
+        if ((pressed & InputRecorder.RIGHT) != 0) {
+            keyboard.press(KeyboardSensor.RIGHT_KEY);
+        }
+        game.runTicks(1);
+        tick++;
+        //the queue can only be full here if the session was closed in the meantime
+        frames.offer(encodeFrame());
+    }
+
+    /**
+     * reads the client's keys until it quits or disconnects, then closes the session.
+     *
+     * @param in the socket's input stream, after the seed was read from it
+     */
+    public void readKeys(InputStream in) {
+        try {
+            int b = in.read();
+            while (b >= 0 && b != QUIT) {
+                keys = b & (InputRecorder.LEFT | InputRecorder.RIGHT);
+                if ((b & ACK) != 0) {
+                    credits.release(ACK_FRAMES);
+                }
+                b = in.read();
+            }
+        } catch (IOException e) {
+            //the socket was closed scenario, the session ends like it does when the client quits
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * sends the queued frames to the client until the game is over or the session is closed, and flushes the
+     * socket whenever the queue is empty, so frames that queued up together are sent together.
+     * after the last frame of a game that is over, the socket's output is shut down, and the session is closed
+     * once the client closes its side.
+     */
+    public void writeFrames() {
+        int lengthBytes = 2;
+        try {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                byte[] frame = frames.take();
+                if (frame == CLOSED) {
+                    return;
+                }
+                //the window is full scenario, the frames sent so far must reach the client before it acknowledges
+                if (!credits.tryAcquire()) {
+                    out.flush();
+                    credits.acquire();
+                }
+                if (closed.get()) {
+                    return;
+                }
+                out.write(frame);
+                //game over scenario
+                if ((frame[lengthBytes + FLAGS_OFFSET] & OVER) != 0) {
+                    out.flush();
+                    socket.shutdownOutput();
+                    return;
+                }
+                if (frames.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            //the client disconnected scenario
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+    }
+
+    /**
+     * closes the session's socket and wakes its writer thread up, only once.
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            //the socket is closed anyway scenario
+        }
+        frames.clear();
+        frames.offer(CLOSED);
+        //wakes the writer up if it waits for an acknowledgement
+        credits.release(WINDOW_FRAMES);
+    }
+
+    private byte[] encodeFrame() {
+        centers.clear();
+        game.collectBallCenters(centers);
+        int length = HEADER_BYTES + BALL_BYTES * centers.size();
+        ByteBuffer frame = ByteBuffer.allocate(2 + length);
+        frame.putShort((short) length);
+        frame.putInt(tick);
+        frame.putInt(game.getScore());
+        frame.putShort((short) game.getRemainingBlocks());
+        frame.put((byte) (game.isOver() ? OVER : 0));
+        frame.putShort((short) Math.round(game.getPaddleX()));
+        frame.putShort((short) centers.size());
+        for (Point center : centers) {
+            frame.putShort((short) Math.round(center.getX()));
+            frame.putShort((short) Math.round(center.getY()));
+        }
+        return frame.array();
+    }
+}
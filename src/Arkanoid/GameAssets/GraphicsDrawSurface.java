@@ -0,0 +1,161 @@
+package Arkanoid.GameAssets;
+
+import biuoop.AlphaChannelNotSupportedException;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+
+/**
+ * a draw surface that draws directly on a Graphics2D object (for example the graphics of an offscreen image),
+ * the same way the game's window draws its surfaces. it also keeps the bounding box of everything drawn on it
+ * since the last resetBounds call, so the caller can tell which area a sprite covers.
+ */
+public class GraphicsDrawSurface implements DrawSurface {
+    private static final int FULL_ALPHA = 255;
+    private final Graphics2D graphics;
+    private final int width;
+    private final int height;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    /**
+     * class constructor.
+     *
+     * @param graphics the graphics the surface draws on
+     * @param width    surface's width
+     * @param height   surface's height
+     */
+    public GraphicsDrawSurface(Graphics2D graphics, int width, int height) {
+        this.graphics = graphics;
+        this.width = width;
+        this.height = height;
+        resetBounds();
+    }
+
+    /**
+     * forgets the area drawn on so far.
+     */
+    public void resetBounds() {
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return the bounding box of everything drawn since the last resetBounds call, or null if nothing was drawn
+     */
+    public Rectangle getBounds() {
+        if (minX > maxX) {
+            return null;
+        }
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        //the game's window doesn't support transparent colors, neither do we
+        if (color.getAlpha() != FULL_ALPHA) {
+            throw new AlphaChannelNotSupportedException("Alpha may not be used, the color provided had an alpha "
+                    + "value of " + color.getAlpha());
+        }
+        graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        graphics.drawLine(x1, y1, x2, y2);
+        //a line's pixels end one pixel after its end point
+        include(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1) + 1, Math.abs(y2 - y1) + 1);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        graphics.drawOval(x, y, w, h);
+        //an outline covers one pixel more than its size on each axis
+        include(x, y, w + 1, h + 1);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        graphics.fillOval(x, y, w, h);
+        include(x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        graphics.drawRect(x, y, w, h);
+        include(x, y, w + 1, h + 1);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        graphics.fillRect(x, y, w, h);
+        include(x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        graphics.drawImage(image, x, y, null);
+        include(x, y, image.getWidth(null), image.getHeight(null));
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        drawOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        fillOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        Font font = graphics.getFont();
+        graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        graphics.drawString(s, x, y);
+        //the text is drawn above its base line, and may go a little below it
+        FontMetrics metrics = graphics.getFontMetrics();
+        include(x, y - metrics.getAscent(), metrics.stringWidth(s) + 1, metrics.getAscent() + metrics.getDescent());
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        graphics.drawPolygon(p);
+        Rectangle box = p.getBounds();
+        include(box.x, box.y, box.width + 1, box.height + 1);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        graphics.fillPolygon(p);
+        Rectangle box = p.getBounds();
+        include(box.x, box.y, box.width, box.height);
+    }
+
+    private void include(int x, int y, int w, int h) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x + w);
+        maxY = Math.max(maxY, y + h);
+    }
+}
@@ -0,0 +1,43 @@
+package Arkanoid.GameAssets;
+
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import biuoop.KeyboardSensor;
+
+/**
+ * a display that shows the game in a biuoop window.
+ */
+public class GuiDisplay implements Display {
+    private final GUI gui;
+
+    /**
+     * class constructor, opens the game's window.
+     *
+     * @param title  window's title
+     * @param width  window's width
+     * @param height window's height
+     */
+    public GuiDisplay(String title, int width, int height) {
+        this.gui = new GUI(title, width, height);
+    }
+
+    @Override
+    public DrawSurface getDrawSurface() {
+        return gui.getDrawSurface();
+    }
+
+    @Override
+    public void show(DrawSurface d) {
+        gui.show(d);
+    }
+
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return gui.getKeyboardSensor();
+    }
+
+    @Override
+    public void close() {
+        gui.close();
+    }
+}
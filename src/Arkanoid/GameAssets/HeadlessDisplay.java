@@ -0,0 +1,72 @@
+package Arkanoid.GameAssets;
+
+import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+
+/**
+ * a display without a window, used to run the game on machines without a screen.
+ * frames are drawn on a single surface that ignores the drawing, and the keyboard is a scripted sensor.
+ */
+public class HeadlessDisplay implements Display {
+    private final HeadlessDrawSurface surface;
+    private final ScriptedKeyboardSensor keyboard;
+    private long framesShown = 0;
+
+    /**
+     * class constructor, creates an 800x600 display with a keyboard no key is pressed on.
+     */
+    public HeadlessDisplay() {
+        this(new ScriptedKeyboardSensor());
+    }
+
+    /**
+     * class constructor, creates an 800x600 display.
+     *
+     * @param keyboard the scripted keyboard the paddle will read
+     */
+    public HeadlessDisplay(ScriptedKeyboardSensor keyboard) {
+        int width = 800, height = 600;
+        this.surface = new HeadlessDrawSurface(width, height);
+        this.keyboard = keyboard;
+    }
+
+    @Override
+    public DrawSurface getDrawSurface() {
+        return surface;
+    }
+
+    @Override
+    public void show(DrawSurface d) {
+        framesShown++;
+    }
+
+    @Override
+    public KeyboardSensor getKeyboardSensor() {
+        return keyboard;
+    }
+
+    /**
+     * @return the scripted keyboard, used to press and release keys during the run
+     */
+    public ScriptedKeyboardSensor getScriptedKeyboard() {
+        return keyboard;
+    }
+
+    /**
+     * @return the surface all frames are drawn on
+     */
+    public HeadlessDrawSurface getSurface() {
+        return surface;
+    }
+
+    /**
+     * @return the number of frames shown so far
+     */
+    public long getFramesShown() {
+        return framesShown;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,103 @@
+package Arkanoid.GameAssets;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * a draw surface that doesn't draw anything, it only counts the drawing calls made on it.
+ */
+public class HeadlessDrawSurface implements DrawSurface {
+    private final int width;
+    private final int height;
+    private long drawCalls = 0;
+
+    /**
+     * class constructor.
+     *
+     * @param width  surface's width
+     * @param height surface's height
+     */
+    public HeadlessDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return the number of drawing calls made on the surface so far (setting the color isn't counted)
+     */
+    public long getDrawCalls() {
+        return drawCalls;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        drawCalls++;
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        drawCalls++;
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        drawCalls++;
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        drawCalls++;
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        drawCalls++;
+    }
+}
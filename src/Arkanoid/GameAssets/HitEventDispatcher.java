@@ -0,0 +1,174 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Sprites.Ball;
+import Arkanoid.Sprites.Block;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * routes the game's hit events to their listeners by event type, instead of every block keeping its own list of
+ * listeners. a listener either subscribes to every event of a type, or only to the events of a single hitter
+ * (like a ball that only cares about its own hits), so the number of subscriptions grows with the number of
+ * balls plus the number of listeners, not with balls times blocks.
+ * the listeners are kept in arrays that are replaced whenever a subscription changes, so dispatching an event
+ * never copies them, and a listener may subscribe or unsubscribe while an event is dispatched.
+ */
+public class HitEventDispatcher {
+    private static final HitListener[] NONE = new HitListener[0];
+    private final Map<HitEventType, HitListener[]> listeners = new EnumMap<>(HitEventType.class);
+    private final Map<HitEventType, Map<Ball, HitListener[]>> hitterListeners = new EnumMap<>(HitEventType.class);
+
+    /**
+     * class constructor.
+     */
+    public HitEventDispatcher() {
+        for (HitEventType type : HitEventType.values()) {
+            listeners.put(type, NONE);
+            hitterListeners.put(type, new IdentityHashMap<>());
+        }
+    }
+
+    /**
+     * subscribes a listener to every event of a given type.
+     *
+     * @param type the event type
+     * @param hl   the listener
+     */
+    public void subscribe(HitEventType type, HitListener hl) {
+        if (hl == null) {
+            throw new IllegalArgumentException("Error: listener must not be null");
+        }
+        listeners.put(type, with(listeners.get(type), hl));
+    }
+
+    /**
+     * subscribes a listener to the events of a given type that a given ball is the hitter of.
+     *
+     * @param type   the event type
+     * @param hitter the ball
+     * @param hl     the listener
+     */
+    public void subscribe(HitEventType type, Ball hitter, HitListener hl) {
+        if (hl == null || hitter == null) {
+            throw new IllegalArgumentException("Error: listener and hitter must not be null");
+        }
+        Map<Ball, HitListener[]> byHitter = hitterListeners.get(type);
+        HitListener[] current = byHitter.get(hitter);
+        byHitter.put(hitter, with(current == null ? NONE : current, hl));
+    }
+
+    /**
+     * removes a listener from all its subscriptions.
+     *
+     * @param hl the listener
+     */
+    public void unsubscribe(HitListener hl) {
+        for (HitEventType type : HitEventType.values()) {
+            listeners.put(type, without(listeners.get(type), hl));
+            Map<Ball, HitListener[]> byHitter = hitterListeners.get(type);
+            for (Map.Entry<Ball, HitListener[]> entry : byHitter.entrySet()) {
+                entry.setValue(without(entry.getValue(), hl));
+            }
+            byHitter.values().removeIf(array -> array.length == 0);
+        }
+    }
+
+    /**
+     * removes all the subscriptions to a ball's events, used when the ball leaves the game.
+     *
+     * @param hitter the ball
+     */
+    public void removeHitter(Ball hitter) {
+        for (Map<Ball, HitListener[]> byHitter : hitterListeners.values()) {
+            byHitter.remove(hitter);
+        }
+    }
+
+    /**
+     * notifies the listeners of an event: first the ones subscribed to every event of its type, in the order they
+     * subscribed, and then the ones subscribed to its hitter.
+     *
+     * @param type     the event type
+     * @param beingHit the block being hit
+     * @param hitter   the hitting ball
+     */
+    public void dispatch(HitEventType type, Block beingHit, Ball hitter) {
+        for (HitListener hl : listeners.get(type)) {
+            hl.hitEvent(beingHit, hitter);
+        }
+        HitListener[] ofHitter = hitterListeners.get(type).get(hitter);
+        //nothing listens to this hitter scenario
+        if (ofHitter == null) {
+            return;
+        }
+        for (HitListener hl : ofHitter) {
+            hl.hitEvent(beingHit, hitter);
+        }
+    }
+
+    /**
+     * notifies the listeners of a hit between two balls, in the same order as dispatch does.
+     *
+     * @param type     the event type
+     * @param beingHit the ball being hit
+     * @param hitter   the hitting ball
+     */
+    public void dispatch(HitEventType type, Ball beingHit, Ball hitter) {
+        for (HitListener hl : listeners.get(type)) {
+            hl.ballHitEvent(beingHit, hitter);
+        }
+        HitListener[] ofHitter = hitterListeners.get(type).get(hitter);
+        //nothing listens to this hitter scenario
+        if (ofHitter == null) {
+            return;
+        }
+        for (HitListener hl : ofHitter) {
+            hl.ballHitEvent(beingHit, hitter);
+        }
+    }
+
+    /**
+     * @return the number of subscriptions of all types, a listener subscribed twice is counted twice
+     */
+    public int getSubscriptionCount() {
+        int count = 0;
+        for (HitEventType type : HitEventType.values()) {
+            count += listeners.get(type).length;
+            for (HitListener[] array : hitterListeners.get(type).values()) {
+                count += array.length;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param array listeners array
+     * @param hl    a listener
+     * @return a new array with the listener added at its end
+     */
+    static HitListener[] with(HitListener[] array, HitListener hl) {
+        HitListener[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = hl;
+        return copy;
+    }
+
+    /**
+     * @param array listeners array
+     * @param hl    a listener
+     * @return a new array without the first appearance of the listener, or the same array if it isn't in it
+     */
+    static HitListener[] without(HitListener[] array, HitListener hl) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == hl) {
+                HitListener[] copy = new HitListener[array.length - 1];
+                System.arraycopy(array, 0, copy, 0, i);
+                System.arraycopy(array, i + 1, copy, i, array.length - i - 1);
+                return copy;
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,20 @@
+package Arkanoid.GameAssets;
+
+/**
+ * the kinds of hit events raised through the game's hit event dispatcher, by blocks or by two balls that hit
+ * each other.
+ */
+public enum HitEventType {
+    /**
+     * a ball hit one of the blocks the player has to remove.
+     */
+    BLOCK_HIT,
+    /**
+     * a ball fell into the death region.
+     */
+    BALL_LOST,
+    /**
+     * two balls hit each other, when the game plays with ball collisions. the listeners get a ballHitEvent.
+     */
+    BALL_HIT
+}
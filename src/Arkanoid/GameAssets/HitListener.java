@@ -15,4 +15,14 @@ public interface HitListener {
      * @param hitter   the hitting ball
      */
     void hitEvent(Block beingHit, Ball hitter);
+
+    /**
+     * performs a certain action when a hit occurs between two balls. does nothing by default, since most
+     * listeners only care about blocks.
+     *
+     * @param beingHit the ball being hit
+     * @param hitter   the hitting ball
+     */
+    default void ballHitEvent(Ball beingHit, Ball hitter) {
+    }
 }
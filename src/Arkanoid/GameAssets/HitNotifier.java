@@ -18,4 +18,13 @@ public interface HitNotifier {
      * @param hl the hit listener
      */
     void removeHitListener(HitListener hl);
+
+    /**
+     * makes the object also report its hits to a dispatcher, as events of a given type. a null dispatcher stops
+     * the reports.
+     *
+     * @param dispatcher the dispatcher
+     * @param type       the type of the reported events
+     */
+    void setHitEvents(HitEventDispatcher dispatcher, HitEventType type);
 }
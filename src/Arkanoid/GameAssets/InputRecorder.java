@@ -0,0 +1,155 @@
+package Arkanoid.GameAssets;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * records the arrow keys a player presses on every tick, so the game can be played again exactly (see InputReplay).
+ * the keys are read from a live keyboard sensor once per tick, and the paddle reads that same state during the tick.
+ * the recording is a compact binary file:
+ * a header (magic number, format version, random seed, ball field size, swept collisions flag, number of ball
+ * objects, ball collisions flag, event-driven engine flag, tile map flag, the content hash of the level the game
+ * plays, or 0 for the built-in rows, and the tick rate), then runs of ticks
+ * with the same keys (a keys byte, bit 0 for left and bit 1 for right, and the run's length as a variable length
+ * integer), and a trailer (an end byte, the number of ticks, the final score and the number of blocks left).
+ * holding a key for a minute is therefore a single run of a few bytes.
+ */
+public class InputRecorder implements TickInput {
+    static final int MAGIC = 0x41524B52;
+    static final int VERSION = 8;
+    //the last version without a tick rate, its games were all played at the base tick rate
+    static final int BASE_RATE_VERSION = 7;
+    //the level hash of a game that plays the built-in rows
+    static final long BUILT_IN_ROWS = 0;
+    static final int LEFT = 1, RIGHT = 2;
+    static final int END = 0xFF;
+    //a variable length integer holds 7 bits in every byte, the high bit marks that more bytes follow
+    static final int VARINT_BITS = 7, VARINT_MASK = 0x7F, VARINT_MORE = 0x80;
+    private final KeyboardSensor keyboard;
+    private final DataOutputStream out;
+    private int keys = 0;
+    private int runKeys = 0;
+    private long runLength = 0;
+    private long ticks = 0;
+    private boolean closed = false;
+
+    /**
+     * class constructor, writes the recording's header.
+     *
+     * @param keyboard        the live keyboard sensor
+     * @param out             the stream the recording is written to, closed with the recorder
+     * @param seed            the seed of the game's random numbers
+     * @param ballField       the size of the game's ball field, 0 if it plays with ball objects
+     * @param sweptCollisions true if the game's balls move with swept collisions
+     * @param ballCount       the number of the game's ball objects
+     * @param ballCollisions  true if the game's balls bounce off each other
+     * @param eventDriven     true if the game's balls are moved by the event-driven engine
+     * @param tileMap         true if the game's blocks are kept in a tile map
+     * @param levelHash       the content hash of the game's level (see LevelPack.Level.getContentHash), or 0 if it
+     *                        plays the built-in rows
+     * @param tickRate        the number of ticks the game plays per second
+     */
+    public InputRecorder(KeyboardSensor keyboard, OutputStream out, long seed, int ballField,
+                         boolean sweptCollisions, int ballCount, boolean ballCollisions, boolean eventDriven,
+                         boolean tileMap, long levelHash, int tickRate) {
+        this.keyboard = keyboard;
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        try {
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeLong(seed);
+            this.out.writeInt(ballField);
+            this.out.writeBoolean(sweptCollisions);
+            this.out.writeInt(ballCount);
+            this.out.writeBoolean(ballCollisions);
+            this.out.writeBoolean(eventDriven);
+            this.out.writeBoolean(tileMap);
+            this.out.writeLong(levelHash);
+            this.out.writeInt(tickRate);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void nextTick() {
+        keys = 0;
+        if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
+            keys |= LEFT;
+        }
+        if (keyboard.isPressed(KeyboardSensor.RIGHT_KEY)) {
+            keys |= RIGHT;
+        }
+        ticks++;
+        //the keys changed scenario, the previous run is complete
+        if (runLength > 0 && keys != runKeys) {
+            writeRun();
+        }
+        runKeys = keys;
+        runLength++;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (key.equals(KeyboardSensor.LEFT_KEY)) {
+            return (keys & LEFT) != 0;
+        }
+        if (key.equals(KeyboardSensor.RIGHT_KEY)) {
+            return (keys & RIGHT) != 0;
+        }
+        //keys that aren't recorded are read from the live keyboard
+        return keyboard.isPressed(key);
+    }
+
+    /**
+     * @return the number of ticks recorded so far
+     */
+    public long getTickCount() {
+        return ticks;
+    }
+
+    /**
+     * writes the last run and the trailer, and closes the recording. does nothing if it's already closed.
+     *
+     * @param score      the game's score
+     * @param blocksLeft the number of blocks left in the game
+     */
+    public void close(int score, int blocksLeft) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (runLength > 0) {
+                writeRun();
+            }
+            out.writeByte(END);
+            out.writeLong(ticks);
+            out.writeInt(score);
+            out.writeInt(blocksLeft);
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRun() {
+        try {
+            out.writeByte(runKeys);
+            long length = runLength;
+            while (length > VARINT_MASK) {
+                out.writeByte((int) (length & VARINT_MASK) | VARINT_MORE);
+                length >>>= VARINT_BITS;
+            }
+            out.writeByte((int) length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        runLength = 0;
+    }
+}
@@ -0,0 +1,217 @@
+package Arkanoid.GameAssets;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * plays back a recording made by InputRecorder: a keyboard sensor that presses, on every tick, the keys that were
+ * pressed on that tick of the recorded game. together with the recorded seed and options, a game that reads it
+ * plays exactly like the recorded game, and should end with the same score and the same number of blocks.
+ * after the recorded ticks no key is pressed.
+ */
+public class InputReplay implements TickInput {
+    private static final int INITIAL_RUNS = 64;
+    private final long seed;
+    private final int ballField;
+    private final boolean sweptCollisions;
+    private final int ballCount;
+    private final boolean ballCollisions;
+    private final boolean eventDriven;
+    private final boolean tileMap;
+    private final long levelHash;
+    private final int tickRate;
+    private final long tickCount;
+    private final int score;
+    private final int blocksLeft;
+    private byte[] runKeys = new byte[INITIAL_RUNS];
+    private long[] runLengths = new long[INITIAL_RUNS];
+    private int runs = 0;
+    private int run = -1;
+    private long leftInRun = 0;
+    private int keys = 0;
+
+    /**
+     * class constructor, reads a whole recording.
+     *
+     * @param in the stream the recording is read from, it's not closed
+     * @throws IOException if the stream can't be read or doesn't hold a recording
+     */
+    public InputReplay(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Error: not an input recording");
+        }
+        int version = data.readUnsignedByte();
+        if (version != InputRecorder.VERSION && version != InputRecorder.BASE_RATE_VERSION) {
+            throw new IOException("Error: unsupported recording version " + version);
+        }
+        seed = data.readLong();
+        ballField = data.readInt();
+        sweptCollisions = data.readBoolean();
+        ballCount = data.readInt();
+        ballCollisions = data.readBoolean();
+        eventDriven = data.readBoolean();
+        tileMap = data.readBoolean();
+        levelHash = data.readLong();
+        tickRate = version == InputRecorder.VERSION ? data.readInt() : Game.BASE_TICK_RATE;
+        if (tickRate <= 0) {
+            throw new IOException("Error: recording has a tick rate of " + tickRate);
+        }
+        long recorded = 0;
+        int runKey = data.readUnsignedByte();
+        //reads the runs until the trailer
+        while (runKey != InputRecorder.END) {
+            long length = readLength(data);
+            addRun(runKey, length);
+            recorded += length;
+            runKey = data.readUnsignedByte();
+        }
+        tickCount = data.readLong();
+        score = data.readInt();
+        blocksLeft = data.readInt();
+        if (recorded != tickCount) {
+            throw new IOException("Error: recording has " + recorded + " ticks of keys but " + tickCount + " ticks");
+        }
+    }
+
+    @Override
+    public void nextTick() {
+        //the current run is over scenario, we move to the next run with ticks in it
+        while (leftInRun == 0 && run + 1 < runs) {
+            run++;
+            leftInRun = runLengths[run];
+        }
+        //past the recorded ticks scenario
+        if (leftInRun == 0) {
+            keys = 0;
+            return;
+        }
+        keys = runKeys[run];
+        leftInRun--;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (key.equals(KeyboardSensor.LEFT_KEY)) {
+            return (keys & InputRecorder.LEFT) != 0;
+        }
+        if (key.equals(KeyboardSensor.RIGHT_KEY)) {
+            return (keys & InputRecorder.RIGHT) != 0;
+        }
+        return false;
+    }
+
+    /**
+     * @return the seed of the recorded game's random numbers
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the size of the recorded game's ball field, 0 if it played with ball objects
+     */
+    public int getBallField() {
+        return ballField;
+    }
+
+    /**
+     * @return true if the recorded game's balls moved with swept collisions
+     */
+    public boolean isSweptCollisions() {
+        return sweptCollisions;
+    }
+
+    /**
+     * @return the number of the recorded game's ball objects
+     */
+    public int getBallCount() {
+        return ballCount;
+    }
+
+    /**
+     * @return true if the recorded game's balls bounced off each other
+     */
+    public boolean isBallCollisions() {
+        return ballCollisions;
+    }
+
+    /**
+     * @return true if the recorded game's balls were moved by the event-driven engine
+     */
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    /**
+     * @return true if the recorded game's blocks were kept in a tile map
+     */
+    public boolean isTileMap() {
+        return tileMap;
+    }
+
+    /**
+     * @return the content hash of the recorded game's level (see LevelPack.Level.getContentHash), or 0 if it played
+     * the built-in rows
+     */
+    public long getLevelHash() {
+        return levelHash;
+    }
+
+    /**
+     * @return the number of ticks the recorded game played per second
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * @return the number of recorded ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the recorded game's final score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of blocks left at the end of the recorded game
+     */
+    public int getBlocksLeft() {
+        return blocksLeft;
+    }
+
+    private void addRun(int key, long length) {
+        if (runs == runKeys.length) {
+            runKeys = Arrays.copyOf(runKeys, runs * 2);
+            runLengths = Arrays.copyOf(runLengths, runs * 2);
+        }
+        runKeys[runs] = (byte) key;
+        runLengths[runs] = length;
+        runs++;
+    }
+
+    private static long readLength(DataInputStream data) throws IOException {
+        long length = 0;
+        int shift = 0, b;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Error: corrupt run length");
+            }
+            b = data.readUnsignedByte();
+            length |= (long) (b & InputRecorder.VARINT_MASK) << shift;
+            shift += InputRecorder.VARINT_BITS;
+        } while ((b & InputRecorder.VARINT_MORE) != 0);
+        return length;
+    }
+}
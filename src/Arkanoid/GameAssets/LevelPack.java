@@ -0,0 +1,428 @@
+package Arkanoid.GameAssets;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * a pack of levels in a compact binary format, read straight from a memory mapped file.
+ * the format (big endian):
+ * a header (magic number, format version, number of levels) and the offset of every level in the file, then every
+ * level: its name (length and UTF-8 bytes), its palette (number of colors and their RGB values) and its blocks
+ * (number of blocks and a fixed size record for each: x, y, width and height floats, a palette color id, a role and
+ * a reserved byte).
+ * a level reads its blocks' records directly from the mapped file when the game creates the blocks, so loading a
+ * level costs no parsing and no copying, whatever its size.
+ * packs are written from a human editable text format (see fromText).
+ */
+public class LevelPack {
+    static final int MAGIC = 0x41524B4C;
+    static final int VERSION = 1;
+    //x, y, width and height floats, a color id short, a role byte and a reserved byte
+    static final int BLOCK_BYTES = 20;
+    private static final int X = 0, Y = 4, WIDTH = 8, HEIGHT = 12, COLOR_ID = 16, ROLE = 18;
+    private static final int RGB_MASK = 0xFFFFFF, UNSIGNED_SHORT = 0xFFFF, HEX = 16, BYTE_MASK = 0xFF;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L, FNV_PRIME = 0x100000001B3L;
+    private static final BlockRole[] ROLES = BlockRole.values();
+    private final ByteBuffer buffer;
+    private final Level[] levels;
+
+    private LevelPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < Integer.BYTES + 2 * Short.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Error: not a level pack");
+        }
+        int version = buffer.getShort(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Error: unsupported level pack version " + version);
+        }
+        int directory = Integer.BYTES + 2 * Short.BYTES;
+        int count = buffer.getShort(Integer.BYTES + Short.BYTES) & UNSIGNED_SHORT;
+        if (directory + count * Integer.BYTES > buffer.limit()) {
+            throw new IOException("Error: truncated level pack");
+        }
+        levels = new Level[count];
+        for (int i = 0; i < count; i++) {
+            levels[i] = new Level(buffer, buffer.getInt(directory + i * Integer.BYTES));
+        }
+    }
+
+    /**
+     * maps a level pack file into memory.
+     *
+     * @param file the file
+     * @return the level pack
+     * @throws IOException if the file can't be read or isn't a valid level pack
+     */
+    public static LevelPack map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * creates a level pack from its text format. every line is one of:
+     * "level name" starts a new level,
+     * "color name #RRGGBB" adds a color to the current level's palette,
+     * "block x y width height color [role]" adds a block,
+     * "row x y width height count color [role]" adds count blocks side by side, the first one at (x, y).
+     * colors are referred to by their names, roles are removable (the default), death or solid.
+     * empty lines and lines starting with # are ignored.
+     *
+     * @param text the text
+     * @return the level pack
+     * @throws IOException if the text can't be read or isn't a valid level pack
+     */
+    public static LevelPack fromText(Reader text) throws IOException {
+        BufferedReader reader = new BufferedReader(text);
+        List<LevelText> parsed = new ArrayList<>();
+        LevelText current = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            //empty or comment line scenario
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            try {
+                if (tokens[0].equals("level")) {
+                    expect(tokens, 2, 2);
+                    current = new LevelText(tokens[1]);
+                    parsed.add(current);
+                } else if (current == null) {
+                    throw new IllegalArgumentException("a level must be started first");
+                } else if (tokens[0].equals("color")) {
+                    expect(tokens, 3, 3);
+                    String hex = tokens[2].startsWith("#") ? tokens[2].substring(1) : tokens[2];
+                    current.addColor(tokens[1], Integer.parseInt(hex, HEX));
+                } else if (tokens[0].equals("block")) {
+                    expect(tokens, 6, 7);
+                    current.addBlock(tokens, 1, 1, 5);
+                } else if (tokens[0].equals("row")) {
+                    expect(tokens, 7, 8);
+                    current.addBlock(tokens, 1, Integer.parseInt(tokens[5]), 6);
+                } else {
+                    throw new IllegalArgumentException("unknown line type " + tokens[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Error: line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return fromLevels(parsed);
+    }
+
+    /**
+     * writes the pack to a file in the binary format.
+     *
+     * @param file the file
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = buffer.duplicate();
+            data.clear();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * @return the number of levels in the pack
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * @param index the level's index, starting from 0
+     * @return the level
+     */
+    public Level getLevel(int index) {
+        if (index < 0 || index >= levels.length) {
+            throw new IllegalArgumentException("Error: the pack has no level " + index);
+        }
+        return levels[index];
+    }
+
+    private static void expect(String[] tokens, int min, int max) {
+        if (tokens.length < min || tokens.length > max) {
+            throw new IllegalArgumentException("wrong number of values for " + tokens[0]);
+        }
+    }
+
+    private static LevelPack fromLevels(List<LevelText> parsed) throws IOException {
+        if (parsed.size() > UNSIGNED_SHORT) {
+            throw new IOException("Error: too many levels");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(parsed.size());
+        //each level starts after the header, the directory and the levels before it
+        int offset = out.size() + parsed.size() * Integer.BYTES;
+        for (LevelText level : parsed) {
+            out.writeInt(offset);
+            offset += level.size();
+        }
+        for (LevelText level : parsed) {
+            level.writeTo(out);
+        }
+        out.flush();
+        return new LevelPack(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * a single level of a pack, a view of its blocks' records.
+     */
+    public static final class Level {
+        private final ByteBuffer buffer;
+        private final String name;
+        private final Color[] palette;
+        private final int blockCount;
+        private final int blocks;
+        private final int start;
+
+        private Level(ByteBuffer buffer, int offset) throws IOException {
+            this.buffer = buffer;
+            this.start = offset;
+            try {
+                int nameLength = buffer.getShort(offset) & UNSIGNED_SHORT;
+                byte[] nameBytes = new byte[nameLength];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(offset + Short.BYTES);
+                slice.get(nameBytes);
+                this.name = new String(nameBytes, StandardCharsets.UTF_8);
+                int position = offset + Short.BYTES + nameLength;
+                palette = new Color[buffer.getShort(position) & UNSIGNED_SHORT];
+                position += Short.BYTES;
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = new Color(buffer.getInt(position) & RGB_MASK);
+                    position += Integer.BYTES;
+                }
+                blockCount = buffer.getInt(position);
+                blocks = position + Integer.BYTES;
+            } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IOException("Error: truncated level pack", e);
+            }
+            if (blockCount < 0 || blocks + (long) blockCount * BLOCK_BYTES > buffer.limit()) {
+                throw new IOException("Error: truncated level " + name);
+            }
+            //a single pass over the records, so reading a block later can't fail
+            for (int i = 0; i < blockCount; i++) {
+                int record = blocks + i * BLOCK_BYTES;
+                if ((buffer.getShort(record + COLOR_ID) & UNSIGNED_SHORT) >= palette.length
+                        || buffer.get(record + ROLE) < 0 || buffer.get(record + ROLE) >= ROLES.length) {
+                    throw new IOException("Error: block " + i + " of level " + name + " is invalid");
+                }
+            }
+        }
+
+        /**
+         * @return the level's name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of blocks in the level
+         */
+        public int getBlockCount() {
+            return blockCount;
+        }
+
+        /**
+         * @param i the block's index
+         * @return the x value of the block's upper left point
+         */
+        public double getX(int i) {
+            return buffer.getFloat(blocks + i * BLOCK_BYTES + X);
+        }
+
+        /**
+         * @param i the block's index
+         * @return the y value of the block's upper left point
+         */
+        public double getY(int i) {
+            return buffer.getFloat(blocks + i * BLOCK_BYTES + Y);
+        }
+
+        /**
+         * @param i the block's index
+         * @return the block's width
+         */
+        public double getWidth(int i) {
+            return buffer.getFloat(blocks + i * BLOCK_BYTES + WIDTH);
+        }
+
+        /**
+         * @param i the block's index
+         * @return the block's height
+         */
+        public double getHeight(int i) {
+            return buffer.getFloat(blocks + i * BLOCK_BYTES + HEIGHT);
+        }
+
+        /**
+         * @param i the block's index
+         * @return the block's color, blocks with the same color id share the same color object
+         */
+        public Color getColor(int i) {
+            return palette[getColorId(i)];
+        }
+
+        /**
+         * @param i the block's index
+         * @return the id of the block's color in the level's palette
+         */
+        public int getColorId(int i) {
+            return buffer.getShort(blocks + i * BLOCK_BYTES + COLOR_ID) & UNSIGNED_SHORT;
+        }
+
+        /**
+         * @return the number of colors in the level's palette
+         */
+        public int getPaletteSize() {
+            return palette.length;
+        }
+
+        /**
+         * @param id a color's id in the level's palette
+         * @return the color
+         */
+        public Color getPaletteColor(int id) {
+            return palette[id];
+        }
+
+        /**
+         * @param i the block's index
+         * @return the block's role
+         */
+        public BlockRole getRole(int i) {
+            return ROLES[buffer.get(blocks + i * BLOCK_BYTES + ROLE)];
+        }
+
+        /**
+         * hashes the level's bytes (its name, palette and blocks' records) with 64-bit FNV-1a, so two levels get the
+         * same hash only if they hold the same content, whatever pack they're in.
+         *
+         * @return the hash of the level's content, never 0
+         */
+        public long getContentHash() {
+            long hash = FNV_OFFSET;
+            for (int i = start; i < blocks + blockCount * BLOCK_BYTES; i++) {
+                hash = (hash ^ (buffer.get(i) & BYTE_MASK)) * FNV_PRIME;
+            }
+            //0 stands for the built-in rows in a recording's header
+            return hash == 0 ? 1 : hash;
+        }
+    }
+
+    /**
+     * a level read from the text format, before it's written in the binary format.
+     */
+    private static final class LevelText {
+        private final byte[] name;
+        private final Map<String, Integer> colorIds = new HashMap<>();
+        private final List<Integer> colors = new ArrayList<>();
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        private final DataOutputStream blocks = new DataOutputStream(blockBytes);
+        private int blockCount = 0;
+
+        private LevelText(String name) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            if (this.name.length > UNSIGNED_SHORT) {
+                throw new IllegalArgumentException("level name is too long");
+            }
+        }
+
+        private void addColor(String colorName, int rgb) {
+            if (colorIds.containsKey(colorName)) {
+                throw new IllegalArgumentException("color " + colorName + " is defined twice");
+            }
+            if (colors.size() == UNSIGNED_SHORT) {
+                throw new IllegalArgumentException("too many colors");
+            }
+            colorIds.put(colorName, colors.size());
+            colors.add(rgb & RGB_MASK);
+        }
+
+        /**
+         * adds a row of blocks from the values of a text line.
+         *
+         * @param tokens the line's values
+         * @param first  the index of the x value, followed by the y, width and height values
+         * @param count  the number of blocks in the row
+         * @param color  the index of the color name, followed by the optional role
+         */
+        private void addBlock(String[] tokens, int first, int count, int color) {
+            float x = Float.parseFloat(tokens[first]), y = Float.parseFloat(tokens[first + 1]);
+            float width = Float.parseFloat(tokens[first + 2]), height = Float.parseFloat(tokens[first + 3]);
+            if (width <= 0 || height <= 0 || count <= 0) {
+                throw new IllegalArgumentException("blocks must have a positive size and count");
+            }
+            Integer colorId = colorIds.get(tokens[color]);
+            if (colorId == null) {
+                throw new IllegalArgumentException("unknown color " + tokens[color]);
+            }
+            BlockRole role = BlockRole.REMOVABLE;
+            if (color + 1 < tokens.length) {
+                role = BlockRole.valueOf(tokens[color + 1].toUpperCase(Locale.ROOT));
+            }
+            try {
+                for (int i = 0; i < count; i++) {
+                    blocks.writeFloat(x + i * width);
+                    blocks.writeFloat(y);
+                    blocks.writeFloat(width);
+                    blocks.writeFloat(height);
+                    blocks.writeShort(colorId);
+                    blocks.writeByte(role.ordinal());
+                    blocks.writeByte(0);
+                }
+            } catch (IOException e) {
+                //a byte array stream never fails
+                throw new IllegalStateException(e);
+            }
+            blockCount += count;
+        }
+
+        /**
+         * @return the number of bytes the level takes in the binary format
+         */
+        private int size() {
+            return Short.BYTES + name.length + Short.BYTES + colors.size() * Integer.BYTES + Integer.BYTES
+                    + blockBytes.size();
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeShort(colors.size());
+            for (int rgb : colors) {
+                out.writeInt(rgb);
+            }
+            out.writeInt(blockCount);
+            blockBytes.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Utils.GameRandom;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * plays many independent headless games in parallel, with the paddle played by a scripted policy, and collects
+ * the distributions of their scores and durations. every game gets its own seed, drawn in order from the runner's
+ * seed before any game starts, so a run with the same seed plays the same games and gets the same scores no matter
+ * how many threads play them or in which order they finish.
+ */
+public class MonteCarloRunner {
+    private static final double NANOS_PER_SECOND = 1e9, NANOS_PER_MILLISECOND = 1e6;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    private final int games;
+    private final long maxTicks;
+    private final PaddlePolicy policy;
+    private long seed = new GameRandom().nextLong();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Consumer<Game> setup = game -> { };
+    private final int[] scores;
+    private final long[] ticks;
+    private final long[] nanos;
+    private final boolean[] cleared;
+    private long elapsedNanos = 0;
+
+    /**
+     * class constructor.
+     *
+     * @param games    number of games to play
+     * @param maxTicks maximal number of ticks played in each game
+     * @param policy   the way the paddle is played
+     */
+    public MonteCarloRunner(int games, long maxTicks, PaddlePolicy policy) {
+        if (games <= 0 || maxTicks <= 0) {
+            throw new IllegalArgumentException("Error: games and ticks must be positive");
+        }
+        this.games = games;
+        this.maxTicks = maxTicks;
+        this.policy = policy;
+        this.scores = new int[games];
+        this.ticks = new long[games];
+        this.nanos = new long[games];
+        this.cleared = new boolean[games];
+    }
+
+    /**
+     * sets the seed the games' seeds are drawn from. by default every runner gets a random seed.
+     *
+     * @param runSeed the seed
+     */
+    public void setSeed(long runSeed) {
+        this.seed = runSeed;
+    }
+
+    /**
+     * sets the number of games played at the same time (the number of cores by default).
+     *
+     * @param threadCount number of threads
+     */
+    public void setThreads(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Error: thread count must be positive");
+        }
+        this.threads = threadCount;
+    }
+
+    /**
+     * sets an action that configures every game before it's initialized, for example to give it a ball field.
+     *
+     * @param gameSetup the action
+     */
+    public void setSetup(Consumer<Game> gameSetup) {
+        this.setup = gameSetup;
+    }
+
+    /**
+     * plays all the games and waits for them to end.
+     */
+    public void run() {
+        GameRandom random = new GameRandom(seed);
+        long[] seeds = new long[games];
+        for (int i = 0; i < games; i++) {
+            seeds[i] = random.nextLong();
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                int game = i;
+                tasks.add(pool.submit(() -> play(game, seeds[game])));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return the score of every game, in the games' order
+     */
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    /**
+     * @return the number of ticks every game was played for, in the games' order
+     */
+    public long[] getTicks() {
+        return ticks.clone();
+    }
+
+    /**
+     * @return the number of games played per second by the last run
+     */
+    public double getGamesPerSecond() {
+        return games * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * prints the throughput of the last run and the distributions of its scores, ticks and game durations.
+     *
+     * @param out the stream the report is printed to
+     */
+    public void report(PrintStream out) {
+        long totalTicks = 0;
+        int clearedGames = 0;
+        long[] scoreValues = new long[games];
+        for (int i = 0; i < games; i++) {
+            totalTicks += ticks[i];
+            scoreValues[i] = scores[i];
+            if (cleared[i]) {
+                clearedGames++;
+            }
+        }
+        double seconds = elapsedNanos / NANOS_PER_SECOND;
+        out.printf(Locale.ROOT, "games: %d, policy: %s, threads: %d, seed: %d%n",
+                games, policy.name().toLowerCase(Locale.ROOT), threads, seed);
+        out.printf(Locale.ROOT, "games per second: %.1f, ticks per second: %.0f, cleared: %.1f%%%n",
+                games / seconds, totalTicks / seconds, 100.0 * clearedGames / games);
+        printDistribution(out, "score", scoreValues, 1);
+        printDistribution(out, "ticks", ticks.clone(), 1);
+        printDistribution(out, "game_ms", nanos.clone(), NANOS_PER_MILLISECOND);
+    }
+
+    private void play(int game, long gameSeed) {
+        ScriptedKeyboardSensor keyboard = new ScriptedKeyboardSensor();
+        Game g = new Game(new HeadlessDisplay(keyboard), false);
+        GameRandom random = new GameRandom(gameSeed);
+        g.setSeed(random.nextLong());
+        setup.accept(g);
+        g.initialize();
+        //the policy gets its own stream, so its choices don't depend on the game's
+        GameRandom policyRandom = random.split();
+        long start = System.nanoTime(), played = 0;
+        while (played < maxTicks && !g.isOver()) {
+            policy.press(played, keyboard, policyRandom);
+            played += g.runTicks(1);
+        }
+        nanos[game] = System.nanoTime() - start;
+        ticks[game] = played;
+        scores[game] = g.getScore();
+        cleared[game] = g.getRemainingBlocks() == 0;
+    }
+
+    /**
+     * prints the mean, some percentiles and the maximum of given values.
+     *
+     * @param out    the stream the values are printed to
+     * @param metric the values' name
+     * @param values the values, sorted by this method
+     * @param unit   the values are divided by the unit before they are printed
+     */
+    private static void printDistribution(PrintStream out, String metric, long[] values, double unit) {
+        Arrays.sort(values);
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%s: mean %.2f", metric,
+                sum / values.length / unit));
+        for (double p : PERCENTILES) {
+            //nearest rank percentile
+            int rank = (int) Math.ceil(p * values.length) - 1;
+            line.append(String.format(Locale.ROOT, ", p%s %.2f", percentileName(p), values[rank] / unit));
+        }
+        line.append(String.format(Locale.ROOT, ", max %.2f", values[values.length - 1] / unit));
+        out.println(line);
+    }
+
+    private static String percentileName(double p) {
+        int percents = 100;
+        return String.valueOf((int) Math.round(p * percents));
+    }
+}
@@ -0,0 +1,60 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Utils.GameRandom;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * scripted ways of playing the paddle, used to play games without a player.
+ */
+public enum PaddlePolicy {
+    /**
+     * never presses a key.
+     */
+    IDLE,
+    /**
+     * holds the left key and the right key in turns, switching every second (60 ticks).
+     */
+    SWEEP,
+    /**
+     * like a jittery player: once every 20 ticks on average, switches to holding left, right or nothing.
+     */
+    RANDOM;
+
+    private static final int SWEEP_TICKS = 60;
+    private static final int RANDOM_REACTION_TICKS = 20;
+    private static final int RANDOM_CHOICES = 3;
+
+    /**
+     * presses the keys of a given tick on a scripted keyboard.
+     *
+     * @param tick     the tick about to be played, starting from 0
+     * @param keyboard the keyboard the paddle reads
+     * @param random   the random numbers of the game that is played
+     */
+    public void press(long tick, ScriptedKeyboardSensor keyboard, GameRandom random) {
+        switch (this) {
+            case SWEEP:
+                //switching direction scenario
+                if (tick % SWEEP_TICKS == 0) {
+                    boolean left = (tick / SWEEP_TICKS) % 2 == 0;
+                    keyboard.releaseAll();
+                    keyboard.press(left ? KeyboardSensor.LEFT_KEY : KeyboardSensor.RIGHT_KEY);
+                }
+                break;
+            case RANDOM:
+                if (random.nextInt(RANDOM_REACTION_TICKS) == 0) {
+                    keyboard.releaseAll();
+                    int choice = random.nextInt(RANDOM_CHOICES);
+                    if (choice == 1) {
+                        keyboard.press(KeyboardSensor.LEFT_KEY);
+                    } else if (choice == 2) {
+                        keyboard.press(KeyboardSensor.RIGHT_KEY);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Arkanoid.GameAssets;
+
+import biuoop.KeyboardSensor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * a keyboard sensor whose keys are pressed and released by code instead of by a player.
+ */
+public class ScriptedKeyboardSensor implements KeyboardSensor {
+    private final Set<String> pressed = new HashSet<>();
+
+    /**
+     * presses a key, it stays pressed until it is released.
+     *
+     * @param key the key, one of the KeyboardSensor key constants
+     */
+    public void press(String key) {
+        pressed.add(key);
+    }
+
+    /**
+     * releases a key.
+     *
+     * @param key the key, one of the KeyboardSensor key constants
+     */
+    public void release(String key) {
+        pressed.remove(key);
+    }
+
+    /**
+     * releases all the pressed keys.
+     */
+    public void releaseAll() {
+        pressed.clear();
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        return pressed.contains(key);
+    }
+}
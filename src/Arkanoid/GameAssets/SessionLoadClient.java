@@ -0,0 +1,246 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Utils.GameRandom;
+import Arkanoid.Utils.TaskThreads;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * a load generator for the session server: opens many sessions on a local server at once, plays each of them with
+ * a scripted paddle policy for a given time (starting a new game whenever one is over), and measures the rate at
+ * which every session receives its frames, from its first frame to the end of the run. a session that gets its
+ * frames at the server's tick rate is served on time, so the largest number of sessions the server keeps on time,
+ * divided by its cores, is the number of sessions per core it can host.
+ */
+public class SessionLoadClient {
+    private static final double NANOS_PER_SECOND = 1e9;
+    //a session is on time if it gets at least this part of the frames it should
+    private static final double ON_TIME = 0.95;
+    //a session that gets more frames than this part of the ones it should got them in bursts, it isn't on time
+    private static final double BURST = 1.05;
+    private final int port;
+    private final int sessions;
+    private final double seconds;
+    private PaddlePolicy policy = PaddlePolicy.RANDOM;
+    private long seed = new GameRandom().nextLong();
+    private int tickRate = 60;
+    private long readDelayMillis = 0;
+    private long endNanos = 0;
+    private final long[] frames;
+    private final long[] firstFrameNanos;
+    private final long[] bytes;
+    private final int[] games;
+    private final boolean[] failed;
+
+    /**
+     * class constructor.
+     *
+     * @param port     the server's port on the loopback address
+     * @param sessions number of sessions to open
+     * @param seconds  the time every session is played for
+     */
+    public SessionLoadClient(int port, int sessions, double seconds) {
+        if (sessions <= 0 || seconds <= 0) {
+            throw new IllegalArgumentException("Error: sessions and seconds must be positive");
+        }
+        this.port = port;
+        this.sessions = sessions;
+        this.seconds = seconds;
+        this.frames = new long[sessions];
+        this.firstFrameNanos = new long[sessions];
+        this.bytes = new long[sessions];
+        this.games = new int[sessions];
+        this.failed = new boolean[sessions];
+    }
+
+    /**
+     * sets the way the sessions' paddles are played (random by default).
+     *
+     * @param paddlePolicy the policy
+     */
+    public void setPolicy(PaddlePolicy paddlePolicy) {
+        this.policy = paddlePolicy;
+    }
+
+    /**
+     * sets the seed the games' seeds are drawn from. by default every client gets a random seed.
+     *
+     * @param runSeed the seed
+     */
+    public void setSeed(long runSeed) {
+        this.seed = runSeed;
+    }
+
+    /**
+     * sets the server's tick rate (60 by default), the rate a session on time gets its frames at.
+     *
+     * @param ticksPerSecond the tick rate
+     */
+    public void setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Error: tick rate must be positive");
+        }
+        this.tickRate = ticksPerSecond;
+    }
+
+    /**
+     * makes every session wait after each frame it reads, to play a slow client the server has to hold back.
+     *
+     * @param millis the wait after every frame, 0 by default
+     */
+    public void setReadDelay(long millis) {
+        this.readDelayMillis = millis;
+    }
+
+    /**
+     * opens all the sessions, plays them, and waits for them to end.
+     */
+    public void run() {
+        GameRandom random = new GameRandom(seed);
+        ExecutorService clients = TaskThreads.newPerTaskExecutor("Arkanoid load client");
+        List<Future<?>> tasks = new ArrayList<>(sessions);
+        long deadline = System.nanoTime() + (long) (seconds * NANOS_PER_SECOND);
+        endNanos = deadline;
+        try {
+            for (int i = 0; i < sessions; i++) {
+                int session = i;
+                GameRandom sessionRandom = random.split();
+                tasks.add(clients.submit(() -> play(session, sessionRandom, deadline)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error: a load client failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * prints the number of frames the sessions got, the distribution of their frame rates, and the part of the
+     * sessions that were served on time.
+     *
+     * @param out the stream the report is printed to
+     */
+    public void report(PrintStream out) {
+        double[] rates = new double[sessions];
+        long totalFrames = 0, totalBytes = 0;
+        int onTime = 0, bursts = 0, failures = 0, gamesPlayed = 0;
+        for (int i = 0; i < sessions; i++) {
+            //the first frame starts the session's clock, so sessions that took long to open aren't counted as slow
+            double active = (endNanos - firstFrameNanos[i]) / NANOS_PER_SECOND;
+            rates[i] = active > 0 ? frames[i] / active : 0;
+            totalFrames += frames[i];
+            totalBytes += bytes[i];
+            gamesPlayed += games[i];
+            //a server that catches up on late ticks sends them faster than the tick rate scenario
+            if (rates[i] > BURST * tickRate) {
+                bursts++;
+            } else if (rates[i] >= ON_TIME * tickRate) {
+                onTime++;
+            }
+            if (failed[i]) {
+                failures++;
+            }
+        }
+        Arrays.sort(rates);
+        int cores = Runtime.getRuntime().availableProcessors();
+        out.printf(Locale.ROOT, "sessions: %d, games: %d, failed: %d, policy: %s, seconds: %.1f%n", sessions,
+                gamesPlayed, failures, policy.name().toLowerCase(Locale.ROOT), seconds);
+        out.printf(Locale.ROOT, "frames: %d (%.0f per second, %.1f bytes each), frames per session per second: "
+                        + "min %.1f, p50 %.1f, max %.1f%n", totalFrames, totalFrames / seconds,
+                totalFrames == 0 ? 0 : (double) totalBytes / totalFrames, rates[0], rates[sessions / 2],
+                rates[sessions - 1]);
+        out.printf(Locale.ROOT, "on time: %.1f%% of the sessions at %d ticks per second, %.1f sessions per core "
+                + "(%d cores), above the tick rate: %d%n", 100.0 * onTime / sessions, tickRate,
+                (double) sessions / cores, cores, bursts);
+    }
+
+    /**
+     * plays games in one session until the deadline: sends a seed, then reads frames and sends the policy's keys
+     * whenever they change, and an acknowledgement after every ACK_FRAMES frames.
+     *
+     * @param session the session's index
+     * @param random  the session's random numbers, for its games' seeds and its policy
+     * @param deadline the time the session ends at, in System.nanoTime's scale
+     */
+    private void play(int session, GameRandom random, long deadline) {
+        byte[] frame = new byte[GameSession.HEADER_BYTES];
+        ScriptedKeyboardSensor keyboard = new ScriptedKeyboardSensor();
+        while (System.nanoTime() < deadline) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                out.writeLong(random.nextLong());
+                out.flush();
+                games[session]++;
+                int sentKeys = 0;
+                boolean over = false;
+                keyboard.releaseAll();
+                while (!over && System.nanoTime() < deadline) {
+                    int length = in.readUnsignedShort();
+                    if (length > frame.length) {
+                        frame = new byte[length];
+                    }
+                    in.readFully(frame, 0, length);
+                    if (frames[session]++ == 0) {
+                        firstFrameNanos[session] = System.nanoTime();
+                    }
+                    bytes[session] += length + 2;
+                    over = (frame[GameSession.FLAGS_OFFSET] & GameSession.OVER) != 0;
+                    policy.press(frames[session], keyboard, random);
+                    int keys = keysOf(keyboard);
+                    //the frames are acknowledged in batches, along with the keys
+                    boolean ack = frames[session] % GameSession.ACK_FRAMES == 0;
+                    if (keys != sentKeys || ack) {
+                        out.write(ack ? keys | GameSession.ACK : keys);
+                        out.flush();
+                        sentKeys = keys;
+                    }
+                    if (readDelayMillis > 0) {
+                        Thread.sleep(readDelayMillis);
+                    }
+                }
+                out.write(GameSession.QUIT);
+                out.flush();
+            } catch (IOException e) {
+                failed[session] = true;
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static int keysOf(KeyboardSensor keyboard) {
+        int keys = 0;
+        if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
+            keys |= InputRecorder.LEFT;
+        }
+        if (keyboard.isPressed(KeyboardSensor.RIGHT_KEY)) {
+            keys |= InputRecorder.RIGHT;
+        }
+        return keys;
+    }
+}
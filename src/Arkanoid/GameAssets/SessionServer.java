@@ -0,0 +1,277 @@
+package Arkanoid.GameAssets;
+
+import Arkanoid.Utils.TaskThreads;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * hosts many headless game sessions in one JVM, for clients that connect over a local TCP socket (see GameSession
+ * for the protocol). every connection reads its client's keys on its own thread, and writes its frames on another,
+ * both virtual threads when the JVM has them (see TaskThreads), so a blocked client costs almost nothing.
+ * the games aren't ticked by their connections: a single scheduler plays a round at the tick rate, in which every
+ * session that isn't backed up by a slow client plays one tick. the sessions of a round are ticked in parallel on
+ * a pool of threads. the rounds start on a fixed grid of tick periods, but a round that takes longer than a tick is
+ * counted as late, and the next round starts as soon as it ends and the grid is moved to it, so an overloaded
+ * server slows all its games down evenly instead of queueing up ticks and playing them in bursts later.
+ */
+public class SessionServer {
+    /**
+     * the port the server listens on by default.
+     */
+    public static final int DEFAULT_PORT = 4747;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    private final int port;
+    private int tickRate = 60;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 4;
+    private Consumer<Game> setup = game -> { };
+    private final Set<GameSession> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder stalledTicks = new LongAdder();
+    private volatile long rounds = 0;
+    private volatile long lateRounds = 0;
+    private volatile long roundNanos = 0;
+    private long period;
+    //the time the next round is due at, in System.nanoTime's scale, only used by the scheduler's thread
+    private long nextRound;
+    private ServerSocket server = null;
+    private ExecutorService connections = null;
+    private ScheduledExecutorService scheduler = null;
+    private ForkJoinPool pool = null;
+
+    /**
+     * class constructor.
+     *
+     * @param port the port to listen on, 0 to listen on any free port
+     */
+    public SessionServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * sets the number of ticks every session plays per second (60 by default), must be called before start.
+     *
+     * @param ticksPerSecond the tick rate
+     */
+    public void setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Error: tick rate must be positive");
+        }
+        this.tickRate = ticksPerSecond;
+    }
+
+    /**
+     * sets the number of threads the sessions are ticked on (the number of cores by default), must be called
+     * before start.
+     *
+     * @param threadCount number of threads
+     */
+    public void setThreads(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Error: thread count must be positive");
+        }
+        this.threads = threadCount;
+    }
+
+    /**
+     * sets the number of frames a session keeps for a client that reads slowly (4 by default).
+     *
+     * @param frames number of frames
+     */
+    public void setQueueCapacity(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Error: frame queue capacity must be positive");
+        }
+        this.queueCapacity = frames;
+    }
+
+    /**
+     * sets an action that configures every session's game before it's initialized, for example to give it a
+     * ball field.
+     *
+     * @param gameSetup the action
+     */
+    public void setSetup(Consumer<Game> gameSetup) {
+        this.setup = gameSetup;
+    }
+
+    /**
+     * starts listening on the loopback address and ticking the sessions.
+     *
+     * @throws IOException if the port can't be listened on
+     */
+    public void start() throws IOException {
+        server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        connections = TaskThreads.newPerTaskExecutor("Arkanoid session");
+        pool = new ForkJoinPool(threads);
+        scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "Arkanoid ticks");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connections.submit(this::acceptConnections);
+        period = NANOS_PER_SECOND / tickRate;
+        nextRound = System.nanoTime() + period;
+        scheduler.schedule(this::playRound, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return the number of sessions that are playing
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * stops listening, closes all the sessions and stops their threads.
+     */
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            //the server socket is closed anyway scenario
+        }
+        scheduler.shutdownNow();
+        for (GameSession session : sessions) {
+            session.close();
+        }
+        sessions.clear();
+        connections.shutdownNow();
+        pool.shutdown();
+    }
+
+    /**
+     * prints the number of sessions, the ticks played, the ticks held back by slow clients and the rounds'
+     * timing since the server started.
+     *
+     * @param out the stream the report is printed to
+     */
+    public void report(PrintStream out) {
+        long roundCount = rounds;
+        out.printf(Locale.ROOT, "sessions: %d playing, %d served, virtual threads: %s, tick threads: %d%n",
+                sessions.size(), served.sum(), TaskThreads.hasVirtualThreads() ? "yes" : "no", threads);
+        out.printf(Locale.ROOT, "ticks: %d, held back by slow clients: %d, rounds: %d, late: %d, "
+                        + "mean round: %.3f ms%n", ticks.sum(), stalledTicks.sum(), roundCount, lateRounds,
+                roundCount == 0 ? 0 : roundNanos / NANOS_PER_MILLISECOND / roundCount);
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                connections.submit(() -> serve(socket));
+            }
+        } catch (IOException e) {
+            //the server was closed scenario
+        }
+    }
+
+    /**
+     * reads a new client's seed, creates its session, and reads its keys until it leaves.
+     *
+     * @param socket the client's socket
+     */
+    private void serve(Socket socket) {
+        GameSession session;
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Game game = Game.headless();
+            game.setSeed(in.readLong());
+            game.setTickRate(tickRate);
+            setup.accept(game);
+            session = new GameSession(socket, game, queueCapacity);
+        } catch (IOException | RuntimeException e) {
+            //the client left before sending its seed, or its game can't be created scenario
+            try {
+                socket.close();
+            } catch (IOException closeError) {
+                //the socket is closed anyway scenario
+            }
+            return;
+        }
+        sessions.add(session);
+        served.increment();
+        connections.submit(session::writeFrames);
+        session.readKeys(in);
+    }
+
+    /**
+     * plays a round and schedules the next one, a period after the current round was due, or right away if that
+     * time already passed. the missed rounds are never played.
+     */
+    private void playRound() {
+        tickRound();
+        long now = System.nanoTime();
+        nextRound = Math.max(nextRound + period, now);
+        try {
+            scheduler.schedule(this::playRound, nextRound - now, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            //the server was closed during the round scenario
+        }
+    }
+
+    /**
+     * plays a tick of every session that isn't backed up, and drops the sessions that are done.
+     */
+    private void tickRound() {
+        long start = System.nanoTime();
+        GameSession[] playing = sessions.toArray(new GameSession[0]);
+        pool.submit(() -> Arrays.stream(playing).parallel().forEach(this::tickSession)).join();
+        long took = System.nanoTime() - start;
+        //only the scheduler's thread updates the rounds' timing
+        rounds++;
+        roundNanos += took;
+        if (took > NANOS_PER_SECOND / tickRate) {
+            lateRounds++;
+        }
+    }
+
+    private void tickSession(GameSession session) {
+        try {
+            if (session.isDone()) {
+                sessions.remove(session);
+                return;
+            }
+            //back-pressure scenario, the client hasn't read its frames yet
+            if (session.isBackedUp()) {
+                stalledTicks.increment();
+                return;
+            }
+            session.tick();
+            ticks.increment();
+        } catch (RuntimeException e) {
+            //a broken game only ends its own session
+            session.close();
+            sessions.remove(session);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package Arkanoid.GameAssets;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * a keyboard sensor whose keys only change between ticks: the game calls nextTick before every tick, and the keys
+ * then keep their state until the next call, so a tick always sees the same keys no matter when the paddle reads
+ * them.
+ */
+public interface TickInput extends KeyboardSensor {
+
+    /**
+     * moves the sensor to the keys of the next tick.
+     */
+    void nextTick();
+}
@@ -0,0 +1,92 @@
+package Arkanoid.Geometry;
+
+import java.util.Arrays;
+
+/**
+ * axis aligned boxes stored as packed columns: one array of left sides, one of upper sides, one of right sides and
+ * one of lower sides, so a slab test can load the same side of several boxes at once (see SlabBatch).
+ * a removed box's place is taken by the last box, like in the game environment's lists, so the boxes keep the
+ * indexes of the entries they belong to.
+ */
+public class BoxColumns {
+    private static final int INITIAL_CAPACITY = 64;
+    private double[] left = new double[INITIAL_CAPACITY];
+    private double[] top = new double[INITIAL_CAPACITY];
+    private double[] right = new double[INITIAL_CAPACITY];
+    private double[] bottom = new double[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * adds a box at the end of the columns.
+     *
+     * @param boxLeft   box's lowest x coordinates
+     * @param boxTop    box's lowest y coordinates
+     * @param boxRight  box's highest x coordinates
+     * @param boxBottom box's highest y coordinates
+     */
+    public void add(double boxLeft, double boxTop, double boxRight, double boxBottom) {
+        //columns are full scenario
+        if (size == left.length) {
+            left = Arrays.copyOf(left, 2 * size);
+            top = Arrays.copyOf(top, 2 * size);
+            right = Arrays.copyOf(right, 2 * size);
+            bottom = Arrays.copyOf(bottom, 2 * size);
+        }
+        left[size] = boxLeft;
+        top[size] = boxTop;
+        right[size] = boxRight;
+        bottom[size] = boxBottom;
+        size++;
+    }
+
+    /**
+     * removes a box, the last box takes its index.
+     *
+     * @param index the box's index
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Error: box index " + index + " is out of range");
+        }
+        size--;
+        left[index] = left[size];
+        top[index] = top[size];
+        right[index] = right[size];
+        bottom[index] = bottom[size];
+    }
+
+    /**
+     * @return the number of boxes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the boxes' left sides, only the first size() values are boxes
+     */
+    public double[] left() {
+        return left;
+    }
+
+    /**
+     * @return the boxes' upper sides, only the first size() values are boxes
+     */
+    public double[] top() {
+        return top;
+    }
+
+    /**
+     * @return the boxes' right sides, only the first size() values are boxes
+     */
+    public double[] right() {
+        return right;
+    }
+
+    /**
+     * @return the boxes' lower sides, only the first size() values are boxes
+     */
+    public double[] bottom() {
+        return bottom;
+    }
+}
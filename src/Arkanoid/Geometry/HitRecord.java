@@ -0,0 +1,265 @@
+package Arkanoid.Geometry;
+
+import Arkanoid.Sprites.Collidable;
+
+import java.util.Arrays;
+
+/**
+ * a reusable version of CollisionInfo. the game environment writes the closest collision of a query into it,
+ * so a ball can look for collisions every frame without creating new objects.
+ */
+public class HitRecord {
+    private static final int INITIAL_VISITED = 16;
+    private static final int NO_PENDING = -1;
+    private final MutablePoint point = new MutablePoint();
+    private final MutablePoint temp = new MutablePoint();
+    private final SlabRay ray = new SlabRay();
+    //indexes of the boxes a batch slab test found the trajectory reaches
+    private int[] candidates = new int[INITIAL_VISITED];
+    private Collidable collidable;
+    private double distance;
+    private long order;
+    //one bit per index slot, set for the collidables the current query already checked
+    private long[] visited = new long[INITIAL_VISITED];
+    //the slots whose bits are set, so clearing costs as much as the marking did
+    private int[] visitedSlots = new int[INITIAL_VISITED];
+    private int visitedCount = 0;
+    //key of a hit part of a collidable (a tile of a tile map) that is only turned into an object once it's known
+    //to be the closest, NO_PENDING if the stored collision isn't pending
+    private int pending = NO_PENDING;
+    //movement of the query, for the collidables that walk along it
+    private double startX;
+    private double startY;
+    private double moveX;
+    private double moveY;
+    private double radius;
+
+    /**
+     * forgets the collision that was stored in the record.
+     */
+    public void clear() {
+        collidable = null;
+        pending = NO_PENDING;
+        for (int i = 0; i < visitedCount; i++) {
+            visited[visitedSlots[i] >>> 6] = 0;
+        }
+        visitedCount = 0;
+    }
+
+    /**
+     * marks a collidable as checked by the current query. a collidable that is stored in several places of the
+     * game environment's index is met several times by a query, but it only needs to be checked once.
+     * each query uses its own record, so several queries can run at the same time.
+     *
+     * @param slot the position of the collidable in the game environment's index
+     * @return true if the collidable wasn't checked before during the current query, false otherwise
+     */
+    public boolean markVisited(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        //index grew past the bitset scenario
+        if (word >= visited.length) {
+            visited = Arrays.copyOf(visited, Math.max(word + 1, 2 * visited.length));
+        }
+        if ((visited[word] & bit) != 0) {
+            return false;
+        }
+        //list is full scenario
+        if (visitedCount == visitedSlots.length) {
+            visitedSlots = Arrays.copyOf(visitedSlots, 2 * visitedSlots.length);
+        }
+        visited[word] |= bit;
+        visitedSlots[visitedCount++] = slot;
+        return true;
+    }
+
+    /**
+     * stores a collision in the record.
+     *
+     * @param x             collision point x coordinates
+     * @param y             collision point y coordinates
+     * @param hitCollidable the object involved in the collision
+     * @param hitDistance   the distance of the collision from the start of the trajectory
+     * @param hitOrder      the position of the object in the game environment's insertion order
+     */
+    public void set(double x, double y, Collidable hitCollidable, double hitDistance, long hitOrder) {
+        point.set(x, y);
+        this.collidable = hitCollidable;
+        this.distance = hitDistance;
+        this.order = hitOrder;
+        this.pending = NO_PENDING;
+    }
+
+    /**
+     * stores a collision with a part of a collidable, without the object that stands for the part. the collidable
+     * turns it into an object with resolvePending once it's done checking its parts, so a query that passes many
+     * parts creates at most one object.
+     *
+     * @param x           collision point x coordinates
+     * @param y           collision point y coordinates
+     * @param hitDistance the distance of the collision from the start of the trajectory
+     * @param hitOrder    the position of the collidable in the game environment's insertion order
+     * @param key         the part's key, not negative
+     */
+    public void setPending(double x, double y, double hitDistance, long hitOrder, int key) {
+        point.set(x, y);
+        this.collidable = null;
+        this.distance = hitDistance;
+        this.order = hitOrder;
+        this.pending = key;
+    }
+
+    /**
+     * @return true if the stored collision is with a part that wasn't turned into an object yet, false otherwise
+     */
+    public boolean isPending() {
+        return pending != NO_PENDING;
+    }
+
+    /**
+     * @return the key of the part the stored collision is with
+     */
+    public int getPendingKey() {
+        return pending;
+    }
+
+    /**
+     * turns the pending collision into a regular one.
+     *
+     * @param part the object that stands for the hit part
+     */
+    public void resolvePending(Collidable part) {
+        this.collidable = part;
+        this.pending = NO_PENDING;
+    }
+
+    /**
+     * stores the movement of the query, for the collidables that walk along it instead of being checked whole.
+     *
+     * @param x            movement's start x coordinates
+     * @param y            movement's start y coordinates
+     * @param dx           movement along the x-axis
+     * @param dy           movement along the y-axis
+     * @param movingRadius the moving ball's radius, 0 for a trajectory
+     */
+    public void setMovement(double x, double y, double dx, double dy, double movingRadius) {
+        this.startX = x;
+        this.startY = y;
+        this.moveX = dx;
+        this.moveY = dy;
+        this.radius = movingRadius;
+    }
+
+    /**
+     * @return movement's start x coordinates
+     */
+    public double getStartX() {
+        return startX;
+    }
+
+    /**
+     * @return movement's start y coordinates
+     */
+    public double getStartY() {
+        return startY;
+    }
+
+    /**
+     * @return movement along the x-axis
+     */
+    public double getMoveX() {
+        return moveX;
+    }
+
+    /**
+     * @return movement along the y-axis
+     */
+    public double getMoveY() {
+        return moveY;
+    }
+
+    /**
+     * @return the moving ball's radius, 0 for a trajectory
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return true if the record holds a collision, false otherwise
+     */
+    public boolean isHit() {
+        return collidable != null || pending != NO_PENDING;
+    }
+
+    /**
+     * @return collision point x coordinates
+     */
+    public double getX() {
+        return point.getX();
+    }
+
+    /**
+     * @return collision point y coordinates
+     */
+    public double getY() {
+        return point.getY();
+    }
+
+    /**
+     * @return the object to be collided with, or null if there's no collision
+     */
+    public Collidable collisionObject() {
+        return collidable;
+    }
+
+    /**
+     * @return the distance of the collision point from the start of the trajectory
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the position of the collided object in the game environment's insertion order
+     */
+    public long getOrder() {
+        return order;
+    }
+
+    /**
+     * @return scratch point the game environment uses while it checks a single collidable
+     */
+    public MutablePoint scratch() {
+        return temp;
+    }
+
+    /**
+     * @return the query's trajectory, prepared once for the slab tests of all the collidables it is checked against
+     */
+    public SlabRay ray() {
+        return ray;
+    }
+
+    /**
+     * @param capacity the number of indexes the buffer must have room for
+     * @return buffer the game environment writes the results of a batch slab test into
+     */
+    public int[] candidates(int capacity) {
+        //buffer is too small scenario
+        if (candidates.length < capacity) {
+            candidates = new int[Math.max(capacity, 2 * candidates.length)];
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the stored collision as a new CollisionInfo object, or null if there's no collision
+     */
+    public CollisionInfo toCollisionInfo() {
+        if (collidable == null) {
+            return null;
+        }
+        return new CollisionInfo(point.toPoint(), collidable);
+    }
+}
@@ -0,0 +1,76 @@
+package Arkanoid.Geometry;
+
+import Arkanoid.Sprites.Collidable;
+
+/**
+ * a reusable result of a swept-circle query: the first collidable a moving ball touches, when it touches it,
+ * the point it touches and the normal of the touched side. the point is the contact point on the collidable
+ * (not the ball's center), and the distance of the record is the part of the movement done before the contact,
+ * between 0 and 1.
+ */
+public class ImpactRecord extends HitRecord {
+    private final MutablePoint normal = new MutablePoint();
+    private final MutablePoint tempNormal = new MutablePoint();
+
+    /**
+     * stores an impact in the record.
+     *
+     * @param time          the part of the movement done before the contact, between 0 and 1
+     * @param normalX       x-axis component of the touched side's unit normal, pointing out of the collidable
+     * @param normalY       y-axis component of the touched side's unit normal
+     * @param contactX      contact point x coordinates
+     * @param contactY      contact point y coordinates
+     * @param hitCollidable the touched collidable
+     * @param hitOrder      the position of the collidable in the game environment's insertion order
+     */
+    public void setImpact(double time, double normalX, double normalY, double contactX, double contactY,
+                          Collidable hitCollidable, long hitOrder) {
+        set(contactX, contactY, hitCollidable, time, hitOrder);
+        normal.set(normalX, normalY);
+    }
+
+    /**
+     * stores an impact with a part of a collidable, without the object that stands for the part (see setPending).
+     *
+     * @param time     the part of the movement done before the contact, between 0 and 1
+     * @param normalX  x-axis component of the touched side's unit normal, pointing out of the collidable
+     * @param normalY  y-axis component of the touched side's unit normal
+     * @param contactX contact point x coordinates
+     * @param contactY contact point y coordinates
+     * @param hitOrder the position of the collidable in the game environment's insertion order
+     * @param key      the part's key, not negative
+     */
+    public void setPendingImpact(double time, double normalX, double normalY, double contactX, double contactY,
+                                 long hitOrder, int key) {
+        setPending(contactX, contactY, time, hitOrder, key);
+        normal.set(normalX, normalY);
+    }
+
+    /**
+     * @return the part of the movement done before the contact, between 0 and 1
+     */
+    public double getTime() {
+        return getDistance();
+    }
+
+    /**
+     * @return x-axis component of the touched side's unit normal
+     */
+    public double getNormalX() {
+        return normal.getX();
+    }
+
+    /**
+     * @return y-axis component of the touched side's unit normal
+     */
+    public double getNormalY() {
+        return normal.getY();
+    }
+
+    /**
+     * @return scratch normal the game environment uses while it checks a single collidable
+     */
+    public MutablePoint scratchNormal() {
+        return tempNormal;
+    }
+}
@@ -76,51 +76,8 @@ public class Line {
      * false if lines are parallel.
      */
     public boolean isIntersecting(Line other) {
-        int regular = 1, vertical = 2, horizontal = 3;
-        double m1 = this.gradient(), b1 = this.axisInterception();
-        double m2 = other.gradient(), b2 = other.axisInterception();
-        double hor = 0;
-        //two horizontal lines scenario
-        if ((Operations.doubleThreshold(m1, hor)) && (Operations.doubleThreshold(m2, hor))) {
-            //same y scenario
-            if (Operations.doubleThreshold(this.start().getY(), other.start().getY())) {
-                return other.isOnLine(this.start(), horizontal) || other.isOnLine(this.end(), horizontal);
-            }
-            return false;
-        }
-        //one or more vertical lines scenario
-        if (this.isVertical() || other.isVertical()) {
-            //two vertical lines scenario
-            if (this.isVertical() && other.isVertical()) {
-                if (Operations.doubleThreshold(this.start().getX(), other.start().getX())) {
-                    return other.isOnLine(this.start(), vertical) || other.isOnLine(this.end(), vertical);
-                }
-                return false;
-            }
-            //first line is vertical scenario
-            if (this.isVertical()) {
-                double xIntersection = this.start().getX();
-                double yIntersection = other.findIntersectionY(xIntersection);
-                Point intersection = new Point(xIntersection, yIntersection);
-                return this.isOnLine(intersection, vertical) && other.isOnLine(intersection, regular);
-            } else { // other line is vertical scenario
-                double xIntersection = other.start().getX();
-                double yIntersection = this.findIntersectionY(xIntersection);
-                Point intersection = new Point(xIntersection, yIntersection);
-                return this.isOnLine(intersection, regular) && other.isOnLine(intersection, vertical);
-            }
-        }
-        //infinite intersection points scenario
-        if ((Operations.doubleThreshold(m1, m2)) && (Operations.doubleThreshold(b1, b2))) {
-            return true;
-        } else if (Operations.doubleThreshold(m1, m2)) { //parallel lines scenario
-            return false;
-        }
-        double xIntersection = this.findIntersectionX(other);
-        double yIntersection = this.findIntersectionY(xIntersection);
-        //intersection point
-        Point intersection = new Point(xIntersection, yIntersection);
-        return (this.isOnLine(intersection, regular)) && (other.isOnLine(intersection, regular));
+        return SegmentMath.isIntersecting(start.getX(), start.getY(), end.getX(), end.getY(),
+                other.start.getX(), other.start.getY(), other.end.getX(), other.end.getY());
     }
 
     /**
@@ -131,84 +88,13 @@ public class Line {
      * or returns the intersection point if it exists on both lines.
      */
     public Point intersectionWith(Line other) {
-        double hor = 0;
-        int vertical = 2, horizontal = 3, contained = 4;
-        //parallel lines scenario
-        if (!this.isIntersecting(other)) {
+        MutablePoint intersection = new MutablePoint();
+        //parallel lines or infinite intersection points scenario
+        if (!SegmentMath.intersection(start.getX(), start.getY(), end.getX(), end.getY(),
+                other.start.getX(), other.start.getY(), other.end.getX(), other.end.getY(), intersection)) {
             return null;
         }
-        //two identical lines scenario
-        if (this.equals(other)) {
-            //both line represent the same point in the axis system scenario
-            if (this.isPoint() && other.isPoint()) {
-                return this.start();
-            }
-            return null;
-        }
-        //one line is represented as a point in the axis system and the point is on the second line scenario
-        if (this.isPoint() || other.isPoint()) {
-            if (this.isPoint()) {
-                return this.start();
-            } else {
-                return other.start();
-            }
-        }
-        //one line is vertical scenario
-        if (this.isVertical() || other.isVertical()) {
-            //both lines are vertical scenario
-            if (this.isVertical() && other.isVertical()) {
-                //one of the lines is contained in the other scenario
-                if (this.isContainedExists(other, vertical)) {
-                    return null;
-                } else {
-                    if ((this.start().equals(other.start())) || (this.start().equals(this.end()))) {
-                        return this.start();
-                    } else {
-                        return this.end();
-                    }
-                }
-            }
-            //first line is vertical, second line is regular scenario
-            if (this.isVertical()) {
-                double intersectionX = this.start().getX();
-                double intersectionY = other.findIntersectionY(intersectionX);
-                return new Point(intersectionX, intersectionY);
-            } else { //second line is vertical scenario
-                double intersectionX = other.start().getX();
-                double intersectionY = this.findIntersectionY(intersectionX);
-                return new Point(intersectionX, intersectionY);
-            }
-        }
-        double m1 = this.gradient(), m2 = other.gradient(), b1 = this.axisInterception(), b2 = other.axisInterception();
-        //same line equation scenario
-        if ((Operations.doubleThreshold(m1, m2)) && (Operations.doubleThreshold(b1, b2))) {
-            //both lines are horizontal scenario
-            if ((Operations.doubleThreshold(m1, hor)) && (Operations.doubleThreshold(m2, hor))) {
-                //infinite intersection points scenario
-                if (this.isContainedExists(other, horizontal)) {
-                    return null;
-                }
-            }
-            //infinite intersection points scenario
-            if (this.isContainedExists(other, contained)) {
-                return null;
-            }
-            //one intersection point scenario
-            if (this.start().equals(other.start())) {
-                return this.start();
-            }
-            //one intersection point scenario
-            if (this.start().equals(other.end())) {
-                return this.start();
-            }
-            /*we'll return the end point if the start isn't the same as the others,
-            since we know there's 1 intersection, and it's not with the start point*/
-            return this.end();
-        }
-        double intersectionX = this.findIntersectionX(other);
-        double intersectionY = this.findIntersectionY(intersectionX);
-        //intersection point
-        return new Point(intersectionX, intersectionY);
+        return intersection.toPoint();
     }
 
     /**
@@ -234,16 +120,7 @@ public class Line {
      * @return the lines gradient
      */
     public double gradient() {
-        //y2 - y1
-        double yDiff = this.end().getY() - this.start().getY();
-        //x2 - x1
-        double xDiff = this.end().getX() - this.start().getX();
-        double noDiff = 0;
-        //line is vertical scenario, avoids dividing by zero
-        if (Operations.doubleThreshold(xDiff, noDiff)) {
-            return Double.POSITIVE_INFINITY;
-        }
-        return yDiff / xDiff;
+        return SegmentMath.gradient(start.getX(), start.getY(), end.getX(), end.getY());
     }
 
     /**
@@ -252,18 +129,7 @@ public class Line {
      * @return b (y-axis interception) or -x if the line is vertical
      */
     private double axisInterception() {
-        double y = this.start().getY(), x = this.start().getX(), m = this.gradient();
-        double opposite = -this.start().getX();
-        /*
-         * vertical line scenario,
-         * in this scenario we'd like to return the opposite number to x,
-         * to later make our line equation calculations correct
-         */
-        if (Operations.doubleThreshold(this.start().getX(), this.end().getX())) {
-            return opposite;
-        }
-        //y = mx + b -> b = y - mx
-        return y - m * x;
+        return SegmentMath.axisInterception(start.getX(), start.getY(), end.getX(), end.getY());
     }
 
     /**
@@ -276,51 +142,7 @@ public class Line {
      * @return true if the point is on the line, false otherwise
      */
     public boolean isOnLine(Point p, int scenario) {
-        int regular = 1, vertical = 2, horizontal = 3, contained = 4;
-        //minimal x, y values of the line
-        double xStart = Math.min(this.start().getX(), this.end().getX());
-        double yStart = Math.min(this.start().getY(), this.end().getY());
-        //maximal x, y values of the line
-        double xEnd = Math.max(this.start().getX(), this.end().getX());
-        double yEnd = Math.max(this.start().getY(), this.end().getY());
-        //the coordinates of the point
-        double x = p.getX(), y = p.getY();
-        boolean xInRange = (Operations.doubleCompareThreshold(x, xStart))
-                && (Operations.doubleCompareThreshold(xEnd, x));
-        boolean yInRange = (Operations.doubleCompareThreshold(y, yStart))
-                && (Operations.doubleCompareThreshold(yEnd, y));
-
-        if (scenario == regular) {
-            //checks if the points x and y are in the lines range, and can be also be equal to the lines start/end point
-            return (xInRange) && (yInRange);
-        }
-        if (scenario == vertical) {
-            //checks if the points y coordinates are in the lines range
-            return (yInRange) && (Operations.doubleThreshold(x, xStart));
-        }
-        if (scenario == horizontal) {
-            //checks if the points x coordinates are in the lines range
-            return (xInRange) && (Operations.doubleThreshold(y, yStart));
-        }
-        if (scenario == contained) {
-            //checks if the points x and y are in the lines range
-            return ((x > xStart) && (x < xEnd)) && ((y > yStart) && (y < yEnd));
-        }
-        //scenario doesn't match one of the above, never happens
-        return false;
-    }
-
-    /**
-     * if one of the start or end points is on the other line we'll return true.
-     *
-     * @param other    the second line
-     * @param scenario determines which type of line we're dealing with
-     * @return true if one of the line's start or end points is on the second line, but not equal to one of them,
-     * and false otherwise
-     */
-    private boolean isContainedExists(Line other, int scenario) {
-        return this.isOnLine(other.start(), scenario) || this.isOnLine(other.end(), scenario)
-                || other.isOnLine(this.start(), scenario) || other.isOnLine(this.end(), scenario);
+        return SegmentMath.isOnLine(start.getX(), start.getY(), end.getX(), end.getY(), p.getX(), p.getY(), scenario);
     }
 
     /**
@@ -0,0 +1,42 @@
+package Arkanoid.Geometry;
+
+/**
+ * a reusable (x , y) coordinates holder. the geometry methods that work on coordinates write their resulting
+ * points into it instead of creating a new Point object for every result.
+ */
+public class MutablePoint {
+    private double x;
+    private double y;
+
+    /**
+     * sets the point's coordinates.
+     *
+     * @param newX new x axis coordinates
+     * @param newY new y axis coordinates
+     */
+    public void set(double newX, double newY) {
+        this.x = newX;
+        this.y = newY;
+    }
+
+    /**
+     * @return x axis coordinates
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return y axis coordinates
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return a new Point with the same coordinates
+     */
+    public Point toPoint() {
+        return new Point(x, y);
+    }
+}
@@ -1,7 +1,6 @@
 package Arkanoid.Geometry;
 
-import java.util.Random;
-
+import Arkanoid.Utils.GameRandom;
 import Arkanoid.Utils.Operations;
 
 /**
@@ -70,7 +69,18 @@ public class Point {
      * @return random point in the range
      */
     public static Point createRandPoint(Rectangle rec, int r) {
-        Random rand = new Random();
+        return createRandPoint(rec, r, new GameRandom());
+    }
+
+    /**
+     * creates a random point in a given rectangle, from a given random numbers generator.
+     *
+     * @param rec  the rectangle
+     * @param r    radius
+     * @param rand the random numbers generator
+     * @return random point in the range
+     */
+    public static Point createRandPoint(Rectangle rec, int r, GameRandom rand) {
         //we add the radius to avoid having balls which a part of them is out of bounds
         int x = rand.nextInt((int) rec.getHighXBound()) + (r + (int) rec.getLowXBound());
         int y = rand.nextInt((int) rec.getHighYBound()) + (r + (int) rec.getLowYBound());
@@ -11,6 +11,7 @@ public class Rectangle {
     private final Point upperLeft;
     private final double width;
     private final double height;
+    private static final int EDGES = 4;
 
     /**
      * class constructor.
@@ -97,7 +98,7 @@ public class Rectangle {
      * @return maximal x value inside the rectangle
      */
     public double getHighXBound() {
-        return getLowerRight().getX();
+        return upperLeft.getX() + width;
     }
 
     /**
@@ -106,7 +107,7 @@ public class Rectangle {
      * @return minimal y value inside the rectangle
      */
     public double getLowYBound() {
-        return getUpperRight().getY();
+        return upperLeft.getY();
     }
 
     /**
@@ -115,7 +116,7 @@ public class Rectangle {
      * @return maximal y value inside the rectangle
      */
     public double getHighYBound() {
-        return getLowerLeft().getY();
+        return upperLeft.getY() + height;
     }
 
     /**
@@ -131,6 +132,54 @@ public class Rectangle {
         return new Line[]{rightVert, leftVert, upperVert, lowerVert};
     }
 
+    /**
+     * checks if a point is on the rectangle's left edge, like vertices()[1].isOnLine(p, vertical).
+     *
+     * @param x point's x coordinates
+     * @param y point's y coordinates
+     * @return true if the point is on the left edge, false otherwise
+     */
+    public boolean isOnLeftEdge(double x, double y) {
+        double left = upperLeft.getX(), top = upperLeft.getY();
+        return SegmentMath.isOnLine(left, top, left, top + height, x, y, SegmentMath.VERTICAL);
+    }
+
+    /**
+     * checks if a point is on the rectangle's right edge, like vertices()[0].isOnLine(p, vertical).
+     *
+     * @param x point's x coordinates
+     * @param y point's y coordinates
+     * @return true if the point is on the right edge, false otherwise
+     */
+    public boolean isOnRightEdge(double x, double y) {
+        double right = upperLeft.getX() + width, top = upperLeft.getY();
+        return SegmentMath.isOnLine(right, top, right, top + height, x, y, SegmentMath.VERTICAL);
+    }
+
+    /**
+     * checks if a point is on the rectangle's upper edge, like vertices()[2].isOnLine(p, horizontal).
+     *
+     * @param x point's x coordinates
+     * @param y point's y coordinates
+     * @return true if the point is on the upper edge, false otherwise
+     */
+    public boolean isOnUpperEdge(double x, double y) {
+        double left = upperLeft.getX(), top = upperLeft.getY();
+        return SegmentMath.isOnLine(left, top, left + width, top, x, y, SegmentMath.HORIZONTAL);
+    }
+
+    /**
+     * checks if a point is on the rectangle's lower edge, like vertices()[3].isOnLine(p, horizontal).
+     *
+     * @param x point's x coordinates
+     * @param y point's y coordinates
+     * @return true if the point is on the lower edge, false otherwise
+     */
+    public boolean isOnLowerEdge(double x, double y) {
+        double left = upperLeft.getX(), bottom = upperLeft.getY() + height;
+        return SegmentMath.isOnLine(left, bottom, left + width, bottom, x, y, SegmentMath.HORIZONTAL);
+    }
+
     /**
      * checks if a ball is partially inside the rectangle.
      *
@@ -170,4 +219,67 @@ public class Rectangle {
         }
         return intersections;
     }
+
+    /**
+     * finds the intersection point of the rectangle and a given segment which is the closest to the segment's start,
+     * like Line.closestIntersectionToStartOfLine, without creating any objects.
+     *
+     * @param x1  segment's start x coordinates
+     * @param y1  segment's start y coordinates
+     * @param x2  segment's end x coordinates
+     * @param y2  segment's end y coordinates
+     * @param out receives the closest intersection point if there is one
+     * @return true if there's an intersection, false if there are no intersections/infinite intersections
+     */
+    public boolean closestIntersection(double x1, double y1, double x2, double y2, MutablePoint out) {
+        double left = upperLeft.getX(), top = upperLeft.getY();
+        return closestIntersection(left, top, left + width, top + height, x1, y1, x2, y2, out);
+    }
+
+    /**
+     * finds the intersection point of a rectangle given by its bounds and a given segment which is the closest to
+     * the segment's start, like the closestIntersection of a rectangle object with the same bounds.
+     *
+     * @param left   rectangle's lowest x coordinates
+     * @param top    rectangle's lowest y coordinates
+     * @param right  rectangle's highest x coordinates
+     * @param bottom rectangle's highest y coordinates
+     * @param x1     segment's start x coordinates
+     * @param y1     segment's start y coordinates
+     * @param x2     segment's end x coordinates
+     * @param y2     segment's end y coordinates
+     * @param out    receives the closest intersection point if there is one
+     * @return true if there's an intersection, false if there are no intersections/infinite intersections
+     */
+    public static boolean closestIntersection(double left, double top, double right, double bottom,
+                                              double x1, double y1, double x2, double y2, MutablePoint out) {
+        double closestX = 0, closestY = 0, closestDistance = 0, distance;
+        boolean found = false;
+        //the edges are checked in the same order as vertices(): right, left, upper, lower
+        for (int i = 0; i < EDGES; i++) {
+            boolean intersects;
+            if (i == 0) {
+                intersects = SegmentMath.intersection(x1, y1, x2, y2, right, top, right, bottom, out);
+            } else if (i == 1) {
+                intersects = SegmentMath.intersection(x1, y1, x2, y2, left, top, left, bottom, out);
+            } else if (i == 2) {
+                intersects = SegmentMath.intersection(x1, y1, x2, y2, left, top, right, top, out);
+            } else {
+                intersects = SegmentMath.intersection(x1, y1, x2, y2, left, bottom, right, bottom, out);
+            }
+            if (!intersects) {
+                continue;
+            }
+            distance = SegmentMath.distance(x1, y1, out.getX(), out.getY());
+            //first intersection point or a closer intersection point scenario
+            if (!found || distance < closestDistance) {
+                closestX = out.getX();
+                closestY = out.getY();
+                closestDistance = distance;
+                found = true;
+            }
+        }
+        out.set(closestX, closestY);
+        return found;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package Arkanoid.Geometry;
+
+/**
+ * the scalar SlabBatch, one SlabRay.reach call per box.
+ */
+final class ScalarSlabBatch implements SlabBatch {
+    @Override
+    public int reachAll(SlabRay ray, BoxColumns boxes, int[] out) {
+        double[] left = boxes.left(), top = boxes.top(), right = boxes.right(), bottom = boxes.bottom();
+        int count = 0;
+        for (int i = 0; i < boxes.size(); i++) {
+            if (ray.reach(left[i], top[i], right[i], bottom[i]) != SlabRay.NO_HIT) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
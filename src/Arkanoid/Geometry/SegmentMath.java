@@ -0,0 +1,271 @@
+package Arkanoid.Geometry;
+
+import Arkanoid.Utils.Operations;
+
+/**
+ * the line intersection methods, working directly on (x , y) coordinates instead of Point and Line objects.
+ * they don't create any objects, which makes them fit to run for every ball on every frame, and the Line methods
+ * call them with the line's own coordinates, so there is a single implementation and both return the same results.
+ * a segment is always passed as 4 coordinates: its start point (x1 , y1) and its end point (x2 , y2).
+ */
+public final class SegmentMath {
+    //isOnLine scenarios, the same ones Line.isOnLine gets
+    static final int REGULAR = 1, VERTICAL = 2, HORIZONTAL = 3, CONTAINED = 4;
+
+    private SegmentMath() {
+    }
+
+    /**
+     * calculates the distance between 2 points, the same way Point.distance does.
+     *
+     * @param x1 first point x coordinates
+     * @param y1 first point y coordinates
+     * @param x2 second point x coordinates
+     * @param y2 second point y coordinates
+     * @return distance between the 2 points
+     */
+    public static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt((x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2));
+    }
+
+    /**
+     * finds the intersection point of two segments, like Line.intersectionWith.
+     *
+     * @param ax1 first segment's start x coordinates
+     * @param ay1 first segment's start y coordinates
+     * @param ax2 first segment's end x coordinates
+     * @param ay2 first segment's end y coordinates
+     * @param bx1 second segment's start x coordinates
+     * @param by1 second segment's start y coordinates
+     * @param bx2 second segment's end x coordinates
+     * @param by2 second segment's end y coordinates
+     * @param out receives the intersection point if there is one
+     * @return true if there is exactly one intersection point, false if there are infinite/zero intersection points
+     */
+    public static boolean intersection(double ax1, double ay1, double ax2, double ay2,
+                                       double bx1, double by1, double bx2, double by2, MutablePoint out) {
+        double hor = 0;
+        //parallel lines scenario
+        if (!isIntersecting(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2)) {
+            return false;
+        }
+        boolean aPoint = isPoint(ax1, ay1, ax2, ay2), bPoint = isPoint(bx1, by1, bx2, by2);
+        //two identical lines scenario
+        if ((pointsEqual(ax1, ay1, bx1, by1) && pointsEqual(ax2, ay2, bx2, by2))
+                || (pointsEqual(ax2, ay2, bx1, by1) && pointsEqual(ax1, ay1, bx2, by2))) {
+            //both line represent the same point in the axis system scenario
+            if (aPoint && bPoint) {
+                out.set(ax1, ay1);
+                return true;
+            }
+            return false;
+        }
+        //one line is represented as a point in the axis system and the point is on the second line scenario
+        if (aPoint) {
+            out.set(ax1, ay1);
+            return true;
+        }
+        if (bPoint) {
+            out.set(bx1, by1);
+            return true;
+        }
+        boolean aVertical = Operations.doubleThreshold(ax1, ax2), bVertical = Operations.doubleThreshold(bx1, bx2);
+        //one line is vertical scenario
+        if (aVertical || bVertical) {
+            //both lines are vertical scenario
+            if (aVertical && bVertical) {
+                //one of the lines is contained in the other scenario
+                if (isContainedExists(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2, VERTICAL)) {
+                    return false;
+                }
+                if (pointsEqual(ax1, ay1, bx1, by1) || pointsEqual(ax1, ay1, ax2, ay2)) {
+                    out.set(ax1, ay1);
+                } else {
+                    out.set(ax2, ay2);
+                }
+                return true;
+            }
+            //first line is vertical, second line is regular scenario
+            if (aVertical) {
+                out.set(ax1, gradient(bx1, by1, bx2, by2) * ax1 + axisInterception(bx1, by1, bx2, by2));
+            } else { //second line is vertical scenario
+                out.set(bx1, gradient(ax1, ay1, ax2, ay2) * bx1 + axisInterception(ax1, ay1, ax2, ay2));
+            }
+            return true;
+        }
+        double m1 = gradient(ax1, ay1, ax2, ay2), m2 = gradient(bx1, by1, bx2, by2);
+        double b1 = axisInterception(ax1, ay1, ax2, ay2), b2 = axisInterception(bx1, by1, bx2, by2);
+        //same line equation scenario
+        if ((Operations.doubleThreshold(m1, m2)) && (Operations.doubleThreshold(b1, b2))) {
+            //both lines are horizontal and one contains a part of the other scenario
+            if ((Operations.doubleThreshold(m1, hor)) && (Operations.doubleThreshold(m2, hor))
+                    && isContainedExists(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2, HORIZONTAL)) {
+                return false;
+            }
+            //infinite intersection points scenario
+            if (isContainedExists(ax1, ay1, ax2, ay2, bx1, by1, bx2, by2, CONTAINED)) {
+                return false;
+            }
+            //one intersection point scenario
+            if (pointsEqual(ax1, ay1, bx1, by1) || pointsEqual(ax1, ay1, bx2, by2)) {
+                out.set(ax1, ay1);
+            } else {
+                out.set(ax2, ay2);
+            }
+            return true;
+        }
+        double x = (b2 - b1) / (m1 - m2);
+        out.set(x, m1 * x + b1);
+        return true;
+    }
+
+    /**
+     * checks if two segments are intersecting, like Line.isIntersecting.
+     *
+     * @param ax1 first segment's start x coordinates
+     * @param ay1 first segment's start y coordinates
+     * @param ax2 first segment's end x coordinates
+     * @param ay2 first segment's end y coordinates
+     * @param bx1 second segment's start x coordinates
+     * @param by1 second segment's start y coordinates
+     * @param bx2 second segment's end x coordinates
+     * @param by2 second segment's end y coordinates
+     * @return true if one segment is contained in the other, or if the intersection point is on both segments
+     */
+    public static boolean isIntersecting(double ax1, double ay1, double ax2, double ay2,
+                                         double bx1, double by1, double bx2, double by2) {
+        double m1 = gradient(ax1, ay1, ax2, ay2), b1 = axisInterception(ax1, ay1, ax2, ay2);
+        double m2 = gradient(bx1, by1, bx2, by2), b2 = axisInterception(bx1, by1, bx2, by2);
+        double hor = 0, x, y;
+        //two horizontal lines scenario
+        if ((Operations.doubleThreshold(m1, hor)) && (Operations.doubleThreshold(m2, hor))) {
+            //same y scenario
+            if (Operations.doubleThreshold(ay1, by1)) {
+                return isOnLine(bx1, by1, bx2, by2, ax1, ay1, HORIZONTAL)
+                        || isOnLine(bx1, by1, bx2, by2, ax2, ay2, HORIZONTAL);
+            }
+            return false;
+        }
+        boolean aVertical = Operations.doubleThreshold(ax1, ax2), bVertical = Operations.doubleThreshold(bx1, bx2);
+        //one or more vertical lines scenario
+        if (aVertical || bVertical) {
+            //two vertical lines scenario
+            if (aVertical && bVertical) {
+                if (Operations.doubleThreshold(ax1, bx1)) {
+                    return isOnLine(bx1, by1, bx2, by2, ax1, ay1, VERTICAL)
+                            || isOnLine(bx1, by1, bx2, by2, ax2, ay2, VERTICAL);
+                }
+                return false;
+            }
+            //first line is vertical scenario
+            if (aVertical) {
+                x = ax1;
+                y = m2 * x + b2;
+                return isOnLine(ax1, ay1, ax2, ay2, x, y, VERTICAL) && isOnLine(bx1, by1, bx2, by2, x, y, REGULAR);
+            } else { // other line is vertical scenario
+                x = bx1;
+                y = m1 * x + b1;
+                return isOnLine(ax1, ay1, ax2, ay2, x, y, REGULAR) && isOnLine(bx1, by1, bx2, by2, x, y, VERTICAL);
+            }
+        }
+        //infinite intersection points scenario
+        if ((Operations.doubleThreshold(m1, m2)) && (Operations.doubleThreshold(b1, b2))) {
+            return true;
+        } else if (Operations.doubleThreshold(m1, m2)) { //parallel lines scenario
+            return false;
+        }
+        x = (b2 - b1) / (m1 - m2);
+        y = m1 * x + b1;
+        return isOnLine(ax1, ay1, ax2, ay2, x, y, REGULAR) && isOnLine(bx1, by1, bx2, by2, x, y, REGULAR);
+    }
+
+    /**
+     * checks if a point is on a segment based on the scenario.
+     *
+     * @param x1       segment's start x coordinates
+     * @param y1       segment's start y coordinates
+     * @param x2       segment's end x coordinates
+     * @param y2       segment's end y coordinates
+     * @param x        point's x coordinates
+     * @param y        point's y coordinates
+     * @param scenario determines which type of line we're dealing with
+     * @return true if the point is on the segment, false otherwise
+     */
+    static boolean isOnLine(double x1, double y1, double x2, double y2, double x, double y, int scenario) {
+        //minimal and maximal x, y values of the line
+        double xStart = Math.min(x1, x2), yStart = Math.min(y1, y2);
+        double xEnd = Math.max(x1, x2), yEnd = Math.max(y1, y2);
+        boolean xInRange = (Operations.doubleCompareThreshold(x, xStart))
+                && (Operations.doubleCompareThreshold(xEnd, x));
+        boolean yInRange = (Operations.doubleCompareThreshold(y, yStart))
+                && (Operations.doubleCompareThreshold(yEnd, y));
+        if (scenario == REGULAR) {
+            return (xInRange) && (yInRange);
+        }
+        if (scenario == VERTICAL) {
+            return (yInRange) && (Operations.doubleThreshold(x, xStart));
+        }
+        if (scenario == HORIZONTAL) {
+            return (xInRange) && (Operations.doubleThreshold(y, yStart));
+        }
+        if (scenario == CONTAINED) {
+            return ((x > xStart) && (x < xEnd)) && ((y > yStart) && (y < yEnd));
+        }
+        //scenario doesn't match one of the above, never happens
+        return false;
+    }
+
+    private static boolean isContainedExists(double ax1, double ay1, double ax2, double ay2,
+                                             double bx1, double by1, double bx2, double by2, int scenario) {
+        return isOnLine(ax1, ay1, ax2, ay2, bx1, by1, scenario) || isOnLine(ax1, ay1, ax2, ay2, bx2, by2, scenario)
+                || isOnLine(bx1, by1, bx2, by2, ax1, ay1, scenario) || isOnLine(bx1, by1, bx2, by2, ax2, ay2, scenario);
+    }
+
+    /**
+     * calculates the gradient of a segment using the formula: m = (y2 - y1) / (x2 - x1).
+     *
+     * @param x1 segment's start x coordinates
+     * @param y1 segment's start y coordinates
+     * @param x2 segment's end x coordinates
+     * @param y2 segment's end y coordinates
+     * @return the segment's gradient, or positive infinity if it's vertical
+     */
+    static double gradient(double x1, double y1, double x2, double y2) {
+        double yDiff = y2 - y1, xDiff = x2 - x1, noDiff = 0;
+        //line is vertical scenario, avoids dividing by zero
+        if (Operations.doubleThreshold(xDiff, noDiff)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return yDiff / xDiff;
+    }
+
+    /**
+     * calculates b in the straight line equation y = mx + b.
+     *
+     * @param x1 segment's start x coordinates
+     * @param y1 segment's start y coordinates
+     * @param x2 segment's end x coordinates
+     * @param y2 segment's end y coordinates
+     * @return b (y-axis interception) or -x if the segment is vertical
+     */
+    static double axisInterception(double x1, double y1, double x2, double y2) {
+        /*
+         * vertical line scenario,
+         * in this scenario we'd like to return the opposite number to x,
+         * to later make our line equation calculations correct
+         */
+        if (Operations.doubleThreshold(x1, x2)) {
+            return -x1;
+        }
+        return y1 - gradient(x1, y1, x2, y2) * x1;
+    }
+
+    private static boolean isPoint(double x1, double y1, double x2, double y2) {
+        int pointLength = 0;
+        return Operations.doubleThreshold(distance(x1, y1, x2, y2), pointLength) || pointsEqual(x1, y1, x2, y2);
+    }
+
+    private static boolean pointsEqual(double x1, double y1, double x2, double y2) {
+        return Operations.doubleThreshold(x1, x2) && Operations.doubleThreshold(y1, y2);
+    }
+}
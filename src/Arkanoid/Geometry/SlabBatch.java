@@ -0,0 +1,47 @@
+package Arkanoid.Geometry;
+
+/**
+ * runs SlabRay.reach for one segment against all the boxes of a BoxColumns.
+ * there are two implementations: a scalar loop, and one that tests several boxes per instruction with the Vector API
+ * (jdk.incubator.vector). the vector one is in the separate vector/ source root, since it only compiles and runs
+ * with the incubator module added (--add-modules jdk.incubator.vector). it's looked up by reflection, so the rest of
+ * the code compiles and runs without it, and create falls back to the scalar loop when it's missing.
+ * both return exactly the same boxes, in the same order.
+ */
+public interface SlabBatch {
+    /**
+     * finds the boxes the segment reaches, like SlabRay.reach.
+     *
+     * @param ray   the segment
+     * @param boxes the boxes
+     * @param out   receives the indexes of the boxes the segment reaches, in increasing order, must have room for
+     *              all the boxes
+     * @return the number of boxes the segment reaches
+     */
+    int reachAll(SlabRay ray, BoxColumns boxes, int[] out);
+
+    /**
+     * @return a short description of the implementation
+     */
+    String getName();
+
+    /**
+     * @return the vector implementation if the Vector API is available, the scalar one otherwise
+     */
+    static SlabBatch create() {
+        try {
+            Class<?> vector = Class.forName("Arkanoid.Geometry.VectorSlabBatch");
+            return (SlabBatch) vector.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            //the vector source root wasn't compiled, or the incubator module wasn't added scenario
+            return scalar();
+        }
+    }
+
+    /**
+     * @return the scalar implementation
+     */
+    static SlabBatch scalar() {
+        return new ScalarSlabBatch();
+    }
+}
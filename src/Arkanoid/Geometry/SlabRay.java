@@ -0,0 +1,220 @@
+package Arkanoid.Geometry;
+
+/**
+ * a segment prepared for slab tests against many axis aligned rectangles.
+ * a rectangle is the overlap of two slabs, the band between its left and right sides and the band between its
+ * upper and lower sides. the segment enters the rectangle when it is inside both slabs, and leaves it when it leaves
+ * one of them, so the whole test is a few multiplications and comparisons of the segment's parameter t (0 at its
+ * start, 1 at its end), without the gradients, axis interceptions and vertical/horizontal special cases of
+ * SegmentMath.intersection, and without a square root per candidate point.
+ * the segment's direction and its inverse are computed once in set, and reused for every rectangle it is tested
+ * against.
+ */
+public final class SlabRay {
+    /**
+     * the parameter returned when the segment doesn't hit the rectangle.
+     */
+    public static final double NO_HIT = -1;
+    /**
+     * the rectangle's edges, in the same order as Rectangle.vertices().
+     */
+    public static final int NO_EDGE = -1, RIGHT = 0, LEFT = 1, UPPER = 2, LOWER = 3;
+    private double x1, y1, dx, dy, invDx, invDy, length;
+    private int edge = NO_EDGE;
+
+    /**
+     * prepares the segment from (x1 , y1) to (x2 , y2).
+     *
+     * @param startX segment's start x coordinates
+     * @param startY segment's start y coordinates
+     * @param endX   segment's end x coordinates
+     * @param endY   segment's end y coordinates
+     */
+    public void set(double startX, double startY, double endX, double endY) {
+        this.x1 = startX;
+        this.y1 = startY;
+        this.dx = endX - startX;
+        this.dy = endY - startY;
+        //infinite when the segment doesn't move along an axis, enter and reach check that axis separately
+        this.invDx = 1 / dx;
+        this.invDy = 1 / dy;
+        this.length = SegmentMath.distance(startX, startY, endX, endY);
+    }
+
+    /**
+     * finds where the segment first crosses the rectangle's boundary, like Rectangle.closestIntersection:
+     * the point where it enters the rectangle, or the point where it leaves it if it starts inside.
+     * touching a side or a corner counts as a hit. on a corner the left or right edge is reported, like the first
+     * of the two edges in Rectangle.vertices().
+     *
+     * @param left   rectangle's lowest x coordinates
+     * @param top    rectangle's lowest y coordinates
+     * @param right  rectangle's highest x coordinates
+     * @param bottom rectangle's highest y coordinates
+     * @return the segment's parameter at the crossing point, or NO_HIT if the segment doesn't cross the boundary
+     */
+    public double enter(double left, double top, double right, double bottom) {
+        double nearX, farX, nearY, farY;
+        //no horizontal movement scenario, the segment has to be within the x slab the whole time
+        if (dx == 0) {
+            if (x1 < left || x1 > right) {
+                return miss();
+            }
+            nearX = Double.NEGATIVE_INFINITY;
+            farX = Double.POSITIVE_INFINITY;
+        } else {
+            nearX = ((dx > 0 ? left : right) - x1) * invDx;
+            farX = ((dx > 0 ? right : left) - x1) * invDx;
+        }
+        //no vertical movement scenario
+        if (dy == 0) {
+            if (y1 < top || y1 > bottom) {
+                return miss();
+            }
+            nearY = Double.NEGATIVE_INFINITY;
+            farY = Double.POSITIVE_INFINITY;
+        } else {
+            nearY = ((dy > 0 ? top : bottom) - y1) * invDy;
+            farY = ((dy > 0 ? bottom : top) - y1) * invDy;
+        }
+        boolean enterX = nearX >= nearY, exitX = farX <= farY;
+        double near = enterX ? nearX : nearY, far = exitX ? farX : farY;
+        //the segment's line misses the rectangle, or the rectangle is behind the segment's start scenario
+        if (near > far || far < 0) {
+            return miss();
+        }
+        //the segment starts outside of the rectangle scenario
+        if (near >= 0) {
+            if (near > 1) {
+                return miss();
+            }
+            edge = enterX ? (dx > 0 ? LEFT : RIGHT) : (dy > 0 ? UPPER : LOWER);
+            return near;
+        }
+        //the segment is a single point inside the rectangle scenario, it only hits it if it's on its boundary
+        if (far == Double.POSITIVE_INFINITY) {
+            return pointOnBoundary(left, top, right, bottom);
+        }
+        //the segment starts inside the rectangle, its first crossing is where it leaves it
+        if (far > 1) {
+            return miss();
+        }
+        edge = exitX ? (dx > 0 ? RIGHT : LEFT) : (dy > 0 ? LOWER : UPPER);
+        return far;
+    }
+
+    /**
+     * finds when the segment first reaches the rectangle, counting its inside too: 0 if the segment starts
+     * inside the rectangle or on its boundary, otherwise the parameter at which it enters it.
+     * this is a quick way to skip rectangles: a segment that doesn't reach a rectangle can't cross its boundary.
+     *
+     * @param left   rectangle's lowest x coordinates
+     * @param top    rectangle's lowest y coordinates
+     * @param right  rectangle's highest x coordinates
+     * @param bottom rectangle's highest y coordinates
+     * @return the segment's parameter when it reaches the rectangle, or NO_HIT if it doesn't
+     */
+    public double reach(double left, double top, double right, double bottom) {
+        double nearX, farX, nearY, farY;
+        if (dx == 0) {
+            if (x1 < left || x1 > right) {
+                return NO_HIT;
+            }
+            nearX = Double.NEGATIVE_INFINITY;
+            farX = Double.POSITIVE_INFINITY;
+        } else {
+            nearX = ((dx > 0 ? left : right) - x1) * invDx;
+            farX = ((dx > 0 ? right : left) - x1) * invDx;
+        }
+        if (dy == 0) {
+            if (y1 < top || y1 > bottom) {
+                return NO_HIT;
+            }
+            nearY = Double.NEGATIVE_INFINITY;
+            farY = Double.POSITIVE_INFINITY;
+        } else {
+            nearY = ((dy > 0 ? top : bottom) - y1) * invDy;
+            farY = ((dy > 0 ? bottom : top) - y1) * invDy;
+        }
+        double near = Math.max(nearX, nearY), far = Math.min(farX, farY);
+        if (near > far || far < 0 || near > 1) {
+            return NO_HIT;
+        }
+        return Math.max(near, 0);
+    }
+
+    /**
+     * @return the edge the last successful enter call crossed, or NO_EDGE if it missed
+     */
+    public int getEdge() {
+        return edge;
+    }
+
+    /**
+     * @param t segment's parameter
+     * @return x coordinates of the segment's point at the parameter
+     */
+    public double getX(double t) {
+        return x1 + t * dx;
+    }
+
+    /**
+     * @param t segment's parameter
+     * @return y coordinates of the segment's point at the parameter
+     */
+    public double getY(double t) {
+        return y1 + t * dy;
+    }
+
+    /**
+     * @return the segment's length, so a parameter times the length is the distance from the segment's start
+     */
+    public double getLength() {
+        return length;
+    }
+
+    //the segment's coefficients, for the batch slab tests
+    double startX() {
+        return x1;
+    }
+
+    double startY() {
+        return y1;
+    }
+
+    double directionX() {
+        return dx;
+    }
+
+    double directionY() {
+        return dy;
+    }
+
+    double inverseX() {
+        return invDx;
+    }
+
+    double inverseY() {
+        return invDy;
+    }
+
+    private double miss() {
+        edge = NO_EDGE;
+        return NO_HIT;
+    }
+
+    private double pointOnBoundary(double left, double top, double right, double bottom) {
+        if (x1 == right) {
+            edge = RIGHT;
+        } else if (x1 == left) {
+            edge = LEFT;
+        } else if (y1 == top) {
+            edge = UPPER;
+        } else if (y1 == bottom) {
+            edge = LOWER;
+        } else {
+            return miss();
+        }
+        return 0;
+    }
+}
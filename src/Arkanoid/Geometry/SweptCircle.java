@@ -0,0 +1,171 @@
+package Arkanoid.Geometry;
+
+/**
+ * time of impact between a moving circle and a rectangle. instead of following the circle's center and fixing its
+ * position afterwards, the circle's whole movement is checked: the circle touches the rectangle exactly when its
+ * center enters the rectangle grown by the radius on every side, with rounded corners (two boxes, one grown
+ * horizontally and one vertically, plus a circle of the same radius around every corner).
+ * so a fast circle can't pass through a thin rectangle, and a circle that hits a corner bounces off the corner.
+ */
+public final class SweptCircle {
+    /**
+     * returned by timeOfImpact when the circle doesn't hit the rectangle.
+     */
+    public static final double NO_IMPACT = -1;
+
+    private SweptCircle() {
+    }
+
+    /**
+     * finds when a circle moving from (cx , cy) by (dx , dy) first touches a rectangle. a circle that already
+     * overlaps the rectangle at the start of the movement is let out of it, so it never hits it.
+     *
+     * @param cx      circle's center x coordinates at the start of the movement
+     * @param cy      circle's center y coordinates at the start of the movement
+     * @param dx      movement along the x-axis
+     * @param dy      movement along the y-axis
+     * @param r       circle's radius
+     * @param left    rectangle's lowest x coordinates
+     * @param top     rectangle's lowest y coordinates
+     * @param right   rectangle's highest x coordinates
+     * @param bottom  rectangle's highest y coordinates
+     * @param normal  receives the unit normal of the touched side (or corner), pointing out of the rectangle
+     * @param contact receives the point on the rectangle the circle touches
+     * @return the part of the movement done when the circle touches the rectangle, between 0 and 1,
+     * or NO_IMPACT if it doesn't
+     */
+    public static double timeOfImpact(double cx, double cy, double dx, double dy, double r,
+                                      double left, double top, double right, double bottom,
+                                      MutablePoint normal, MutablePoint contact) {
+        //the circle doesn't move scenario
+        if (dx == 0 && dy == 0) {
+            return NO_IMPACT;
+        }
+        double best = NO_IMPACT;
+        //left and right sides, reached through the sides of the box grown horizontally
+        double t = boxImpact(cx, cy, dx, dy, left - r, top, right + r, bottom, true, normal);
+        if (t != NO_IMPACT) {
+            best = t;
+            contact.set(normal.getX() < 0 ? left : right, cy + t * dy);
+        }
+        //upper and lower sides, reached through the top and bottom of the box grown vertically
+        double nx = normal.getX(), ny = normal.getY();
+        t = boxImpact(cx, cy, dx, dy, left, top - r, right, bottom + r, false, normal);
+        //on equal times the side found first is kept
+        if (t != NO_IMPACT && (best == NO_IMPACT || t < best)) {
+            best = t;
+            contact.set(cx + t * dx, normal.getY() < 0 ? top : bottom);
+        } else {
+            normal.set(nx, ny);
+        }
+        //a corner only wins if it's touched before all the sides
+        best = closerCorner(best, cx, cy, dx, dy, r, left, top, normal, contact);
+        best = closerCorner(best, cx, cy, dx, dy, r, right, top, normal, contact);
+        best = closerCorner(best, cx, cy, dx, dy, r, left, bottom, normal, contact);
+        return closerCorner(best, cx, cy, dx, dy, r, right, bottom, normal, contact);
+    }
+
+    private static double closerCorner(double best, double cx, double cy, double dx, double dy, double r,
+                                       double kx, double ky, MutablePoint normal, MutablePoint contact) {
+        double t = cornerImpact(cx, cy, dx, dy, r, kx, ky);
+        if (t == NO_IMPACT || (best != NO_IMPACT && t >= best)) {
+            return best;
+        }
+        normal.set((cx + t * dx - kx) / r, (cy + t * dy - ky) / r);
+        contact.set(kx, ky);
+        return t;
+    }
+
+    /**
+     * slab test of a point moving from (cx , cy) by (dx , dy) against a box.
+     *
+     * @param cx     point's x coordinates at the start of the movement
+     * @param cy     point's y coordinates at the start of the movement
+     * @param dx     movement along the x-axis
+     * @param dy     movement along the y-axis
+     * @param left   box's lowest x coordinates
+     * @param top    box's lowest y coordinates
+     * @param right  box's highest x coordinates
+     * @param bottom box's highest y coordinates
+     * @param xSides true to only count entering the box through its left or right side, false to only count
+     *               entering it through its upper or lower side
+     * @param normal receives the normal of the side the point enters through, if it enters the box
+     * @return the part of the movement done when the point enters the box, or NO_IMPACT if it doesn't
+     * (or if it starts inside the box, or enters it through the other sides)
+     */
+    private static double boxImpact(double cx, double cy, double dx, double dy, double left, double top,
+                                    double right, double bottom, boolean xSides, MutablePoint normal) {
+        double enterX, exitX, enterY, exitY;
+        //no horizontal movement scenario, the point has to be within the box's x range the whole time
+        if (dx == 0) {
+            if (cx < left || cx > right) {
+                return NO_IMPACT;
+            }
+            enterX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (left - cx) / dx, t2 = (right - cx) / dx;
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+        //no vertical movement scenario
+        if (dy == 0) {
+            if (cy < top || cy > bottom) {
+                return NO_IMPACT;
+            }
+            enterY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (top - cy) / dy, t2 = (bottom - cy) / dy;
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+        double enter = Math.max(enterX, enterY), exit = Math.min(exitX, exitY);
+        //the point misses the box, starts inside it, or doesn't reach it during the movement scenario
+        if (enter > exit || enter < 0 || enter > 1) {
+            return NO_IMPACT;
+        }
+        if (xSides) {
+            //entering through the upper or lower side scenario
+            if (enterX < enterY) {
+                return NO_IMPACT;
+            }
+            normal.set(dx > 0 ? -1 : 1, 0);
+        } else {
+            //entering through the left or right side scenario
+            if (enterY < enterX) {
+                return NO_IMPACT;
+            }
+            normal.set(0, dy > 0 ? -1 : 1);
+        }
+        return enter;
+    }
+
+    /**
+     * finds when a circle moving from (cx , cy) by (dx , dy) first touches a corner point.
+     *
+     * @param cx circle's center x coordinates at the start of the movement
+     * @param cy circle's center y coordinates at the start of the movement
+     * @param dx movement along the x-axis
+     * @param dy movement along the y-axis
+     * @param r  circle's radius
+     * @param kx corner's x coordinates
+     * @param ky corner's y coordinates
+     * @return the part of the movement done when the circle touches the corner, or NO_IMPACT if it doesn't
+     * (or if the corner is already inside the circle)
+     */
+    private static double cornerImpact(double cx, double cy, double dx, double dy, double r, double kx, double ky) {
+        double mx = cx - kx, my = cy - ky;
+        double a = dx * dx + dy * dy, b = mx * dx + my * dy, c = mx * mx + my * my - r * r;
+        //corner is inside the circle, or the circle moves away from it scenario
+        if (c < 0 || b >= 0) {
+            return NO_IMPACT;
+        }
+        double discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return NO_IMPACT;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        return t <= 1 ? Math.max(0, t) : NO_IMPACT;
+    }
+}
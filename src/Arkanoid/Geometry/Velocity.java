@@ -1,6 +1,6 @@
 package Arkanoid.Geometry;
 
-import java.util.Random;
+import Arkanoid.Utils.GameRandom;
 
 /**
  * represents the change in x,y position of an object.
@@ -40,7 +40,14 @@ public class Velocity {
      * @return random velocity
      */
     public static Velocity createRandomVelocity() {
-        Random rand = new Random();
+        return createRandomVelocity(new GameRandom());
+    }
+
+    /**
+     * @param rand the random numbers generator
+     * @return random velocity
+     */
+    public static Velocity createRandomVelocity(GameRandom rand) {
         int maxAngle = 360, speed = 5;
         int angle = rand.nextInt(maxAngle);
         return Velocity.fromAngleAndSpeed(angle, speed);
@@ -8,9 +8,13 @@ import Arkanoid.Geometry.Line;
 import Arkanoid.Geometry.Point;
 import Arkanoid.Geometry.Rectangle;
 import Arkanoid.Geometry.Velocity;
-import Arkanoid.Geometry.CollisionInfo;
+import Arkanoid.Geometry.HitRecord;
+import Arkanoid.Geometry.ImpactRecord;
+import Arkanoid.Geometry.MutablePoint;
 
+import Arkanoid.Utils.GameRandom;
 import Arkanoid.Utils.Operations;
+import Arkanoid.Utils.Palette;
 
 import biuoop.DrawSurface;
 
@@ -19,12 +23,40 @@ import java.awt.Color;
 /**
  * represents a ball with certain color and speed based on it's size.
  */
-public class Ball implements Sprite, HitListener {
-    private Point center;
+public class Ball implements ParallelSprite, HitListener {
+    static final Rectangle SCREEN = new Rectangle(new Point(0, 0), 800, 600);
+    //the most bounces a ball makes in a single step when it moves with swept collisions
+    private static final int MAX_BOUNCES = 4;
+    //distance a ball is pushed off a surface it touched, so rounding errors never leave it inside the surface
+    private static final double SKIN = 1e-7;
+    //the center and velocity are kept as plain coordinates so moving the ball doesn't create new objects
+    private double x;
+    private double y;
+    private double dx = 0;
+    private double dy = 0;
     private final int r;
-    private Color color;
-    private Velocity v = new Velocity(0, 0);
+    private Palette palette;
+    private int colorId;
     private final GameEnvironment environment;
+    private final HitRecord collision = new HitRecord();
+    //the game environment's modification count when the collision above was looked for
+    private long collisionVersion = -1;
+    //used instead of the collision above when the ball moves with swept collisions, null otherwise
+    private ImpactRecord impact = null;
+    //the collider the ball bounces off other balls with, null if balls pass through each other
+    private BallCollider collider = null;
+    //the ball's index in the collider's order, so it's found without a search when the ball is removed
+    private int colliderSlot = -1;
+    //the scheduler that moves the ball from impact to impact, null if the ball is stepped on every tick
+    private ImpactScheduler scheduler = null;
+    //the ball's entry in the scheduler above, so it's found without a search when the ball is removed
+    private ImpactScheduler.Track track = null;
+    //the scheduler's time the center above belongs to, the ball moved along its velocity since then
+    private double since = 0;
+    //set when the ball is removed from the game, so a step that removed it stops moving it
+    private boolean removed = false;
+    //the part of a tick at the base rate a step moves the ball, its velocity is measured in pixels per such tick
+    private double timeStep = 1;
 
     /**
      * class constructor.
@@ -35,19 +67,65 @@ public class Ball implements Sprite, HitListener {
      * @param environment ball's game environment
      */
     public Ball(Point center, int r, Color color, GameEnvironment environment) {
-        this.center = center;
+        this(center, r, Palette.shared(), Palette.shared().idOf(color), environment);
+    }
+
+    /**
+     * class constructor, creates a ball whose color is taken from a game's palette.
+     *
+     * @param center      ball's center
+     * @param r           ball's radius
+     * @param palette     the palette of the ball's color
+     * @param colorId     the id of the ball's color in the palette
+     * @param environment ball's game environment
+     */
+    public Ball(Point center, int r, Palette palette, int colorId, GameEnvironment environment) {
+        //an id that isn't in the palette fails here, not when the object is drawn
+        palette.getColor(colorId);
+        this.x = center.getX();
+        this.y = center.getY();
         this.r = r;
-        this.color = color;
+        this.palette = palette;
+        this.colorId = colorId;
         this.environment = environment;
     }
 
+    /**
+     * class constructor, creates a ball that already moves.
+     *
+     * @param center      ball's center
+     * @param r           ball's radius
+     * @param color       ball's color
+     * @param v           ball's velocity
+     * @param environment ball's game environment
+     */
+    public Ball(Point center, int r, Color color, Velocity v, GameEnvironment environment) {
+        this(center, r, color, environment);
+        setVelocity(v);
+    }
+
+    /**
+     * class constructor, creates a ball that already moves, with a color taken from a game's palette.
+     *
+     * @param center      ball's center
+     * @param r           ball's radius
+     * @param palette     the palette of the ball's color
+     * @param colorId     the id of the ball's color in the palette
+     * @param v           ball's velocity
+     * @param environment ball's game environment
+     */
+    public Ball(Point center, int r, Palette palette, int colorId, Velocity v, GameEnvironment environment) {
+        this(center, r, palette, colorId, environment);
+        setVelocity(v);
+    }
+
     /**
      * gets the center point's x coordinates.
      *
      * @return center point x coordinates
      */
     public double getX() {
-        return this.center.getX();
+        return scheduler == null ? this.x : this.x + dx * elapsed();
     }
 
     /**
@@ -56,7 +134,7 @@ public class Ball implements Sprite, HitListener {
      * @return center point y coordinates
      */
     public double getY() {
-        return this.center.getY();
+        return scheduler == null ? this.y : this.y + dy * elapsed();
     }
 
     /**
@@ -72,29 +150,41 @@ public class Ball implements Sprite, HitListener {
      * @return a copy of the ball's center point.
      */
     public Point getCenter() {
-        return new Point(center.getX(), center.getY());
+        return new Point(getX(), getY());
     }
 
     /**
-     * @return a copy of the ball's color.
+     * @return the ball's color, the palette's object of its color id.
      */
     public Color getColor() {
-        int r = color.getRed(), g = color.getGreen(), b = color.getBlue();
-        return new Color(r, g, b);
+        return palette.getColor(colorId);
+    }
+
+    /**
+     * @return the palette of the ball's color
+     */
+    public Palette getPalette() {
+        return palette;
+    }
+
+    /**
+     * @return the id of the ball's color in its palette
+     */
+    public int getColorId() {
+        return colorId;
     }
 
     /**
      * @return ball's current trajectory
      */
     public Line getTrajectory() {
-        double x = center.getX(), y = center.getY();
-        return new Line(getCenter(), new Point(x + v.getDx(), y + v.getDy()));
+        return new Line(getCenter(), new Point(getX() + dx * timeStep, getY() + dy * timeStep));
     }
 
     @Override
     public void drawOn(DrawSurface surface) {
-        surface.setColor(color);
-        surface.fillCircle((int) center.getX(), (int) center.getY(), r);
+        surface.setColor(getColor());
+        surface.fillCircle((int) getX(), (int) getY(), r);
     }
 
     /**
@@ -103,7 +193,45 @@ public class Ball implements Sprite, HitListener {
      * @param v new velocity
      */
     private void setVelocity(Velocity v) {
-        this.v = v;
+        this.dx = v.getDx();
+        this.dy = v.getDy();
+    }
+
+    /**
+     * @return velocity's x-axis component
+     */
+    double getDx() {
+        return this.dx;
+    }
+
+    /**
+     * @return velocity's y-axis component
+     */
+    double getDy() {
+        return this.dy;
+    }
+
+    /**
+     * makes the ball move with swept collisions: instead of following its center point and fixing its position
+     * after a collision, the whole ball is moved until the first time it touches an object, bounces off it, and
+     * keeps moving for the rest of the step, up to a few bounces per step. a fast ball can't pass through blocks
+     * that way, and a ball that touches a corner bounces off the corner instead of getting stuck.
+     *
+     * @param enabled true to move with swept collisions, false to move the ball's center (the default)
+     */
+    public void setSweptCollisions(boolean enabled) {
+        this.impact = enabled ? new ImpactRecord() : null;
+    }
+
+    /**
+     * sets how much of the ball's velocity a step moves it. the velocity is measured in pixels per tick at the base
+     * tick rate (60 ticks per second), so a game that plays more ticks per second moves its balls a smaller step
+     * on every tick, and they keep the same speed in pixels per second.
+     *
+     * @param step the part of a tick at the base rate a step takes, 1 by default
+     */
+    public void setTimeStep(double step) {
+        this.timeStep = step;
     }
 
     /**
@@ -112,7 +240,7 @@ public class Ball implements Sprite, HitListener {
      * @return ball's velocity
      */
     public Velocity getVelocity() {
-        return new Velocity(this.v.getDx(), this.v.getDy());
+        return new Velocity(this.dx, this.dy);
     }
 
     /**
@@ -154,9 +282,18 @@ public class Ball implements Sprite, HitListener {
 
     @Override
     public void timePassed() {
+        //the scheduler moves the ball scenario
+        if (scheduler != null) {
+            return;
+        }
         moveOneStep();
     }
 
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
     /**
      * adds the ball to the game's sprites collection.
      *
@@ -171,21 +308,133 @@ public class Ball implements Sprite, HitListener {
      * and alters its speed if it hits another object.
      */
     public void moveOneStep() {
-        //screen size
-        int width = 800, height = 600;
-        Point screenUpperLeft = new Point(0, 0);
-        Rectangle screen = new Rectangle(screenUpperLeft, width, height);
-        Velocity newV;
-        CollisionInfo collision = environment.getClosestCollision(getTrajectory());
-        //collision exists scenario
-        if (collision != null) {
-            center = adjustCollPoint(collision.collisionPoint(), collision.collisionObject());
+        //swept collisions scenario
+        if (impact != null) {
+            sweep(r, impact, false);
+            return;
+        }
+        findCollision();
+        applyStep();
+    }
+
+    @Override
+    public int stepParts() {
+        return scheduler == null ? 1 : 0;
+    }
+
+    @Override
+    public void prepareStepPart(int part) {
+        //swept collisions scenario, only the first contact can be looked for before the ball bounces
+        if (impact != null) {
+            collisionVersion = environment.getModificationCount();
+            environment.findFirstImpact(x, y, dx * timeStep, dy * timeStep, r, impact);
+            return;
+        }
+        findCollision();
+    }
+
+    @Override
+    public void finishStep() {
+        if (scheduler != null) {
+            return;
+        }
+        boolean changed = collisionVersion != environment.getModificationCount();
+        if (impact != null) {
+            sweep(r, impact, !changed);
+            return;
+        }
+        //a collidable was added or removed since the collision was looked for scenario
+        if (changed) {
+            findCollision();
+        }
+        applyStep();
+    }
+
+    /**
+     * moves the ball a step with swept collisions. the step is cut at every contact: the ball moves to the contact,
+     * the touched object changes its velocity (like a regular hit), and the rest of the step is moved with the new
+     * velocity. after MAX_BOUNCES contacts the rest of the step is dropped.
+     *
+     * @param radius   ball's radius
+     * @param record   record used by the contact queries
+     * @param prepared true if the record already holds the first contact of the step, false to look for it
+     * @return the number of contacts during the step
+     */
+    int sweep(int radius, ImpactRecord record, boolean prepared) {
+        double remaining = 1;
+        int bounces = 0;
+        while (bounces < MAX_BOUNCES) {
+            double stepX = dx * timeStep * remaining, stepY = dy * timeStep * remaining;
+            boolean hit = (bounces == 0 && prepared) ? record.isHit()
+                    : environment.findFirstImpact(x, y, stepX, stepY, radius, record);
+            //the rest of the step is free scenario
+            if (!hit) {
+                x += stepX;
+                y += stepY;
+                break;
+            }
+            double time = record.getTime(), nx = record.getNormalX(), ny = record.getNormalY();
+            x += stepX * time + nx * SKIN;
+            y += stepY * time + ny * SKIN;
+            remaining *= 1 - time;
+            bounces++;
+            bounce(record.collisionObject(), record.getX(), record.getY(), nx, ny);
+            //the touched object removed the ball from the game scenario
+            if (removed) {
+                break;
+            }
+        }
+        //the screen borders are collidables too, this only makes sure rounding errors don't let the ball out
+        x = fixPos(x, radius, SCREEN.getLowXBound(), SCREEN.getHighXBound());
+        y = fixPos(y, radius, SCREEN.getLowYBound(), SCREEN.getHighYBound());
+        return bounces;
+    }
+
+    /**
+     * lets an object the ball touched change the ball's velocity.
+     *
+     * @param obstacle the touched object
+     * @param contactX contact point x coordinates
+     * @param contactY contact point y coordinates
+     * @param nx       x-axis component of the touched side's normal
+     * @param ny       y-axis component of the touched side's normal
+     */
+    private void bounce(Collidable obstacle, double contactX, double contactY, double nx, double ny) {
+        setVelocity(obstacle.hit(this, new Point(contactX, contactY), new Velocity(dx, dy)));
+        double into = dx * nx + dy * ny;
+        //the new velocity still moves into the object scenario, the ball is reflected off the touched side
+        if (into < 0) {
+            dx -= 2 * into * nx;
+            dy -= 2 * into * ny;
+        }
+    }
+
+    /**
+     * looks for the collision of the ball's next step, without changing anything.
+     */
+    private void findCollision() {
+        collisionVersion = environment.getModificationCount();
+        environment.findClosestCollision(x, y, x + dx * timeStep, y + dy * timeStep, collision);
+    }
+
+    /**
+     * moves the ball based on the collision found by findCollision.
+     */
+    private void applyStep() {
+        //collision exists scenario, only then new objects are created
+        if (collision.isHit()) {
+            Collidable obstacle = collision.collisionObject();
+            double hitX = collision.getX(), hitY = collision.getY();
+            MutablePoint adjusted = collision.scratch();
+            adjustCollPoint(hitX, hitY, obstacle.getCollisionRectangle(), r, adjusted);
+            this.x = adjusted.getX();
+            this.y = adjusted.getY();
             //we change the ball's velocity based on the way it hit the obstacle
-            newV = collision.collisionObject().hit(this, collision.collisionPoint(), getVelocity());
-            setVelocity(newV);
+            setVelocity(obstacle.hit(this, new Point(hitX, hitY), new Velocity(dx, dy)));
         }
-        if (isInBounds(screen)) {
-            this.center = this.getVelocity().applyToPoint(this.center);
+        if (isInBounds(SCREEN)) {
+            this.x += dx * timeStep;
+            this.y += dy * timeStep;
         }
     }
 
@@ -199,10 +448,24 @@ public class Ball implements Sprite, HitListener {
      * @return true if there's no hit, false otherwise
      */
     public boolean isInBound(double lowBound, double highBound, double d, double coordinate) {
+        return isInBound(lowBound, highBound, d, coordinate, r);
+    }
+
+    /**
+     * checks if a ball with a given radius will hit one of the borders of a specific axis in its next move.
+     *
+     * @param lowBound   axis min range
+     * @param highBound  axis max range
+     * @param d          the change in position we'd like to apply on the next move
+     * @param coordinate the current position on the axis
+     * @param r          ball's radius
+     * @return true if there's no hit, false otherwise
+     */
+    static boolean isInBound(double lowBound, double highBound, double d, double coordinate, int r) {
         double newPos = coordinate + d;
-        return (Operations.doubleCompareThreshold(newPos, getSize()))
-                && (Operations.doubleCompareThreshold(highBound - getSize(), newPos))
-                && (Operations.doubleCompareThreshold(newPos, lowBound + getSize()));
+        return (Operations.doubleCompareThreshold(newPos, r))
+                && (Operations.doubleCompareThreshold(highBound - r, newPos))
+                && (Operations.doubleCompareThreshold(newPos, lowBound + r));
     }
 
     /**
@@ -212,58 +475,53 @@ public class Ball implements Sprite, HitListener {
      * @return true if there's no hit, false otherwise
      */
     public boolean isInBounds(Rectangle rec) {
-        double dx = this.v.getDx(), dy = this.v.getDy(), x = this.center.getX(), y = this.center.getY();
-        return isInBound(rec.getLowXBound(), rec.getHighXBound(), dx, x)
-                && isInBound(rec.getLowYBound(), rec.getHighYBound(), dy, y);
+        return isInBound(rec.getLowXBound(), rec.getHighXBound(), dx * timeStep, x)
+                && isInBound(rec.getLowYBound(), rec.getHighYBound(), dy * timeStep, y);
     }
 
     /**
-     * adjust the collision point according to the ball's radius.
+     * adjust the collision point according to the ball's radius, this is where the ball's center moves to.
      *
-     * @param collision collision point
-     * @param c         object the ball collides with
-     * @return adjusted collision point
-     */
-    private Point adjustCollPoint(Point collision, Collidable c) {
-        //vertices indexes
-        int rightVert = 0, leftVert = 1, upperVert = 2, lowerVert = 3;
-        //scenarios
-        int vertical = 2, horizontal = 3;
+     * @param hitX collision point x coordinates
+     * @param hitY collision point y coordinates
+     * @param rect collision rectangle of the object the ball collides with
+     * @param r    ball's radius
+     * @param out  receives the adjusted collision point
+     */
+    static void adjustCollPoint(double hitX, double hitY, Rectangle rect, int r, MutablePoint out) {
         //screen size
         int width = 800, height = 600;
-        double newX = collision.getX(), newY = collision.getY();
-        Line[] vertices = c.getCollisionRectangle().vertices();
+        double newX = hitX, newY = hitY;
         //ball hits one of the vertical edges scenario
-        if (vertices[leftVert].isOnLine(collision, vertical)) {
+        if (rect.isOnLeftEdge(hitX, hitY)) {
             newX -= r;
-        } else if (vertices[rightVert].isOnLine(collision, vertical)) {
+        } else if (rect.isOnRightEdge(hitX, hitY)) {
             newX += r;
         }
         //ball hits one of the horizontal edges scenario
-        if (vertices[upperVert].isOnLine(collision, horizontal)) {
+        if (rect.isOnUpperEdge(hitX, hitY)) {
             newY -= r;
-        } else if (vertices[lowerVert].isOnLine(collision, horizontal)) {
+        } else if (rect.isOnLowerEdge(hitX, hitY)) {
             newY += r;
         }
         //makes sure the ball stays within the screen bounds
-        newX = fixPos(newX, 0, width);
-        newY = fixPos(newY, 0, height);
-        return new Point(newX, newY);
+        out.set(fixPos(newX, r, 0, width), fixPos(newY, r, 0, height));
     }
 
     /**
      * checks if a ball's center point x or y position is within bounds, considering the ball's size.
      *
      * @param pos       current x/y axis position
+     * @param r         ball's radius
      * @param highBound x/y axis max range
      * @param lowBound  x/y axis min range
      * @return fixed position if ball is out of range, same position otherwise
      */
-    private double fixPos(double pos, double lowBound, double highBound) {
-        if (pos - this.r < lowBound) {
-            return this.r + lowBound;
-        } else if (pos + this.r > highBound) {
-            return highBound - this.r;
+    private static double fixPos(double pos, int r, double lowBound, double highBound) {
+        if (pos - r < lowBound) {
+            return r + lowBound;
+        } else if (pos + r > highBound) {
+            return highBound - r;
         }
         return pos;
     }
@@ -275,10 +533,11 @@ public class Ball implements Sprite, HitListener {
      */
     private void fixStartPos(Rectangle rec) {
         //fixed x-axis position
-        double newX = this.fixPos(this.getX(), rec.getLowXBound(), rec.getHighXBound());
+        double newX = fixPos(this.getX(), r, rec.getLowXBound(), rec.getHighXBound());
         //fixed y-axis position
-        double newY = this.fixPos(this.getY(), rec.getLowYBound(), rec.getHighYBound());
-        center = new Point(newX, newY);
+        double newY = fixPos(this.getY(), r, rec.getLowYBound(), rec.getHighYBound());
+        this.x = newX;
+        this.y = newY;
     }
 
     /**
@@ -294,6 +553,23 @@ public class Ball implements Sprite, HitListener {
      */
     public static Ball createRandomBall(int size, Rectangle screen, java.util.List<Rectangle> obstacles,
                                         java.awt.Color color, GameEnvironment environment) {
+        return createRandomBall(size, screen, obstacles, color, environment, new GameRandom());
+    }
+
+    /**
+     * creates a ball like createRandomBall does, with its location and velocity taken from a given random numbers
+     * generator, so a generator with a known seed always creates the same balls.
+     *
+     * @param size        each ball's size
+     * @param screen      the rectangle containing the balls
+     * @param obstacles   the blocks which the ball can't be created in
+     * @param color       ball's color
+     * @param environment ball's game environment
+     * @param rand        the random numbers generator
+     * @return the ball
+     */
+    public static Ball createRandomBall(int size, Rectangle screen, java.util.List<Rectangle> obstacles,
+                                        java.awt.Color color, GameEnvironment environment, GameRandom rand) {
         boolean isInRect;
         Point p;
         Ball b;
@@ -301,10 +577,10 @@ public class Ball implements Sprite, HitListener {
         //loop runs until we successfully created a ball inside the screen but outside all the game's collidables
         do {
             isInRect = false;
-            p = Point.createRandPoint(screen, size);
+            p = Point.createRandPoint(screen, size, rand);
             b = new Ball(p, size, color, environment);
             b.fixStartPos(screen);
-            b.setVelocity(Velocity.createRandomVelocity());
+            b.setVelocity(Velocity.createRandomVelocity(rand));
             //loop checks if the ball was created inside one of the program collidables
             for (Rectangle obstacle : obstacles) {
                 if (obstacle.isBallInRectangle(b)) {
@@ -320,16 +596,185 @@ public class Ball implements Sprite, HitListener {
     public void hitEvent(Block beingHit, Ball hitter) {
         //if the hitter of the hit on block is the current ball we change its color to the block's color.
         if (hitter == this) {
-            color = beingHit.getColor();
+            palette = beingHit.getPalette();
+            colorId = beingHit.getColorId();
+        }
+    }
+
+    /**
+     * makes the ball and another ball bounce off each other if they touch and move towards each other, like an
+     * elastic collision of two equal masses: the parts of their velocities along the line between their centers
+     * are swapped, and the other parts are kept. balls that touch but already move apart are left alone, so two
+     * balls that overlap after a hit don't hit each other again.
+     *
+     * @param other the other ball
+     * @return true if the balls hit each other
+     */
+    boolean collideWith(Ball other) {
+        double nx = other.x - x, ny = other.y - y;
+        double distanceSquared = nx * nx + ny * ny, reach = r + other.r;
+        //the balls don't touch scenario
+        if (distanceSquared >= reach * reach) {
+            return false;
+        }
+        double distance = Math.sqrt(distanceSquared);
+        //same center scenario, the balls are told apart along the x-axis
+        if (distance == 0) {
+            nx = 1;
+            ny = 0;
+        } else {
+            nx /= distance;
+            ny /= distance;
+        }
+        double approach = (dx - other.dx) * nx + (dy - other.dy) * ny;
+        if (approach <= 0) {
+            return false;
+        }
+        dx -= approach * nx;
+        dy -= approach * ny;
+        other.dx += approach * nx;
+        other.dy += approach * ny;
+        return true;
+    }
+
+    /**
+     * @param ballCollider the collider the ball was added to, or null when it was removed from it
+     */
+    void setCollider(BallCollider ballCollider) {
+        this.collider = ballCollider;
+    }
+
+    /**
+     * @param slot the ball's index in its collider's order
+     */
+    void setColliderSlot(int slot) {
+        this.colliderSlot = slot;
+    }
+
+    /**
+     * @return the ball's index in its collider's order
+     */
+    int getColliderSlot() {
+        return colliderSlot;
+    }
+
+    /**
+     * @param isRemoved true if the ball was removed from the game, false if it's (again) part of it
+     */
+    void setRemoved(boolean isRemoved) {
+        this.removed = isRemoved;
+    }
+
+    /**
+     * @return true if the ball was removed from the game, false otherwise
+     */
+    boolean isRemoved() {
+        return removed;
+    }
+
+    /**
+     * @param impactScheduler the scheduler the ball was added to, or null when it was removed from it, the ball
+     *                        then stays where it is when it's removed
+     */
+    void setScheduler(ImpactScheduler impactScheduler) {
+        if (scheduler != null) {
+            settle();
         }
+        this.scheduler = impactScheduler;
+        this.since = impactScheduler == null ? 0 : impactScheduler.getTime();
     }
 
     /**
-     * removes the current ball from the game's Sprite Collection.
+     * @param schedulerTrack the ball's entry in its scheduler, or null when it was removed from it
+     */
+    void setTrack(ImpactScheduler.Track schedulerTrack) {
+        this.track = schedulerTrack;
+    }
+
+    /**
+     * @return the ball's entry in its scheduler, or null if it isn't moved by a scheduler
+     */
+    ImpactScheduler.Track getTrack() {
+        return track;
+    }
+
+    /**
+     * moves the stored center to where the ball is at the scheduler's current time.
+     */
+    void settle() {
+        double time = elapsed();
+        this.x += dx * time;
+        this.y += dy * time;
+        this.since = Math.max(since, scheduler.getTime());
+    }
+
+    /**
+     * keeps the ball where it is until a given time of the scheduler, it moves along its velocity after it.
+     *
+     * @param time the scheduler's time the ball starts moving again at
+     */
+    void waitUntil(double time) {
+        settle();
+        this.since = time;
+    }
+
+    /**
+     * moves the ball to a contact the scheduler found and lets the touched object change its velocity, like a
+     * contact of a swept step.
+     *
+     * @param record the contact, found when the ball last changed its velocity
+     */
+    void touch(ImpactRecord record) {
+        settle();
+        double nx = record.getNormalX(), ny = record.getNormalY();
+        x += nx * SKIN;
+        y += ny * SKIN;
+        bounce(record.collisionObject(), record.getX(), record.getY(), nx, ny);
+        x = fixPos(x, r, SCREEN.getLowXBound(), SCREEN.getHighXBound());
+        y = fixPos(y, r, SCREEN.getLowYBound(), SCREEN.getHighYBound());
+    }
+
+    /**
+     * @return the scheduler's time that passed since the stored center, 0 while the ball waits
+     */
+    private double elapsed() {
+        return Math.max(scheduler.getTime() - since, 0);
+    }
+
+    /**
+     * replaces the ball's position, velocity and color, used by ball fields to load one of their balls into the
+     * ball object that represents it in hit events.
+     *
+     * @param newX       center x coordinates
+     * @param newY       center y coordinates
+     * @param newDx      velocity's x-axis component
+     * @param newDy      velocity's y-axis component
+     * @param newPalette the palette of the ball's color
+     * @param newColorId the id of the ball's color in the palette
+     */
+    void setState(double newX, double newY, double newDx, double newDy, Palette newPalette, int newColorId) {
+        this.x = newX;
+        this.y = newY;
+        this.dx = newDx;
+        this.dy = newDy;
+        this.palette = newPalette;
+        this.colorId = newColorId;
+    }
+
+    /**
+     * removes the current ball from the game's Sprite Collection, and its subscriptions from the game's hit events.
      *
      * @param game our game's object.
      */
     public void removeFromGame(Game game) {
+        removed = true;
         game.removeSprite(this);
+        game.getHitEvents().removeHitter(this);
+        if (collider != null) {
+            collider.remove(this);
+        }
+        if (scheduler != null) {
+            scheduler.remove(this);
+        }
     }
 }
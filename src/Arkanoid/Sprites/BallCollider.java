@@ -0,0 +1,195 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.Game;
+import Arkanoid.GameAssets.HitEventDispatcher;
+import Arkanoid.GameAssets.HitEventType;
+
+import biuoop.DrawSurface;
+
+import java.util.Arrays;
+
+/**
+ * makes balls bounce off each other, with a sweep and prune broad phase so it doesn't test every pair of balls.
+ * the balls are kept sorted by their left edge. on every step the order is fixed with an insertion sort: the balls
+ * only move a few pixels in a step, so the order is nearly sorted and the sort takes about linear time. then one
+ * sweep over the sorted balls tests only the pairs whose ranges on the x-axis overlap, and the pairs that touch and
+ * move towards each other bounce (see Ball.collideWith) and raise a BALL_HIT event for each of the two balls.
+ * the collider must be added to the game before its balls, so every ball's moveOneStep moves it with the velocity
+ * it got from the hits of the step.
+ */
+public class BallCollider implements Sprite {
+    private static final int INITIAL_CAPACITY = 16;
+    private final HitEventDispatcher hitEvents;
+    private Ball[] balls = new Ball[INITIAL_CAPACITY];
+    //the balls' left edges, in the balls' order
+    private double[] left = new double[INITIAL_CAPACITY];
+    private int size = 0;
+    private int removedCount = 0;
+    private long hits = 0;
+    private long pairTests = 0;
+
+    /**
+     * class constructor.
+     *
+     * @param hitEvents the dispatcher the hits between balls are raised through
+     */
+    public BallCollider(HitEventDispatcher hitEvents) {
+        this.hitEvents = hitEvents;
+    }
+
+    /**
+     * adds a ball to the collider, it takes its place in the order on the next step.
+     *
+     * @param ball the ball
+     */
+    public void add(Ball ball) {
+        if (size == balls.length) {
+            balls = Arrays.copyOf(balls, size * 2);
+            left = Arrays.copyOf(left, size * 2);
+        }
+        ball.setColliderSlot(size);
+        balls[size++] = ball;
+        ball.setCollider(this);
+    }
+
+    /**
+     * removes a ball from the collider. the ball only leaves an empty place, which is dropped on the next step,
+     * so a ball can be removed by a listener while the balls are swept. the ball knows its place, so it isn't
+     * searched for.
+     *
+     * @param ball the ball
+     */
+    public void remove(Ball ball) {
+        int slot = ball.getColliderSlot();
+        //the ball isn't in the collider scenario
+        if (slot < 0 || slot >= size || balls[slot] != ball) {
+            return;
+        }
+        balls[slot] = null;
+        removedCount++;
+        ball.setCollider(null);
+        ball.setColliderSlot(-1);
+    }
+
+    /**
+     * @return the number of balls in the collider
+     */
+    public int size() {
+        return size - removedCount;
+    }
+
+    /**
+     * @return the number of hits between balls so far
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of pairs of balls the sweeps tested so far
+     */
+    public long getPairTestCount() {
+        return pairTests;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+    }
+
+    @Override
+    public void timePassed() {
+        if (removedCount > 0) {
+            compact();
+        }
+        sort();
+        sweep();
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * adds the collider to the game's sprites collection, before the balls are added.
+     *
+     * @param g the game's object
+     */
+    public void addToGame(Game g) {
+        g.addSprite(this);
+    }
+
+    /**
+     * sorts the balls by their current left edges with an insertion sort, which keeps the order of equal edges.
+     */
+    private void sort() {
+        for (int i = 0; i < size; i++) {
+            left[i] = balls[i].getX() - balls[i].getSize();
+        }
+        for (int i = 1; i < size; i++) {
+            Ball ball = balls[i];
+            double key = left[i];
+            int j = i - 1;
+            //only balls that passed the ones before them move, usually by a place or two
+            while (j >= 0 && left[j] > key) {
+                balls[j + 1] = balls[j];
+                left[j + 1] = left[j];
+                j--;
+            }
+            balls[j + 1] = ball;
+            left[j + 1] = key;
+        }
+        for (int i = 0; i < size; i++) {
+            balls[i].setColliderSlot(i);
+        }
+    }
+
+    /**
+     * lets every pair of balls whose ranges on the x-axis overlap hit each other.
+     */
+    private void sweep() {
+        for (int i = 0; i < size; i++) {
+            Ball a = balls[i];
+            //a ball removed during the sweep scenario
+            if (a == null) {
+                continue;
+            }
+            double right = a.getX() + a.getSize();
+            //the balls after a in the order start to its right, the sweep stops at the first one that starts after it
+            for (int j = i + 1; j < size && left[j] <= right; j++) {
+                Ball b = balls[j];
+                if (b == null) {
+                    continue;
+                }
+                pairTests++;
+                if (a.collideWith(b)) {
+                    hits++;
+                    hitEvents.dispatch(HitEventType.BALL_HIT, b, a);
+                    hitEvents.dispatch(HitEventType.BALL_HIT, a, b);
+                    //a listener removed ball a scenario
+                    if (balls[i] == null) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * drops the empty places of removed balls, keeping the order of the remaining balls.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (balls[i] != null) {
+                balls[kept] = balls[i];
+                left[kept] = left[i];
+                balls[kept].setColliderSlot(kept);
+                kept++;
+            }
+        }
+        Arrays.fill(balls, kept, size, null);
+        size = kept;
+        removedCount = 0;
+    }
+}
@@ -0,0 +1,435 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.Game;
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.ImpactRecord;
+import Arkanoid.Geometry.MutablePoint;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.Velocity;
+
+import Arkanoid.Utils.Palette;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * a sprite that holds many balls at once. instead of a Ball object per ball, the balls' positions, velocities,
+ * radii and color ids are kept in parallel arrays and all the balls are moved in one loop.
+ * the balls move exactly like Ball objects do: they use the same game environment collision queries, and when
+ * a ball hits an object it is loaded into a single Ball object that represents it, so the object's hit method
+ * and the hit listeners see a regular ball (the listeners may change its color or remove it from the game).
+ */
+public class BallField implements ParallelSprite {
+    private static final int INITIAL_CAPACITY = 16, PART_SIZE = 1024;
+    private final GameEnvironment environment;
+    private final Palette palette;
+    private final FieldBall hitter;
+    private final ImpactRecord collision = new ImpactRecord();
+    private boolean swept = false;
+    //the part of a tick at the base rate a step moves the balls, like Ball.setTimeStep
+    private double timeStep = 1;
+    private double[] x = new double[INITIAL_CAPACITY];
+    private double[] y = new double[INITIAL_CAPACITY];
+    private double[] dx = new double[INITIAL_CAPACITY];
+    private double[] dy = new double[INITIAL_CAPACITY];
+    private int[] radius = new int[INITIAL_CAPACITY];
+    private int[] colorId = new int[INITIAL_CAPACITY];
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+    private int removedCount = 0;
+    //collisions found by the first part of a parallel step, a null obstacle means there's no collision
+    private Collidable[] preparedObstacle = new Collidable[INITIAL_CAPACITY];
+    private double[] preparedX = new double[INITIAL_CAPACITY];
+    private double[] preparedY = new double[INITIAL_CAPACITY];
+    //contact time and normal of the first contacts found by a parallel step with swept collisions
+    private double[] preparedTime = new double[INITIAL_CAPACITY];
+    private double[] preparedNormalX = new double[INITIAL_CAPACITY];
+    private double[] preparedNormalY = new double[INITIAL_CAPACITY];
+    private ImpactRecord[] partRecords = new ImpactRecord[0];
+    private long[] partVersions = new long[0];
+
+    /**
+     * class constructor, the balls' colors are kept in a palette of the field's own.
+     *
+     * @param environment the balls' game environment
+     */
+    public BallField(GameEnvironment environment) {
+        this(environment, new Palette());
+    }
+
+    /**
+     * class constructor.
+     *
+     * @param environment the balls' game environment
+     * @param palette     the palette the balls' color ids are taken from, usually the game's
+     */
+    public BallField(GameEnvironment environment, Palette palette) {
+        this.environment = environment;
+        this.palette = palette;
+        this.hitter = new FieldBall(this, environment);
+    }
+
+    /**
+     * adds a ball to the field.
+     *
+     * @param center ball's center
+     * @param r      ball's radius
+     * @param color  ball's color
+     * @param v      ball's velocity
+     */
+    public void addBall(Point center, int r, Color color, Velocity v) {
+        //arrays are full scenario
+        if (size == x.length) {
+            int capacity = 2 * x.length;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dx = Arrays.copyOf(dx, capacity);
+            dy = Arrays.copyOf(dy, capacity);
+            radius = Arrays.copyOf(radius, capacity);
+            colorId = Arrays.copyOf(colorId, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+            preparedObstacle = Arrays.copyOf(preparedObstacle, capacity);
+            preparedX = Arrays.copyOf(preparedX, capacity);
+            preparedY = Arrays.copyOf(preparedY, capacity);
+            preparedTime = Arrays.copyOf(preparedTime, capacity);
+            preparedNormalX = Arrays.copyOf(preparedNormalX, capacity);
+            preparedNormalY = Arrays.copyOf(preparedNormalY, capacity);
+        }
+        x[size] = center.getX();
+        y[size] = center.getY();
+        dx[size] = v.getDx();
+        dy[size] = v.getDy();
+        radius[size] = r;
+        colorId[size] = palette.idOf(color);
+        size++;
+    }
+
+    /**
+     * makes the field's balls move with swept collisions, like Ball.setSweptCollisions.
+     *
+     * @param enabled true to move with swept collisions, false to move the balls' centers (the default)
+     */
+    public void setSweptCollisions(boolean enabled) {
+        this.swept = enabled;
+    }
+
+    /**
+     * sets how much of the balls' velocities a step moves them, like Ball.setTimeStep.
+     *
+     * @param step the part of a tick at the base rate a step takes, 1 by default
+     */
+    public void setTimeStep(double step) {
+        this.timeStep = step;
+        hitter.setTimeStep(step);
+    }
+
+    /**
+     * @return the number of balls in the field
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the ball object that represents the field's balls in hit events,
+     * it should be registered as a hit listener wherever a regular ball would be.
+     */
+    public Ball getHitter() {
+        return hitter;
+    }
+
+    /**
+     * gets the position of one of the balls.
+     *
+     * @param i ball's index
+     * @return the ball's center
+     */
+    public Point getCenter(int i) {
+        return new Point(x[i], y[i]);
+    }
+
+    /**
+     * gets the color of one of the balls.
+     *
+     * @param i ball's index
+     * @return the ball's color
+     */
+    public Color getColor(int i) {
+        return palette.getColor(colorId[i]);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        int currentColor = -1;
+        for (int i = 0; i < size; i++) {
+            //the color is only set when it changes
+            if (colorId[i] != currentColor) {
+                currentColor = colorId[i];
+                d.setColor(palette.getColor(currentColor));
+            }
+            d.fillCircle((int) x[i], (int) y[i], radius[i]);
+        }
+    }
+
+    @Override
+    public void timePassed() {
+        for (int i = 0; i < size; i++) {
+            moveOneStep(i);
+        }
+        //balls removed during the step are only taken out of the arrays once all the balls have moved
+        if (removedCount > 0) {
+            compact();
+        }
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * the first part of the step is split into pieces of 1024 balls.
+     *
+     * @return the number of pieces
+     */
+    @Override
+    public int stepParts() {
+        int parts = (size + PART_SIZE - 1) / PART_SIZE;
+        //each piece needs its own record, so the pieces can run at the same time
+        if (partRecords.length < parts) {
+            int oldParts = partRecords.length;
+            partRecords = Arrays.copyOf(partRecords, parts);
+            partVersions = Arrays.copyOf(partVersions, parts);
+            for (int part = oldParts; part < parts; part++) {
+                partRecords[part] = new ImpactRecord();
+            }
+        }
+        return parts;
+    }
+
+    @Override
+    public void prepareStepPart(int part) {
+        ImpactRecord record = partRecords[part];
+        partVersions[part] = environment.getModificationCount();
+        for (int i = part * PART_SIZE; i < Math.min(size, (part + 1) * PART_SIZE); i++) {
+            if (swept) {
+                prepareImpact(i, record);
+                continue;
+            }
+            double bx = x[i], by = y[i];
+            //collision exists scenario
+            if (environment.findClosestCollision(bx, by, bx + dx[i] * timeStep, by + dy[i] * timeStep, record)) {
+                preparedObstacle[i] = record.collisionObject();
+                preparedX[i] = record.getX();
+                preparedY[i] = record.getY();
+            } else {
+                preparedObstacle[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public void finishStep() {
+        for (int i = 0; i < size; i++) {
+            Collidable obstacle = preparedObstacle[i];
+            preparedObstacle[i] = null;
+            boolean changed = partVersions[i / PART_SIZE] != environment.getModificationCount();
+            if (swept) {
+                //the first contact is still valid scenario
+                if (!changed && obstacle != null) {
+                    collision.setImpact(preparedTime[i], preparedNormalX[i], preparedNormalY[i], preparedX[i],
+                            preparedY[i], obstacle, 0);
+                } else {
+                    collision.clear();
+                }
+                sweepBall(i, !changed);
+                continue;
+            }
+            //a collidable was added or removed since the ball's collision was looked for scenario
+            if (changed) {
+                moveOneStep(i);
+            } else {
+                applyStep(i, obstacle, preparedX[i], preparedY[i]);
+            }
+        }
+        if (removedCount > 0) {
+            compact();
+        }
+    }
+
+    /**
+     * moves one ball a step, the same way Ball.moveOneStep does.
+     *
+     * @param i ball's index
+     */
+    private void moveOneStep(int i) {
+        if (swept) {
+            sweepBall(i, false);
+            return;
+        }
+        //collision exists scenario
+        if (environment.findClosestCollision(x[i], y[i], x[i] + dx[i] * timeStep, y[i] + dy[i] * timeStep,
+                collision)) {
+            applyStep(i, collision.collisionObject(), collision.getX(), collision.getY());
+        } else {
+            applyStep(i, null, 0, 0);
+        }
+    }
+
+    /**
+     * looks for the first contact of a ball's step with swept collisions, and keeps it for finishStep.
+     *
+     * @param i      ball's index
+     * @param record the record of the current part of the step
+     */
+    private void prepareImpact(int i, ImpactRecord record) {
+        //contact exists scenario
+        if (environment.findFirstImpact(x[i], y[i], dx[i] * timeStep, dy[i] * timeStep, radius[i], record)) {
+            preparedObstacle[i] = record.collisionObject();
+            preparedX[i] = record.getX();
+            preparedY[i] = record.getY();
+            preparedTime[i] = record.getTime();
+            preparedNormalX[i] = record.getNormalX();
+            preparedNormalY[i] = record.getNormalY();
+        } else {
+            preparedObstacle[i] = null;
+        }
+    }
+
+    /**
+     * moves one ball a step with swept collisions, through the ball object that represents the field's balls.
+     *
+     * @param i        ball's index
+     * @param prepared true if the field's record already holds the ball's first contact, false to look for it
+     */
+    private void sweepBall(int i, boolean prepared) {
+        hitter.load(i, x[i], y[i], dx[i], dy[i], palette, colorId[i]);
+        //a listener may change the ball's color on a contact, only then it's looked up again
+        if (hitter.sweep(radius[i], collision, prepared) > 0) {
+            colorId[i] = idOf(hitter);
+        }
+        x[i] = hitter.getX();
+        y[i] = hitter.getY();
+        dx[i] = hitter.getDx();
+        dy[i] = hitter.getDy();
+    }
+
+    /**
+     * moves one ball based on the collision of its next step.
+     *
+     * @param i        ball's index
+     * @param obstacle the object the ball collides with, or null if there's no collision
+     * @param hitX     collision point x coordinates
+     * @param hitY     collision point y coordinates
+     */
+    private void applyStep(int i, Collidable obstacle, double hitX, double hitY) {
+        double bx = x[i], by = y[i], vx = dx[i], vy = dy[i];
+        int r = radius[i];
+        //collision exists scenario
+        if (obstacle != null) {
+            MutablePoint adjusted = collision.scratch();
+            Ball.adjustCollPoint(hitX, hitY, obstacle.getCollisionRectangle(), r, adjusted);
+            bx = adjusted.getX();
+            by = adjusted.getY();
+            //the ball object stands for ball i while the obstacle and the listeners handle the hit
+            hitter.load(i, bx, by, vx, vy, palette, colorId[i]);
+            Velocity newV = obstacle.hit(hitter, new Point(hitX, hitY), new Velocity(vx, vy));
+            vx = newV.getDx();
+            vy = newV.getDy();
+            colorId[i] = idOf(hitter);
+        }
+        Rectangle screen = Ball.SCREEN;
+        double stepX = vx * timeStep, stepY = vy * timeStep;
+        if (Ball.isInBound(screen.getLowXBound(), screen.getHighXBound(), stepX, bx, r)
+                && Ball.isInBound(screen.getLowYBound(), screen.getHighYBound(), stepY, by, r)) {
+            bx += stepX;
+            by += stepY;
+        }
+        x[i] = bx;
+        y[i] = by;
+        dx[i] = vx;
+        dy[i] = vy;
+    }
+
+    /**
+     * marks a ball as removed, it will be taken out of the field at the end of the current step.
+     *
+     * @param i ball's index
+     */
+    private void remove(int i) {
+        if (!removed[i]) {
+            removed[i] = true;
+            removedCount++;
+        }
+    }
+
+    /**
+     * takes the removed balls out of the arrays, keeping the order of the remaining balls.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                removed[i] = false;
+                continue;
+            }
+            x[kept] = x[i];
+            y[kept] = y[i];
+            dx[kept] = dx[i];
+            dy[kept] = dy[i];
+            radius[kept] = radius[i];
+            colorId[kept] = colorId[i];
+            kept++;
+        }
+        size = kept;
+        removedCount = 0;
+    }
+
+    /**
+     * finds the id of the hitter's color in the field's palette, after a listener may have changed it.
+     *
+     * @param ball the hitter
+     * @return the color's id
+     */
+    private int idOf(Ball ball) {
+        //the color was taken from a block of the same palette, or wasn't changed at all scenario
+        if (ball.getPalette() == palette) {
+            return ball.getColorId();
+        }
+        return palette.idOf(ball.getColor());
+    }
+
+    /**
+     * the ball object that represents the field's balls in hit events.
+     */
+    private static final class FieldBall extends Ball {
+        private final BallField field;
+        private int index;
+
+        private FieldBall(BallField field, GameEnvironment environment) {
+            super(new Point(0, 0), 1, Color.BLACK, environment);
+            this.field = field;
+        }
+
+        private void load(int i, double newX, double newY, double newDx, double newDy, Palette palette,
+                          int colorId) {
+            this.index = i;
+            setRemoved(false);
+            setState(newX, newY, newDx, newDy, palette, colorId);
+        }
+
+        /**
+         * removes the ball it currently stands for from the field.
+         *
+         * @param game our game's object.
+         */
+        @Override
+        public void removeFromGame(Game game) {
+            setRemoved(true);
+            field.remove(index);
+        }
+    }
+}
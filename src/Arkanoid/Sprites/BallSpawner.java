@@ -0,0 +1,165 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.Velocity;
+import Arkanoid.Utils.GameRandom;
+import Arkanoid.Utils.Palette;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * creates balls at random places where they don't touch any obstacle, like Ball.createRandomBall does, without
+ * trying random places until one is free. the spawner keeps an occupancy grid of the screen with a cell for every
+ * pixel a ball's center can be at, marks the cells that would make a ball of its size touch an obstacle, and keeps
+ * the list of the free cells. every ball then takes a uniformly random free cell, in constant time, no matter how
+ * many obstacles there are or how little room they leave.
+ * the grid is built once, so obstacles added later (and the spawned balls themselves) aren't avoided.
+ */
+public class BallSpawner {
+    private final int size;
+    private final int minX;
+    private final int minY;
+    private final int columns;
+    private final int[] free;
+    private final GameRandom random;
+
+    /**
+     * class constructor, builds the occupancy grid.
+     *
+     * @param size      the balls' size
+     * @param screen    the rectangle containing the balls
+     * @param obstacles the rectangles the balls can't be created in
+     * @param random    the random numbers the balls' places and velocities are taken from
+     */
+    public BallSpawner(int size, Rectangle screen, List<Rectangle> obstacles, GameRandom random) {
+        this.size = Ball.fixRadius(screen.getHighXBound(), screen.getHighYBound(), size);
+        this.random = random;
+        //the centers that keep the whole ball inside the screen
+        minX = (int) Math.ceil(screen.getLowXBound() + this.size);
+        minY = (int) Math.ceil(screen.getLowYBound() + this.size);
+        columns = Math.max(0, (int) Math.floor(screen.getHighXBound() - this.size) - minX + 1);
+        int rows = Math.max(0, (int) Math.floor(screen.getHighYBound() - this.size) - minY + 1);
+        //a 2d difference array: every obstacle adds 1 to the cells it blocks, in constant time
+        int stride = columns + 1;
+        int[] blocked = new int[stride * (rows + 1)];
+        for (Rectangle obstacle : obstacles) {
+            //a center touches the obstacle when it's inside the obstacle grown by the ball's size on every side
+            int x0 = Math.max(0, (int) Math.ceil(obstacle.getLowXBound() - this.size) - minX);
+            int x1 = Math.min(columns - 1, (int) Math.floor(obstacle.getHighXBound() + this.size) - minX);
+            int y0 = Math.max(0, (int) Math.ceil(obstacle.getLowYBound() - this.size) - minY);
+            int y1 = Math.min(rows - 1, (int) Math.floor(obstacle.getHighYBound() + this.size) - minY);
+            //the obstacle is outside the grid scenario
+            if (x0 > x1 || y0 > y1) {
+                continue;
+            }
+            blocked[y0 * stride + x0]++;
+            blocked[y0 * stride + x1 + 1]--;
+            blocked[(y1 + 1) * stride + x0]--;
+            blocked[(y1 + 1) * stride + x1 + 1]++;
+        }
+        //prefix sums turn the differences into the number of obstacles blocking every cell
+        int freeCount = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * stride + column;
+                if (column > 0) {
+                    blocked[cell] += blocked[cell - 1];
+                }
+                if (row > 0) {
+                    blocked[cell] += blocked[cell - stride];
+                }
+                if (row > 0 && column > 0) {
+                    blocked[cell] -= blocked[cell - stride - 1];
+                }
+                if (blocked[cell] == 0) {
+                    freeCount++;
+                }
+            }
+        }
+        if (freeCount == 0) {
+            throw new IllegalArgumentException("Error: the obstacles leave no room for a ball");
+        }
+        free = new int[freeCount];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (blocked[row * stride + column] == 0) {
+                    free[next++] = row * columns + column;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of places a ball's center can be created at
+     */
+    public int getFreeCount() {
+        return free.length;
+    }
+
+    /**
+     * @return the balls' size, after it was fixed to fit the screen
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return a random place a ball's center can be created at
+     */
+    public Point nextCenter() {
+        int cell = free[random.nextInt(free.length)];
+        return new Point(minX + cell % columns, minY + cell / columns);
+    }
+
+    /**
+     * @return a random velocity for a new ball
+     */
+    public Velocity nextVelocity() {
+        return Velocity.createRandomVelocity(random);
+    }
+
+    /**
+     * creates a ball with a random place and velocity.
+     *
+     * @param color       ball's color
+     * @param environment ball's game environment
+     * @return the ball
+     */
+    public Ball spawn(Color color, GameEnvironment environment) {
+        Point center = nextCenter();
+        return new Ball(center, size, color, nextVelocity(), environment);
+    }
+
+    /**
+     * creates a ball with a random place and velocity, whose color is taken from a game's palette.
+     *
+     * @param palette     the palette of the ball's color
+     * @param colorId     the id of the ball's color in the palette
+     * @param environment ball's game environment
+     * @return the ball
+     */
+    public Ball spawn(Palette palette, int colorId, GameEnvironment environment) {
+        Point center = nextCenter();
+        return new Ball(center, size, palette, colorId, nextVelocity(), environment);
+    }
+
+    /**
+     * creates many balls with random places and velocities.
+     *
+     * @param count       number of balls
+     * @param color       the balls' color
+     * @param environment the balls' game environment
+     * @return the balls
+     */
+    public Ball[] spawn(int count, Color color, GameEnvironment environment) {
+        Ball[] balls = new Ball[count];
+        for (int i = 0; i < count; i++) {
+            balls[i] = spawn(color, environment);
+        }
+        return balls;
+    }
+}
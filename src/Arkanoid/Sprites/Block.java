@@ -1,26 +1,32 @@
 package Arkanoid.Sprites;
 
-import Arkanoid.Geometry.Line;
 import Arkanoid.Geometry.Point;
 import Arkanoid.Geometry.Rectangle;
 
+import Arkanoid.GameAssets.HitEventDispatcher;
+import Arkanoid.GameAssets.HitEventType;
 import Arkanoid.GameAssets.HitListener;
 import Arkanoid.GameAssets.HitNotifier;
 import Arkanoid.GameAssets.Game;
 
 import Arkanoid.Geometry.Velocity;
+import Arkanoid.Utils.Palette;
 import biuoop.DrawSurface;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * a block obstacle in our Arkanoid game.
  */
 public class Block extends Rectangle implements Collidable, Sprite, HitNotifier {
-    private final Color color;
-    private final List<HitListener> hitListeners = new ArrayList<>();
+    private static final HitListener[] NO_LISTENERS = new HitListener[0];
+    private final Palette palette;
+    private final int colorId;
+    //replaced on every change, so notifying the listeners never copies them
+    private HitListener[] hitListeners = NO_LISTENERS;
+    private HitEventDispatcher dispatcher = null;
+    private HitEventType eventType = null;
 
     /**
      * class constructor. we construct it using the Arkanoid.Geometry.Rectangle's constructor.
@@ -31,39 +37,72 @@ public class Block extends Rectangle implements Collidable, Sprite, HitNotifier
      * @param color     block's color
      */
     public Block(Point upperLeft, double width, double height, Color color) {
+        this(upperLeft, width, height, Palette.shared(), Palette.shared().idOf(color));
+    }
+
+    /**
+     * class constructor, creates a block whose color is taken from a game's palette.
+     *
+     * @param upperLeft block's upper left point
+     * @param width     block's width
+     * @param height    block's height
+     * @param palette   the palette of the block's color
+     * @param colorId   the id of the block's color in the palette
+     */
+    public Block(Point upperLeft, double width, double height, Palette palette, int colorId) {
         super(upperLeft, width, height);
-        this.color = color;
+        //an id that isn't in the palette fails here, not when the object is drawn
+        palette.getColor(colorId);
+        this.palette = palette;
+        this.colorId = colorId;
     }
 
     /**
-     * @return a copy of the block's color
+     * @return the block's color, the palette's object of its color id
      */
     public Color getColor() {
-        int r = color.getRed(), g = color.getGreen(), b = color.getBlue();
-        return new Color(r, g, b);
+        return palette.getColor(colorId);
+    }
+
+    /**
+     * @return the palette of the block's color
+     */
+    public Palette getPalette() {
+        return palette;
     }
 
+    /**
+     * @return the id of the block's color in its palette
+     */
+    public int getColorId() {
+        return colorId;
+    }
+
+    /**
+     * a block never changes its bounds, so the block itself is its collision rectangle.
+     *
+     * @return the block
+     */
     @Override
     public Rectangle getCollisionRectangle() {
-        return new Block(getUpperLeft(), getWidth(), getHeight(), getColor());
+        return this;
+    }
+
+    @Override
+    public long getBoundsVersion() {
+        return STATIC_BOUNDS;
     }
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
         double newDx = currentVelocity.getDx(), newDy = currentVelocity.getDy();
-        //vertices indexes
-        int rightVert = 0, leftVert = 1, upperVert = 2, lowerVert = 3;
-        //scenarios
-        int vertical = 2, horizontal = 3;
-        Line[] vertices = vertices();
+        double x = collisionPoint.getX(), y = collisionPoint.getY();
         //ball hits one of the vertical vertices scenario
-        if (vertices[rightVert].isOnLine(collisionPoint, vertical)
-                || vertices[leftVert].isOnLine(collisionPoint, vertical)) {
+        if (isOnRightEdge(x, y) || isOnLeftEdge(x, y)) {
             newDx = -newDx;
         }
         //ball hits one of the horizontal vertices scenario
-        if (vertices[upperVert].isOnLine(collisionPoint, horizontal)
-                || vertices[lowerVert].isOnLine(collisionPoint, horizontal)) {
+        if (isOnUpperEdge(x, y) || isOnLowerEdge(x, y)) {
             newDy = -newDy;
         }
         /*
@@ -88,6 +127,16 @@ public class Block extends Rectangle implements Collidable, Sprite, HitNotifier
     public void timePassed() {
     }
 
+    /**
+     * a block only changes when it's removed.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     /**
      * adds the block to the game's sprites collection and collidables list.
      *
@@ -105,8 +154,12 @@ public class Block extends Rectangle implements Collidable, Sprite, HitNotifier
      * @return true if their color is same, false otherwise.
      */
     public boolean ballColorMatch(Ball ball) {
+        //same palette scenario, every color is kept once in it so the ids are compared
+        if (ball.getPalette() == palette) {
+            return ball.getColorId() == colorId;
+        }
         //Color class equals method compares the RGB components of the 2 given colors.
-        return color.equals(ball.getColor());
+        return getColor().equals(ball.getColor());
     }
 
     /**
@@ -117,16 +170,28 @@ public class Block extends Rectangle implements Collidable, Sprite, HitNotifier
     public void removeFromGame(Game game) {
         game.removeCollidable(this);
         game.removeSprite(this);
+        //a removed block raises no more events, even if a ball still reaches it during the current step
+        dispatcher = null;
+        eventType = null;
     }
 
     private void notifyHit(Ball hitter) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
-
-        // Notify all listeners about a hit event:
-        for (HitListener hl : listeners) {
+        //the array is never changed in place, so listeners may add or remove listeners while we iterate over it
+        for (HitListener hl : hitListeners) {
             hl.hitEvent(this, hitter);
         }
+        if (dispatcher != null) {
+            dispatcher.dispatch(eventType, this, hitter);
+        }
+    }
+
+    @Override
+    public void setHitEvents(HitEventDispatcher hitEvents, HitEventType type) {
+        if (hitEvents != null && type == null) {
+            throw new IllegalArgumentException("Error: event type must not be null");
+        }
+        this.dispatcher = hitEvents;
+        this.eventType = type;
     }
 
     @Override
@@ -134,11 +199,21 @@ public class Block extends Rectangle implements Collidable, Sprite, HitNotifier
         if (hl == null) {
             throw new IllegalArgumentException("Error: listener must not be null");
         }
-        hitListeners.add(hl);
+        HitListener[] listeners = Arrays.copyOf(hitListeners, hitListeners.length + 1);
+        listeners[hitListeners.length] = hl;
+        hitListeners = listeners;
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        hitListeners.remove(hl);
+        for (int i = 0; i < hitListeners.length; i++) {
+            if (hitListeners[i].equals(hl)) {
+                HitListener[] listeners = new HitListener[hitListeners.length - 1];
+                System.arraycopy(hitListeners, 0, listeners, 0, i);
+                System.arraycopy(hitListeners, i + 1, listeners, i, hitListeners.length - i - 1);
+                hitListeners = listeners;
+                return;
+            }
+        }
     }
 }
@@ -9,10 +9,25 @@ import Arkanoid.Geometry.Velocity;
  */
 public interface Collidable {
     /**
+     * bounds version of a collidable that never moves.
+     */
+    long STATIC_BOUNDS = 0;
+
+    /**
+     * the returned rectangle is never changed, a collidable that moves replaces it with a new one instead.
+     *
      * @return object which the ball collided with.
      */
     Rectangle getCollisionRectangle();
 
+    /**
+     * the version changes whenever the collidable moves, so bounds taken from getCollisionRectangle are up to date
+     * as long as the version stays the same.
+     *
+     * @return STATIC_BOUNDS if the collidable never moves, the current version of its bounds otherwise
+     */
+    long getBoundsVersion();
+
     /**
      * alters the ball's speed if there's a collision and change it's color if it's the same color as the block it hits.
      *
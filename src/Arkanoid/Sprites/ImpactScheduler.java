@@ -0,0 +1,419 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.Game;
+import Arkanoid.GameAssets.GameEnvironment;
+import Arkanoid.Geometry.ImpactRecord;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.SlabRay;
+
+import biuoop.DrawSurface;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * an event-driven engine that moves balls from one impact to the next, instead of looking for their collisions on
+ * every tick. between two impacts a ball moves along a straight line, so its next impact is looked for once, with
+ * a swept query over a long stretch of its path (see GameEnvironment.findFirstImpact), and kept in a priority queue
+ * ordered by the impact's time. on every tick only the impacts that are due are played: the ball is moved to the
+ * contact and the touched object changes its velocity, like a contact of a swept step, and the ball's next impact
+ * is looked for. a ball that doesn't hit anything on the stretch looks again at its end.
+ * the balls' positions between impacts are computed from the time when they're read (see Ball.getX).
+ * an impact that was found is only wrong when its collidable is removed, when the paddle moves across the ball's
+ * path, or when a collidable is added, so only the balls affected by such a change look for a new impact. the
+ * pending impacts are indexed by the collidable they're with, so a removal only visits the balls that were about to
+ * hit the removed collidable.
+ * the scheduler must be added to the game after the paddle, so the balls meet the paddle where it moved in the tick.
+ */
+public class ImpactScheduler implements Sprite {
+    //the length of the path an impact query covers
+    private static final double HORIZON = 200;
+    //the most impacts a ball plays in a single tick, like the bounces of a swept step, the ball then waits
+    private static final int MAX_BOUNCES = 4;
+    //added to the paddle's bounds, so a path that grazes them is looked at again
+    private static final double MARGIN = 0.001;
+    private final GameEnvironment environment;
+    private final Collidable paddle;
+    private final PriorityQueue<Event> queue = new PriorityQueue<>();
+    private final List<Track> tracks = new ArrayList<>();
+    //the tracks whose pending impact is with each collidable. blocks are compared by identity, and a tile (a new
+    //object on every query) by its map and index, see TileBlock.equals
+    private final Map<Collidable, List<Track>> targets = new HashMap<>();
+    private final SlabRay ray = new SlabRay();
+    //the scheduler's time is measured in ticks at the base rate, a game tick moves it by this much
+    private double timeStep = 1;
+    private double now = 0;
+    private long sequence = 0;
+    //the environment's modification count the impacts were found with
+    private long modifications;
+    private long paddleVersion;
+    private Rectangle paddleBounds;
+    private long events = 0;
+    private long queries = 0;
+
+    /**
+     * class constructor.
+     *
+     * @param environment the environment the balls move in
+     * @param paddle      the paddle, its moves are checked on every tick
+     */
+    public ImpactScheduler(GameEnvironment environment, Collidable paddle) {
+        this.environment = environment;
+        this.paddle = paddle;
+        this.modifications = environment.getModificationCount();
+        this.paddleVersion = paddle.getBoundsVersion();
+        this.paddleBounds = paddle.getCollisionRectangle();
+    }
+
+    /**
+     * adds a ball to the scheduler and looks for its first impact. the ball isn't stepped by the game anymore.
+     *
+     * @param ball the ball
+     */
+    public void add(Ball ball) {
+        Track track = new Track(ball, tracks.size());
+        tracks.add(track);
+        ball.setScheduler(this);
+        ball.setTrack(track);
+        schedule(track, now);
+    }
+
+    /**
+     * removes a ball from the scheduler, it stays where it is. its impact is dropped from the queue when it's due.
+     *
+     * @param ball the ball
+     */
+    public void remove(Ball ball) {
+        Track track = ball.getTrack();
+        //the ball isn't in the scheduler scenario
+        if (track == null) {
+            return;
+        }
+        //the last track takes the removed track's slot
+        Track last = tracks.remove(tracks.size() - 1);
+        if (last != track) {
+            tracks.set(track.slot, last);
+            last.slot = track.slot;
+        }
+        unlink(track);
+        track.event = null;
+        track.removed = true;
+        ball.setTrack(null);
+        ball.setScheduler(null);
+    }
+
+    /**
+     * looks for new impacts for the balls that were about to hit a collidable that was removed from the environment.
+     * must be called after every removal, the other balls' impacts are still right.
+     *
+     * @param c the removed collidable
+     */
+    public void collidableRemoved(Collidable c) {
+        modifications = environment.getModificationCount();
+        //the impact being played isn't in the index, its ball looks for a new one after it
+        List<Track> affected = targets.remove(c);
+        if (affected == null) {
+            return;
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            Track track = affected.get(i);
+            track.target = null;
+            reschedule(track);
+        }
+    }
+
+    /**
+     * sets how much a game tick moves the scheduler's time, like Ball.setTimeStep.
+     *
+     * @param step the part of a tick at the base rate a game tick takes, 1 by default
+     */
+    public void setTimeStep(double step) {
+        this.timeStep = step;
+    }
+
+    /**
+     * @return the scheduler's time, in ticks at the base rate since it was created
+     */
+    public double getTime() {
+        return now;
+    }
+
+    /**
+     * @return the number of impacts played so far
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * @return the number of impact queries made so far
+     */
+    public long getQueryCount() {
+        return queries;
+    }
+
+    /**
+     * @return the number of whole ticks from now in which no impact is due, so they can be skipped when nothing
+     * else moves, or Long.MAX_VALUE if no ball will ever hit anything
+     */
+    public long quietTicks() {
+        Event next = peek();
+        if (next == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max((long) Math.ceil((next.time - now) / timeStep) - 1, 0);
+    }
+
+    /**
+     * moves the time forward by ticks in which no impact is due (see quietTicks), the balls keep moving straight.
+     *
+     * @param ticks the number of ticks
+     */
+    public void skip(long ticks) {
+        now += ticks * timeStep;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+    }
+
+    @Override
+    public void timePassed() {
+        //a collidable was added scenario, any impact may be wrong
+        if (environment.getModificationCount() != modifications) {
+            rescheduleAll();
+        }
+        if (paddle.getBoundsVersion() != paddleVersion) {
+            paddleMoved();
+        }
+        double target = now + timeStep;
+        Event next;
+        while ((next = peek()) != null && next.time <= target) {
+            queue.poll();
+            now = next.time;
+            play(next.track, target);
+            if (environment.getModificationCount() != modifications) {
+                rescheduleAll();
+            }
+        }
+        now = target;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * adds the scheduler to the game's sprites collection, after the paddle was added.
+     *
+     * @param g the game's object
+     */
+    public void addToGame(Game g) {
+        g.addSprite(this);
+    }
+
+    /**
+     * plays a ball's impact that is due, and looks for its next impact.
+     *
+     * @param track  the ball's track
+     * @param target the end of the current tick
+     */
+    private void play(Track track, double target) {
+        unlink(track);
+        track.event = null;
+        //the end of the path the query covered scenario, the ball keeps moving
+        if (!track.record.isHit()) {
+            schedule(track, now);
+            return;
+        }
+        events++;
+        if (track.tick != target) {
+            track.tick = target;
+            track.bounces = 0;
+        }
+        //the touched object's listeners may remove collidables, and the ball itself
+        track.ball.touch(track.record);
+        if (track.removed) {
+            return;
+        }
+        track.bounces++;
+        //the ball bounced as many times as a swept step allows scenario, the rest of its tick is dropped
+        if (track.bounces == MAX_BOUNCES) {
+            track.ball.waitUntil(target);
+            schedule(track, target);
+            return;
+        }
+        schedule(track, now);
+    }
+
+    /**
+     * looks for the next impact of a ball, starting at a given time.
+     *
+     * @param track the ball's track, its ball is where it is at the start time
+     * @param start the time the ball starts moving from its current position
+     */
+    private void schedule(Track track, double start) {
+        Ball ball = track.ball;
+        double dx = ball.getDx(), dy = ball.getDy(), speed = Math.sqrt(dx * dx + dy * dy);
+        track.start = start;
+        //a ball that doesn't move never hits anything scenario
+        if (speed == 0) {
+            return;
+        }
+        double span = HORIZON / speed;
+        queries++;
+        boolean hit = environment.findFirstImpact(ball.getX(), ball.getY(), dx * span, dy * span, ball.getSize(),
+                track.record);
+        double time = start + (hit ? track.record.getTime() : 1) * span;
+        track.event = new Event(track, time, sequence++);
+        queue.add(track.event);
+        if (hit) {
+            link(track, track.record.collisionObject());
+        }
+    }
+
+    /**
+     * adds a track to the index of the pending impacts.
+     *
+     * @param track  the track
+     * @param target the collidable its pending impact is with
+     */
+    private void link(Track track, Collidable target) {
+        List<Track> list = targets.computeIfAbsent(target, key -> new ArrayList<>());
+        track.target = target;
+        track.targetSlot = list.size();
+        list.add(track);
+    }
+
+    /**
+     * takes a track out of the index of the pending impacts, nothing happens if it isn't in it.
+     *
+     * @param track the track
+     */
+    private void unlink(Track track) {
+        if (track.target == null) {
+            return;
+        }
+        List<Track> list = targets.get(track.target);
+        //the last track of the list takes the removed track's place
+        Track last = list.remove(list.size() - 1);
+        if (last != track) {
+            list.set(track.targetSlot, last);
+            last.targetSlot = track.targetSlot;
+        } else if (list.isEmpty()) {
+            targets.remove(track.target);
+        }
+        track.target = null;
+    }
+
+    /**
+     * drops a ball's impact and looks for a new one from its current position.
+     *
+     * @param track the ball's track
+     */
+    private void reschedule(Track track) {
+        unlink(track);
+        track.event = null;
+        track.ball.settle();
+        schedule(track, Math.max(now, track.start));
+    }
+
+    private void rescheduleAll() {
+        modifications = environment.getModificationCount();
+        for (int i = 0; i < tracks.size(); i++) {
+            if (tracks.get(i).event != null) {
+                reschedule(tracks.get(i));
+            }
+        }
+    }
+
+    /**
+     * looks for new impacts for the balls whose path to their impact crosses the area the paddle moved over
+     * (the box around its last and current bounds). the box is grown by the ball's radius, so it's enough to
+     * check the path of the ball's center.
+     */
+    private void paddleMoved() {
+        Rectangle moved = paddle.getCollisionRectangle();
+        double left = Math.min(paddleBounds.getLowXBound(), moved.getLowXBound()) - MARGIN;
+        double top = Math.min(paddleBounds.getLowYBound(), moved.getLowYBound()) - MARGIN;
+        double right = Math.max(paddleBounds.getHighXBound(), moved.getHighXBound()) + MARGIN;
+        double bottom = Math.max(paddleBounds.getHighYBound(), moved.getHighYBound()) + MARGIN;
+        paddleVersion = paddle.getBoundsVersion();
+        paddleBounds = moved;
+        for (int i = 0; i < tracks.size(); i++) {
+            Track track = tracks.get(i);
+            if (track.event == null) {
+                continue;
+            }
+            Ball ball = track.ball;
+            double x = ball.getX(), y = ball.getY(), time = track.event.time - Math.max(now, track.start);
+            int r = ball.getSize();
+            ray.set(x, y, x + ball.getDx() * time, y + ball.getDy() * time);
+            if (ray.reach(left - r, top - r, right + r, bottom + r) != SlabRay.NO_HIT) {
+                reschedule(track);
+            }
+        }
+    }
+
+    /**
+     * @return the first impact in the queue that is still valid, or null if there is none
+     */
+    private Event peek() {
+        Event next = queue.peek();
+        //impacts replaced by a newer one are dropped when they reach the head of the queue
+        while (next != null && next.track.event != next) {
+            queue.poll();
+            next = queue.peek();
+        }
+        return next;
+    }
+
+    /**
+     * a ball, its current impact, and the query record the impact is stored in.
+     */
+    static final class Track {
+        private final Ball ball;
+        private final ImpactRecord record = new ImpactRecord();
+        //the track's index in the scheduler's tracks
+        private int slot;
+        //the collidable of the pending impact and the track's index in its list, null if it isn't in the index
+        private Collidable target = null;
+        private int targetSlot = 0;
+        private Event event = null;
+        //the time the ball started its current path at
+        private double start = 0;
+        private double tick = -1;
+        private int bounces = 0;
+        private boolean removed = false;
+
+        private Track(Ball ball, int slot) {
+            this.ball = ball;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * an impact in the queue, ordered by time, and by the order the impacts were found in on equal times.
+     */
+    private static final class Event implements Comparable<Event> {
+        private final Track track;
+        private final double time;
+        private final long order;
+
+        private Event(Track track, double time, long order) {
+            this.track = track;
+            this.time = time;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+}
@@ -6,16 +6,22 @@ import Arkanoid.Geometry.Point;
 import Arkanoid.Geometry.Rectangle;
 import Arkanoid.Geometry.Velocity;
 import Arkanoid.Utils.Operations;
+import Arkanoid.Utils.Palette;
 
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 
+import java.awt.Color;
+
 /**
  * represents the paddle in our Arkanoid game.
  */
 public class Paddle implements Sprite, Collidable {
     private final biuoop.KeyboardSensor keyboard;
     private Block block;
+    private long boundsVersion = 1;
+    //the part of a tick at the base rate a move takes, the paddle moves 5 pixels per such tick
+    private double timeStep = 1;
 
     /**
      * class constructor.
@@ -23,25 +29,56 @@ public class Paddle implements Sprite, Collidable {
      * @param keyboardSensor the keyboard sensor
      */
     public Paddle(biuoop.KeyboardSensor keyboardSensor) {
+        this(keyboardSensor, Operations.getRandColor());
+    }
+
+    /**
+     * class constructor.
+     *
+     * @param keyboardSensor the keyboard sensor
+     * @param color          paddle's color
+     */
+    public Paddle(biuoop.KeyboardSensor keyboardSensor, Color color) {
+        this(keyboardSensor, Palette.shared(), Palette.shared().idOf(color));
+    }
+
+    /**
+     * class constructor, creates a paddle whose color is taken from a game's palette.
+     *
+     * @param keyboardSensor the keyboard sensor
+     * @param palette        the palette of the paddle's color
+     * @param colorId        the id of the paddle's color in the palette
+     */
+    public Paddle(biuoop.KeyboardSensor keyboardSensor, Palette palette, int colorId) {
         int midX = 400, y = 590, width = 100, height = 10;
         Point upperLeft = new Point(midX, y);
         this.keyboard = keyboardSensor;
-        block = new Block(upperLeft, width, height, Operations.getRandColor());
-
+        block = new Block(upperLeft, width, height, palette, colorId);
     }
 
     /**
      * @return a copy of the block representing the paddle.
      */
     public Block getBlock() {
-        return new Block(block.getUpperLeft(), block.getWidth(), block.getHeight(), block.getColor());
+        return new Block(block.getUpperLeft(), block.getWidth(), block.getHeight(), block.getPalette(),
+                block.getColorId());
+    }
+
+    /**
+     * sets how far a single move takes the paddle, like Ball.setTimeStep.
+     *
+     * @param step the part of a tick at the base rate a move takes, 1 by default
+     */
+    public void setTimeStep(double step) {
+        this.timeStep = step;
     }
 
     /**
      * moves the paddle to the left.
      */
     public void moveLeft() {
-        int step = 5, screenXStart = 0, screenWidth = 800;
+        int screenXStart = 0, screenWidth = 800;
+        double step = 5 * timeStep;
         double x = block.getUpperRight().getX(), y = block.getUpperRight().getY();
         Point upperLeft;
         //paddle is completely or partially within the screen bounds scenario
@@ -53,14 +90,16 @@ public class Paddle implements Sprite, Collidable {
             upperLeft = new Point(screenWidth + x - step, y);
         }
         //paddle's updated location
-        block = new Block(upperLeft, block.getWidth(), block.getHeight(), block.getColor());
+        block = new Block(upperLeft, block.getWidth(), block.getHeight(), block.getPalette(), block.getColorId());
+        boundsVersion++;
     }
 
     /**
      * moves the paddle to the right.
      */
     public void moveRight() {
-        int step = 5, screenWidth = 800;
+        int screenWidth = 800;
+        double step = 5 * timeStep;
         double x = block.getUpperLeft().getX(), y = block.getUpperLeft().getY();
         Point upperLeft;
         //paddle is completely or partially within the screen bounds scenario
@@ -72,7 +111,8 @@ public class Paddle implements Sprite, Collidable {
             upperLeft = new Point(x - screenWidth - block.getWidth() + step, y);
         }
         //paddle's updated location
-        block = new Block(upperLeft, block.getWidth(), block.getHeight(), block.getColor());
+        block = new Block(upperLeft, block.getWidth(), block.getHeight(), block.getPalette(), block.getColorId());
+        boundsVersion++;
     }
 
     @Override
@@ -92,9 +132,25 @@ public class Paddle implements Sprite, Collidable {
         block.drawOn(d);
     }
 
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * the paddle's block is replaced (never changed) whenever the paddle moves,
+     * so it can be returned without copying it.
+     *
+     * @return the block representing the paddle in its current location
+     */
     @Override
     public Rectangle getCollisionRectangle() {
-        return getBlock();
+        return block;
+    }
+
+    @Override
+    public long getBoundsVersion() {
+        return boundsVersion;
     }
 
     @Override
@@ -0,0 +1,29 @@
+package Arkanoid.Sprites;
+
+/**
+ * a sprite whose step is split into two parts, so the steps of many sprites can be spread over several threads.
+ * the first part only reads the game's state (for example, a ball looks for its next collision), and it may run
+ * at the same time as the first parts of other sprites. the second part applies the results, and it always runs
+ * on one thread, in the sprites' order, so the game plays exactly like it does when every sprite's timePassed
+ * is called one after another.
+ */
+public interface ParallelSprite extends Sprite {
+
+    /**
+     * @return the number of independent pieces the first part of the step is split into
+     */
+    int stepParts();
+
+    /**
+     * runs a piece of the first part of the step. must not change anything other sprites may read.
+     *
+     * @param part the index of the piece, between 0 and stepParts() - 1
+     */
+    void prepareStepPart(int part);
+
+    /**
+     * runs the second part of the step, after all the pieces of the first part ran.
+     * the results of the first part are checked again if the game's state changed since they were computed.
+     */
+    void finishStep();
+}
@@ -33,4 +33,14 @@ public class ScoreIndicator extends Block {
         int textXPos = 370, textYPos = 15, fontSize = 15;
         d.drawText(textXPos, textYPos, "Score:" + score.getValue(), fontSize);
     }
+
+    /**
+     * the score changes during the game, so the indicator is drawn on every frame.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
 }
@@ -18,4 +18,12 @@ public interface Sprite {
      * so the sprite will perform the actions it needed to perform within that timeframe.
      */
     void timePassed();
+
+    /**
+     * a static sprite looks the same on every frame until it's removed, so it can be drawn once into a cached
+     * layer instead of on every frame.
+     *
+     * @return true if the sprite is static, false if it may look different on every frame
+     */
+    boolean isStatic();
 }
@@ -1,30 +1,47 @@
 package Arkanoid.Sprites;
 
+import Arkanoid.Utils.HandleList;
+
 import biuoop.DrawSurface;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * stores a list of all sprites in our program.
+ * the sprites are kept in a handle list, so removing a sprite (like a block that was hit) takes constant time,
+ * and the sprites keep the order they were added in. a sprite is added to the collection at most once.
  */
 public class SpriteCollection {
-    private final List<Sprite> sprites;
+    private final HandleList<Sprite> sprites;
+    private final Map<Sprite, Long> handles = new IdentityHashMap<>();
+    private ForkJoinPool pool = null;
+    private StaticLayer staticLayer = null;
 
     /**
      * class constructor.
      */
     public SpriteCollection() {
-        sprites = new ArrayList<>();
+        sprites = new HandleList<>();
     }
 
     /**
      * adds a given sprite to the sprite collection.
      *
      * @param s the given sprite
+     * @return the sprite's handle, which can remove it later
      */
-    public void addSprite(Sprite s) {
-        sprites.add(s);
+    public long addSprite(Sprite s) {
+        long handle = sprites.add(s);
+        handles.put(s, handle);
+        if (staticLayer != null && s.isStatic()) {
+            staticLayer.add(s);
+        }
+        return handle;
     }
 
     /**
@@ -33,27 +50,154 @@ public class SpriteCollection {
      * @param s the given sprite
      */
     public void removeSprite(Sprite s) {
-        sprites.remove(s);
+        Long handle = handles.get(s);
+        //the sprite isn't in the collection scenario
+        if (handle != null) {
+            removeSprite(handle);
+        }
+    }
+
+    /**
+     * removes a sprite from our sprite collection by its handle. a handle of a sprite that was already removed
+     * is ignored.
+     *
+     * @param handle the sprite's handle
+     */
+    public void removeSprite(long handle) {
+        Sprite s = sprites.get(handle);
+        if (s == null) {
+            return;
+        }
+        sprites.remove(handle);
+        handles.remove(s);
+        if (staticLayer != null && s.isStatic()) {
+            staticLayer.remove(s);
+        }
+    }
+
+    /**
+     * @return the number of sprites in the collection
+     */
+    public int size() {
+        return sprites.size();
+    }
+
+    /**
+     * makes the collection draw its static sprites into a cached layer, instead of drawing them on every frame.
+     * the static sprites already in the collection are drawn into the layer right away.
+     *
+     * @param layer the layer, or null to draw every sprite on every frame
+     */
+    public void setStaticLayer(StaticLayer layer) {
+        this.staticLayer = layer;
+        if (layer != null) {
+            for (int i = 0; i < sprites.slots(); i++) {
+                Sprite sprite = sprites.slot(i);
+                if (sprite != null && sprite.isStatic()) {
+                    layer.add(sprite);
+                }
+            }
+        }
+    }
+
+    /**
+     * makes the collection step its parallel sprites (like balls) on a thread pool.
+     *
+     * @param threads the pool to run the parallel parts of the steps on, or null to step every sprite on the
+     *                calling thread
+     */
+    public void setParallelism(ForkJoinPool threads) {
+        this.pool = threads;
     }
 
     /**
      * notifies all the sprites in the collection that certain time has passed.
+     * the sprites are notified in the order they were added. a sprite added during the step is first notified on
+     * the next step, and a sprite removed during the step before its turn isn't notified. the collection isn't
+     * copied: removed sprites only leave empty slots, which are compacted before the next step.
+     * in parallel mode, each run of consecutive parallel sprites first looks for its results on the pool,
+     * and then the results are applied one sprite after another, in the collection's order, so the game plays
+     * exactly like it does in sequential mode.
      */
     public void notifyAllTimePassed() {
-        List<Sprite> spritesDupe = new ArrayList<>(sprites);
-        for (Sprite sprite : spritesDupe) {
-            sprite.timePassed();
+        sprites.compactIfSparse();
+        //sprites added during the step are after this slot
+        int end = sprites.slots();
+        //sequential mode scenario
+        if (pool == null) {
+            for (int i = 0; i < end; i++) {
+                Sprite sprite = sprites.slot(i);
+                if (sprite != null) {
+                    sprite.timePassed();
+                }
+            }
+            return;
+        }
+        List<Sprite> run = new ArrayList<>();
+        for (int i = 0; i < end; i++) {
+            Sprite sprite = sprites.slot(i);
+            //removed sprite scenario
+            if (sprite == null) {
+                continue;
+            }
+            if (sprite instanceof ParallelSprite) {
+                run.add(sprite);
+                continue;
+            }
+            //non parallel sprites are stepped one after another, after the run of parallel sprites before them
+            if (!run.isEmpty()) {
+                stepInParallel(run);
+                run.clear();
+            }
+            //the sprite may have been removed while the run was stepped
+            if (sprites.slot(i) != null) {
+                sprite.timePassed();
+            }
+        }
+        if (!run.isEmpty()) {
+            stepInParallel(run);
+        }
+    }
+
+    /**
+     * runs the first part of the steps of a run of parallel sprites on the pool, then the second part in order.
+     *
+     * @param run the parallel sprites
+     */
+    private void stepInParallel(List<Sprite> run) {
+        List<ParallelSprite> parts = new ArrayList<>();
+        List<Integer> partIndexes = new ArrayList<>();
+        for (Sprite sprite : run) {
+            ParallelSprite parallel = (ParallelSprite) sprite;
+            int count = parallel.stepParts();
+            for (int part = 0; part < count; part++) {
+                parts.add(parallel);
+                partIndexes.add(part);
+            }
+        }
+        pool.submit(() -> IntStream.range(0, parts.size()).parallel()
+                .forEach(k -> parts.get(k).prepareStepPart(partIndexes.get(k)))).join();
+        for (Sprite sprite : run) {
+            ((ParallelSprite) sprite).finishStep();
         }
     }
 
     /**
      * draws all the sprites in the collection on the given draw surface.
+     * with a static layer, the layer is drawn first and then only the sprites that aren't static.
      *
      * @param d the draw surface
      */
     public void drawAllOn(DrawSurface d) {
-        for (Sprite sprite : sprites) {
-            sprite.drawOn(d);
+        if (staticLayer != null) {
+            staticLayer.drawOn(d);
+        }
+        for (int i = 0; i < sprites.slots(); i++) {
+            Sprite sprite = sprites.slot(i);
+            //with a static layer, the static sprites were already drawn
+            if (sprite != null && (staticLayer == null || !sprite.isStatic())) {
+                sprite.drawOn(d);
+            }
         }
     }
 }
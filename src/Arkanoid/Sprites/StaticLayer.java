@@ -0,0 +1,194 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.GraphicsDrawSurface;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * an offscreen image holding the background and all the static sprites (sprites that look the same on every frame,
+ * like blocks). each static sprite is drawn into the image once, when it's added, and the area it covered is
+ * remembered. when a static sprite is removed, only its area is marked as dirty: on the next frame that area is
+ * cleared and the static sprites that overlap it are drawn again, clipped to it. every frame then shows the whole
+ * layer with a single drawImage call.
+ * the sprites' areas are indexed by a grid of square cells, so a dirty area only looks at the sprites in the cells
+ * it covers instead of at all the static sprites.
+ * the game's window paints a shown frame a little later, on its own thread, so a frame may already miss a block
+ * that was removed while it waited to be painted.
+ */
+public class StaticLayer {
+    //dirty areas are grown by a pixel on each side, so outlines shared with neighbour sprites are drawn again too
+    private static final int DIRTY_MARGIN = 1;
+    //side of the index's cells, in pixels
+    private static final int CELL_SIZE = 32;
+    private static final Comparator<Entry> BY_ORDER = Comparator.comparingLong(entry -> entry.order);
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private final GraphicsDrawSurface surface;
+    private final Color background;
+    private final int columns;
+    private final int rows;
+    //the entries of the sprites whose areas overlap each cell, row by row
+    private final List<List<Entry>> cells = new ArrayList<>();
+    private final Map<Sprite, Entry> entries = new IdentityHashMap<>();
+    private final List<Rectangle> dirty = new ArrayList<>();
+    //the sprites that overlap the dirty area being drawn again
+    private final List<Entry> found = new ArrayList<>();
+    private long nextOrder = 0;
+    //grows for every dirty area, an entry met in several cells of the area is only taken once
+    private int stamp = 0;
+
+    /**
+     * class constructor, creates a layer filled with the background color.
+     *
+     * @param width      layer's width
+     * @param height     layer's height
+     * @param background the color under all the sprites
+     */
+    public StaticLayer(int width, int height, Color background) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.graphics = image.createGraphics();
+        this.surface = new GraphicsDrawSurface(graphics, width, height);
+        this.background = background;
+        this.columns = (width - 1) / CELL_SIZE + 1;
+        this.rows = (height - 1) / CELL_SIZE + 1;
+        for (int i = 0; i < columns * rows; i++) {
+            cells.add(new ArrayList<>());
+        }
+        graphics.setColor(background);
+        graphics.fillRect(0, 0, width, height);
+    }
+
+    /**
+     * draws a static sprite into the layer, on top of the sprites that were added before it.
+     *
+     * @param s the sprite
+     */
+    public void add(Sprite s) {
+        surface.resetBounds();
+        s.drawOn(surface);
+        Rectangle area = surface.getBounds();
+        //the sprite didn't draw anything scenario, it never has to be drawn again
+        if (area == null) {
+            return;
+        }
+        area.grow(DIRTY_MARGIN, DIRTY_MARGIN);
+        Entry entry = new Entry(s, area, nextOrder++);
+        entries.put(s, entry);
+        for (int row = rowOf(area.y); row <= rowOf(area.y + area.height - 1); row++) {
+            for (int column = columnOf(area.x); column <= columnOf(area.x + area.width - 1); column++) {
+                cells.get(row * columns + column).add(entry);
+            }
+        }
+    }
+
+    /**
+     * removes a static sprite from the layer, its area is drawn again on the next frame.
+     *
+     * @param s the sprite
+     */
+    public void remove(Sprite s) {
+        Entry entry = entries.remove(s);
+        if (entry == null) {
+            return;
+        }
+        Rectangle area = entry.area;
+        for (int row = rowOf(area.y); row <= rowOf(area.y + area.height - 1); row++) {
+            for (int column = columnOf(area.x); column <= columnOf(area.x + area.width - 1); column++) {
+                cells.get(row * columns + column).remove(entry);
+            }
+        }
+        dirty.add(area);
+    }
+
+    /**
+     * draws the dirty areas again, and draws the layer on a given surface.
+     *
+     * @param d the surface
+     */
+    public void drawOn(DrawSurface d) {
+        if (!dirty.isEmpty()) {
+            repair();
+        }
+        d.drawImage(0, 0, image);
+    }
+
+    /**
+     * @return the number of dirty areas waiting to be drawn again
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    private void repair() {
+        for (Rectangle area : dirty) {
+            graphics.setClip(area);
+            graphics.setColor(background);
+            graphics.fillRect(area.x, area.y, area.width, area.height);
+            stamp++;
+            found.clear();
+            for (int row = rowOf(area.y); row <= rowOf(area.y + area.height - 1); row++) {
+                for (int column = columnOf(area.x); column <= columnOf(area.x + area.width - 1); column++) {
+                    List<Entry> cell = cells.get(row * columns + column);
+                    for (int i = 0; i < cell.size(); i++) {
+                        Entry entry = cell.get(i);
+                        //only the sprites that overlap the dirty area need to be drawn again
+                        if (entry.stamp != stamp && entry.area.intersects(area)) {
+                            entry.stamp = stamp;
+                            found.add(entry);
+                        }
+                    }
+                }
+            }
+            //the sprites are drawn again in the order they were added, so they cover each other like before
+            found.sort(BY_ORDER);
+            for (int i = 0; i < found.size(); i++) {
+                found.get(i).sprite.drawOn(surface);
+            }
+        }
+        graphics.setClip(null);
+        dirty.clear();
+        found.clear();
+    }
+
+    /**
+     * @param x x coordinates in the layer, may be outside of it
+     * @return the index's column of the coordinates, the nearest one for coordinates outside of the layer
+     */
+    private int columnOf(int x) {
+        return Math.min(Math.max(Math.floorDiv(x, CELL_SIZE), 0), columns - 1);
+    }
+
+    /**
+     * @param y y coordinates in the layer, may be outside of it
+     * @return the index's row of the coordinates, the nearest one for coordinates outside of the layer
+     */
+    private int rowOf(int y) {
+        return Math.min(Math.max(Math.floorDiv(y, CELL_SIZE), 0), rows - 1);
+    }
+
+    /**
+     * a static sprite, the area it covers, and when it was added.
+     */
+    private static final class Entry {
+        private final Sprite sprite;
+        private final Rectangle area;
+        private final long order;
+        private int stamp = 0;
+
+        private Entry(Sprite sprite, Rectangle area, long order) {
+            this.sprite = sprite;
+            this.area = area;
+            this.order = order;
+        }
+    }
+}
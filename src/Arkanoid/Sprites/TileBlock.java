@@ -0,0 +1,68 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.Game;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Velocity;
+import Arkanoid.Utils.Palette;
+
+/**
+ * a block that stands for a single tile of a tile map. it's created by the map when a ball hits the tile, and isn't
+ * kept anywhere else, so two objects of the same tile are equal.
+ * removing it from the game removes the tile from the map.
+ */
+final class TileBlock extends Block {
+    private final TileMap map;
+    private final int index;
+
+    /**
+     * class constructor.
+     *
+     * @param map       the tile's map
+     * @param index     the tile's index in the map
+     * @param upperLeft tile's upper left point
+     * @param width     tile's width
+     * @param height    tile's height
+     * @param palette   the palette of the tile's color
+     * @param colorId   the id of the tile's color in the palette
+     */
+    TileBlock(TileMap map, int index, Point upperLeft, double width, double height, Palette palette, int colorId) {
+        super(upperLeft, width, height, palette, colorId);
+        this.map = map;
+        this.index = index;
+    }
+
+    @Override
+    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+        //the tile was removed while a ball still reaches it during the current step, like a removed block
+        if (!map.isAlive(index)) {
+            setHitEvents(null, null);
+        }
+        return super.hit(hitter, collisionPoint, currentVelocity);
+    }
+
+    /**
+     * removes the tile from its map, and lets the game know that it's not collidable anymore.
+     *
+     * @param game our game's object.
+     */
+    @Override
+    public void removeFromGame(Game game) {
+        map.remove(index);
+        game.removeCollidable(this);
+        setHitEvents(null, null);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof TileBlock)) {
+            return false;
+        }
+        TileBlock tile = (TileBlock) other;
+        return tile.map == map && tile.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(map) * 31 + index;
+    }
+}
@@ -0,0 +1,474 @@
+package Arkanoid.Sprites;
+
+import Arkanoid.GameAssets.HitEventDispatcher;
+import Arkanoid.GameAssets.HitEventType;
+import Arkanoid.Geometry.HitRecord;
+import Arkanoid.Geometry.ImpactRecord;
+import Arkanoid.Geometry.MutablePoint;
+import Arkanoid.Geometry.Point;
+import Arkanoid.Geometry.Rectangle;
+import Arkanoid.Geometry.SegmentMath;
+import Arkanoid.Geometry.SlabRay;
+import Arkanoid.Geometry.SweptCircle;
+import Arkanoid.Utils.Palette;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+
+/**
+ * a layer of grid aligned blocks (tiles) that are kept implicitly instead of as block objects: a byte per tile holds
+ * the id of its color in the game's palette (one of the first 256 ids), and a bit per tile tells if it's still in
+ * the game. a board of a million tiles takes about 1.1 megabytes that way, where block objects take hundreds of
+ * bytes each, plus their entries in the sprite collection and the game environment.
+ * the game environment checks a trajectory against the map by walking the tiles it crosses, from its start to its
+ * end (Amanatides-Woo traversal), and only checks the tiles that are still in the game next to them, so a query
+ * costs about the same for any number of tiles.
+ * a hit tile is handed to the ball and to the hit listeners as a TileBlock, a short-lived block object that is
+ * created for the hit and removes its tile from the map when it's removed from the game.
+ */
+public class TileMap implements Sprite {
+    private static final int WORD_SHIFT = 6;
+    //the color ids a byte holds
+    private static final int MAX_COLOR_ID = 255;
+    //how much a tile is grown by before the slab test of a swept ball, more than rounding errors
+    private static final double MARGIN = 0.001;
+    private final double left;
+    private final double top;
+    private final double tileWidth;
+    private final double tileHeight;
+    private final int columns;
+    private final int rows;
+    private final Palette palette;
+    private final byte[] colorIds;
+    private final long[] alive;
+    private int aliveCount = 0;
+    //grows whenever a tile is set or removed, so a query result computed earlier is known to be out of date
+    private long changes = 0;
+    private HitEventDispatcher dispatcher = null;
+    private HitEventType eventType = null;
+
+    /**
+     * class constructor, creates a map without tiles.
+     *
+     * @param upperLeft  upper left point of the map's first tile
+     * @param tileWidth  width of each tile
+     * @param tileHeight height of each tile
+     * @param columns    number of tiles in a row
+     * @param rows       number of rows
+     * @param palette    the palette of the tiles' colors
+     */
+    public TileMap(Point upperLeft, double tileWidth, double tileHeight, int columns, int rows, Palette palette) {
+        if (tileWidth <= 0 || tileHeight <= 0 || columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Error: tile map dimensions must be positive");
+        }
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: tile map is too big");
+        }
+        this.left = upperLeft.getX();
+        this.top = upperLeft.getY();
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.palette = palette;
+        this.colorIds = new byte[columns * rows];
+        this.alive = new long[((columns * rows - 1) >> WORD_SHIFT) + 1];
+    }
+
+    /**
+     * puts a tile in the game, or changes the color of a tile that's already in it.
+     *
+     * @param column  tile's column
+     * @param row     tile's row
+     * @param colorId the id of the tile's color in the palette, below 256
+     */
+    public void setTile(int column, int row, int colorId) {
+        int index = indexOf(column, row);
+        if (colorId > MAX_COLOR_ID) {
+            throw new IllegalArgumentException("Error: a tile's color id must fit in a byte");
+        }
+        //an id that isn't in the palette fails here, not when the map is drawn
+        palette.getColor(colorId);
+        colorIds[index] = (byte) colorId;
+        if (!isAlive(index)) {
+            alive[index >> WORD_SHIFT] |= 1L << index;
+            aliveCount++;
+        }
+        changes++;
+    }
+
+    /**
+     * takes a tile out of the game, nothing happens if it's already out.
+     *
+     * @param column tile's column
+     * @param row    tile's row
+     */
+    public void removeTile(int column, int row) {
+        remove(indexOf(column, row));
+    }
+
+    /**
+     * @param column tile's column
+     * @param row    tile's row
+     * @return true if the tile is in the game, false otherwise
+     */
+    public boolean isAlive(int column, int row) {
+        return isAlive(indexOf(column, row));
+    }
+
+    /**
+     * creates the block object that represents a tile, for example to keep balls from being created inside it.
+     *
+     * @param column tile's column
+     * @param row    tile's row
+     * @return a new block with the tile's bounds and color
+     */
+    public Block tile(int column, int row) {
+        return tile(indexOf(column, row));
+    }
+
+    /**
+     * @return the number of tiles in the game
+     */
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    /**
+     * @return the number of times a tile was set or removed
+     */
+    public long getChangeCount() {
+        return changes;
+    }
+
+    /**
+     * @return number of tiles in a row
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * makes every tile's hits raise events of a given type through a given dispatcher, like Block.setHitEvents.
+     *
+     * @param hitEvents the dispatcher, or null to raise no events
+     * @param type      the event type
+     */
+    public void setHitEvents(HitEventDispatcher hitEvents, HitEventType type) {
+        if (hitEvents != null && type == null) {
+            throw new IllegalArgumentException("Error: event type must not be null");
+        }
+        this.dispatcher = hitEvents;
+        this.eventType = type;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        int w = (int) tileWidth, h = (int) tileHeight;
+        for (int word = 0; word < alive.length; word++) {
+            long bits = alive[word];
+            //only the tiles in the game are visited, a word at a time
+            while (bits != 0) {
+                int index = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int x = (int) (left + (index % columns) * tileWidth), y = (int) (top + (index / columns) * tileHeight);
+                d.setColor(palette.getColor(colorIds[index] & MAX_COLOR_ID));
+                d.fillRectangle(x, y, w, h);
+                d.setColor(Color.BLACK);
+                d.drawRectangle(x, y, w, h);
+            }
+        }
+    }
+
+    @Override
+    public void timePassed() {
+    }
+
+    /**
+     * the map changes whenever a tile is removed, so it's drawn on every frame.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * checks the trajectory stored in a record's ray against the tiles, like GameEnvironment.findClosestCollision
+     * checks it against a block: the point where it first crosses a tile's edges.
+     * the record is only changed if a tile is hit closer than the record's collision (or as close, when the map
+     * comes before the record's collidable in the game environment's insertion order).
+     *
+     * @param x1    trajectory's start x coordinates
+     * @param y1    trajectory's start y coordinates
+     * @param x2    trajectory's end x coordinates
+     * @param y2    trajectory's end y coordinates
+     * @param out   the query's closest collision so far, its ray holds the trajectory
+     * @param order the position of the map in the game environment's insertion order
+     */
+    public void findClosestCollision(double x1, double y1, double x2, double y2, HitRecord out, long order) {
+        //most trajectories don't get near the map scenario
+        if (!isReached(out.ray(), 0)) {
+            return;
+        }
+        out.setMovement(x1, y1, x2 - x1, y2 - y1, 0);
+        walk(out, order, false);
+        resolve(out);
+    }
+
+    /**
+     * checks a moving ball against the tiles, like GameEnvironment.findFirstImpact checks it against a block.
+     * the record is only changed if a tile is touched before the record's contact (or at the same time, when the
+     * map comes before the record's collidable in the game environment's insertion order).
+     *
+     * @param x     ball's center x coordinates at the start of the movement
+     * @param y     ball's center y coordinates at the start of the movement
+     * @param dx    movement along the x-axis
+     * @param dy    movement along the y-axis
+     * @param r     ball's radius
+     * @param out   the query's earliest contact so far, its ray holds the movement of the ball's center
+     * @param order the position of the map in the game environment's insertion order
+     */
+    public void findFirstImpact(double x, double y, double dx, double dy, double r, ImpactRecord out, long order) {
+        if (!isReached(out.ray(), r)) {
+            return;
+        }
+        out.setMovement(x, y, dx, dy, r);
+        walk(out, order, true);
+        resolve(out);
+    }
+
+    /**
+     * @param index tile's index
+     * @return true if the tile is in the game, false otherwise
+     */
+    boolean isAlive(int index) {
+        return (alive[index >> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /**
+     * takes a tile out of the game, nothing happens if it's already out.
+     *
+     * @param index tile's index
+     */
+    void remove(int index) {
+        if (isAlive(index)) {
+            alive[index >> WORD_SHIFT] &= ~(1L << index);
+            aliveCount--;
+            changes++;
+        }
+    }
+
+    private Block tile(int index) {
+        int column = index % columns, row = index / columns;
+        Point upperLeft = new Point(left + column * tileWidth, top + row * tileHeight);
+        TileBlock block = new TileBlock(this, index, upperLeft, tileWidth, tileHeight, palette,
+                colorIds[index] & MAX_COLOR_ID);
+        block.setHitEvents(dispatcher, eventType);
+        return block;
+    }
+
+    /**
+     * @param ray    the query's trajectory
+     * @param radius the ball's radius, 0 for a trajectory
+     * @return true if the trajectory gets within the radius of the map's bounds
+     */
+    private boolean isReached(SlabRay ray, double radius) {
+        double grow = radius + MARGIN;
+        return ray.reach(left - grow, top - grow, left + columns * tileWidth + grow, top + rows * tileHeight + grow)
+                != SlabRay.NO_HIT;
+    }
+
+    private int indexOf(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            throw new IllegalArgumentException("Error: tile (" + column + ", " + row + ") is outside the map");
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * visits the grid cells the movement stored in the record crosses, from its start to its end, and checks the
+     * tiles around each of them. the tiles a trajectory (or a ball's edge) can touch while it's in a cell are the
+     * cell's tile and the ones next to it, up to the ball's radius away, so the walk stops once the next cell is
+     * reached after the best contact so far. the tiles around the next cell are the ones around the current cell,
+     * moved by a column or a row, so only the new column or row of them is checked.
+     * the best tile is kept in the record as a pending hit, and only turned into a block object by resolve, so a
+     * query that passes many tiles creates at most one object.
+     *
+     * @param out   the query's closest collision so far, holding the movement
+     * @param order the position of the map in the game environment's insertion order
+     * @param swept true for a moving ball, false for a trajectory
+     */
+    private void walk(HitRecord out, long order, boolean swept) {
+        double x = out.getStartX(), y = out.getStartY(), dx = out.getMoveX(), dy = out.getMoveY();
+        //the part of the segment inside the map grown by the radius, the ball can't touch a tile out of it
+        double grow = out.getRadius() + MARGIN;
+        double minX = left - grow, maxX = left + columns * tileWidth + grow;
+        double minY = top - grow, maxY = top + rows * tileHeight + grow;
+        double low = 0, high = 1;
+        //no movement along an axis scenario, the segment has to be between the bounds the whole time
+        if (dx == 0) {
+            if (x < minX || x > maxX) {
+                return;
+            }
+        } else {
+            double a = (minX - x) / dx, b = (maxX - x) / dx;
+            low = Math.max(low, Math.min(a, b));
+            high = Math.min(high, Math.max(a, b));
+        }
+        if (dy == 0) {
+            if (y < minY || y > maxY) {
+                return;
+            }
+        } else {
+            double a = (minY - y) / dy, b = (maxY - y) / dy;
+            low = Math.max(low, Math.min(a, b));
+            high = Math.min(high, Math.max(a, b));
+        }
+        if (low > high) {
+            return;
+        }
+        int reachX = (int) Math.ceil(grow / tileWidth), reachY = (int) Math.ceil(grow / tileHeight);
+        int column = cellX(x + low * dx), row = cellY(y + low * dy);
+        int endColumn = cellX(x + high * dx), endRow = cellY(y + high * dy);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1;
+        double nextX = left + (stepX > 0 ? column + 1 : column) * tileWidth;
+        double nextY = top + (stepY > 0 ? row + 1 : row) * tileHeight;
+        //segment parameter (0 at the start, 1 at the end) of the next vertical and horizontal cell borders
+        double tMaxX = dx != 0 ? (nextX - x) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy != 0 ? (nextY - y) / dy : Double.POSITIVE_INFINITY;
+        double tDeltaX = dx != 0 ? tileWidth / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? tileHeight / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        double length = SegmentMath.distance(0, 0, dx, dy);
+        int steps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        check(column - reachX, column + reachX, row - reachY, row + reachY, out, order, swept);
+        for (int i = 0; i < steps; i++) {
+            boolean alongX = tMaxX < tMaxY;
+            //every contact left in the next cells is after the best one scenario
+            if (isPassed(alongX ? tMaxX : tMaxY, length, out, swept)) {
+                return;
+            }
+            if (alongX) {
+                tMaxX += tDeltaX;
+                column += stepX;
+                int edge = column + stepX * reachX;
+                check(edge, edge, row - reachY, row + reachY, out, order, swept);
+            } else {
+                tMaxY += tDeltaY;
+                row += stepY;
+                int edge = row + stepY * reachY;
+                check(column - reachX, column + reachX, edge, edge, out, order, swept);
+            }
+        }
+        //rounding errors may end the walk next to the last cell, we make sure it is checked anyway
+        check(endColumn - reachX, endColumn + reachX, endRow - reachY, endRow + reachY, out, order, swept);
+    }
+
+    /**
+     * turns the best tile the walk found, if there is one, into the block object the record holds.
+     */
+    private void resolve(HitRecord out) {
+        if (out.isPending()) {
+            out.resolvePending(tile(out.getPendingKey()));
+        }
+    }
+
+    /**
+     * checks the tiles in a range of columns and rows that are still in the game, the part of the range outside
+     * of the map is skipped.
+     */
+    private void check(int fromColumn, int toColumn, int fromRow, int toRow, HitRecord out, long order,
+                       boolean swept) {
+        int minRow = Math.max(fromRow, 0), maxRow = Math.min(toRow, rows - 1);
+        int minColumn = Math.max(fromColumn, 0), maxColumn = Math.min(toColumn, columns - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int index = r * columns + c;
+                if (isAlive(index)) {
+                    checkTile(index, left + c * tileWidth, top + r * tileHeight, out, order, swept);
+                }
+            }
+        }
+    }
+
+    private void checkTile(int index, double x, double y, HitRecord out, long order, boolean swept) {
+        double right = x + tileWidth, bottom = y + tileHeight;
+        double startX = out.getStartX(), startY = out.getStartY(), moveX = out.getMoveX(), moveY = out.getMoveY();
+        SlabRay ray = out.ray();
+        //line scenario, the tile is checked like a block: a quick slab test, then its edges
+        if (!swept) {
+            double reach = ray.reach(x - MARGIN, y - MARGIN, right + MARGIN, bottom + MARGIN);
+            if (reach == SlabRay.NO_HIT || isPassed(reach, ray.getLength(), out, false)) {
+                return;
+            }
+            MutablePoint hit = out.scratch();
+            if (Rectangle.closestIntersection(x, y, right, bottom, startX, startY, startX + moveX, startY + moveY,
+                    hit)) {
+                double distance = SegmentMath.distance(startX, startY, hit.getX(), hit.getY());
+                if (isBetter(distance, out, order)) {
+                    out.setPending(hit.getX(), hit.getY(), distance, order, index);
+                }
+            }
+            return;
+        }
+        double radius = out.getRadius(), grow = radius + MARGIN;
+        double reach = ray.reach(x - grow, y - grow, right + grow, bottom + grow);
+        //the ball's center never gets within its radius of the tile, or only after the best contact so far
+        if (reach == SlabRay.NO_HIT || isPassed(reach, ray.getLength(), out, true)) {
+            return;
+        }
+        ImpactRecord impact = (ImpactRecord) out;
+        MutablePoint normal = impact.scratchNormal(), contact = impact.scratch();
+        double time = SweptCircle.timeOfImpact(startX, startY, moveX, moveY, radius, x, y, right, bottom,
+                normal, contact);
+        //the ball touches the tile, and didn't overlap it at the start scenario
+        if (time != SweptCircle.NO_IMPACT && isBetter(time, impact, order)) {
+            impact.setPendingImpact(time, normal.getX(), normal.getY(), contact.getX(), contact.getY(), order, index);
+        }
+    }
+
+    /**
+     * a tile checked again from another cell gets the same value, so it never replaces itself or an equally close
+     * tile: the map's order is never before its own order.
+     *
+     * @return true if a tile's contact is before the record's contact
+     */
+    private static boolean isBetter(double value, HitRecord out, long order) {
+        if (!out.isHit()) {
+            return true;
+        }
+        return value < out.getDistance() || (value == out.getDistance() && order < out.getOrder());
+    }
+
+    /**
+     * @param t      a segment parameter along the movement
+     * @param length the length of the movement
+     * @return true if the record's contact is more than the margin before the parameter
+     */
+    private static boolean isPassed(double t, double length, HitRecord out, boolean swept) {
+        if (!out.isHit()) {
+            return false;
+        }
+        double value = out.getDistance();
+        //the distance of a trajectory's collision is turned into the trajectory's parameter
+        double time = swept ? value : (length == 0 ? 0 : value / length);
+        return (t - time) * length > MARGIN;
+    }
+
+    private int cellX(double x) {
+        return (int) Math.floor((x - left) / tileWidth);
+    }
+
+    private int cellY(double y) {
+        return (int) Math.floor((y - top) / tileHeight);
+    }
+}
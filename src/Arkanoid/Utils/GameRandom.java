@@ -0,0 +1,58 @@
+package Arkanoid.Utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * the game's source of random numbers. a generator created from a seed always produces the same numbers, and can be
+ * split into independent generators, so every part of a game (or every game of a batch) gets its own stream of
+ * numbers that doesn't change when another part draws more or fewer numbers.
+ * a generator is meant to be used by a single thread, other threads should get generators split from it.
+ */
+public class GameRandom {
+    private final SplittableRandom random;
+
+    /**
+     * class constructor, creates a generator with a seed that differs on every call.
+     */
+    public GameRandom() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * class constructor.
+     *
+     * @param seed the seed
+     */
+    public GameRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private GameRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * @param bound the upper bound, must be positive
+     * @return a random int between 0 (inclusive) and the bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * @return a random long
+     */
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * creates a new generator that is independent of this one. the numbers it produces depend only on this
+     * generator's seed and on the numbers drawn from this generator before the split.
+     *
+     * @return the new generator
+     */
+    public GameRandom split() {
+        return new GameRandom(random.split());
+    }
+}
@@ -0,0 +1,172 @@
+package Arkanoid.Utils;
+
+import java.util.Arrays;
+
+/**
+ * a list that keeps its items in the order they were added, and removes any of them in constant time.
+ * adding an item returns a handle to it: the handle's id never changes while the item is in the list, and its
+ * generation changes when the item is removed, so an old handle can't remove an item that was added later with
+ * the same id. a removed item leaves an empty slot (a tombstone) that iterations skip, and the slots are compacted,
+ * in order, once at least half of them are empty, so clearing a list of n items costs O(n) overall.
+ * compaction moves the items to other slots, so it only happens when the owner calls compactIfSparse, never while
+ * the owner iterates over the slots.
+ *
+ * @param <T> the items' type
+ */
+public class HandleList<T> {
+    /**
+     * a handle no item ever has.
+     */
+    public static final long NO_HANDLE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int ID_BITS = 32;
+    private static final long ID_MASK = 0xFFFFFFFFL;
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    //the id of the item in every slot
+    private int[] slotIds = new int[INITIAL_CAPACITY];
+    //the slot and the generation of every id, a slot of -1 marks an id that's free
+    private int[] idSlots = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int nextId = 0;
+    private int slots = 0;
+    private int size = 0;
+
+    /**
+     * adds an item at the end of the list.
+     *
+     * @param item the item, not null
+     * @return the item's handle
+     */
+    public long add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Error: item must not be null");
+        }
+        int id;
+        //an id of a removed item is reused scenario, its generation already moved on
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (nextId == idSlots.length) {
+                idSlots = Arrays.copyOf(idSlots, nextId * 2);
+                generations = Arrays.copyOf(generations, nextId * 2);
+                freeIds = Arrays.copyOf(freeIds, nextId * 2);
+            }
+            id = nextId++;
+        }
+        if (slots == items.length) {
+            items = Arrays.copyOf(items, slots * 2);
+            slotIds = Arrays.copyOf(slotIds, slots * 2);
+        }
+        items[slots] = item;
+        slotIds[slots] = id;
+        idSlots[id] = slots;
+        slots++;
+        size++;
+        return ((long) generations[id] << ID_BITS) | id;
+    }
+
+    /**
+     * removes the item of a handle, its slot becomes empty.
+     *
+     * @param handle the item's handle
+     * @return true if the item was removed, false if the handle's item was already removed
+     */
+    public boolean remove(long handle) {
+        int id = idOf(handle);
+        //stale or unknown handle scenario
+        if (id < 0) {
+            return false;
+        }
+        items[idSlots[id]] = null;
+        idSlots[id] = -1;
+        //generations stay positive, so handles are never negative
+        generations[id] = (generations[id] + 1) & Integer.MAX_VALUE;
+        freeIds[freeCount++] = id;
+        size--;
+        return true;
+    }
+
+    /**
+     * @param handle a handle
+     * @return true if the handle's item is still in the list
+     */
+    public boolean contains(long handle) {
+        return idOf(handle) >= 0;
+    }
+
+    /**
+     * @param handle a handle
+     * @return the handle's item, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long handle) {
+        int id = idOf(handle);
+        return id < 0 ? null : (T) items[idSlots[id]];
+    }
+
+    /**
+     * @return the number of slots, including the empty ones
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * @param slot the slot's index
+     * @return the item in the slot, or null if the slot is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T slot(int slot) {
+        return (T) items[slot];
+    }
+
+    /**
+     * @return the number of items in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list has no items
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * moves the items to the first slots, keeping their order, if at least half of the slots are empty.
+     * must not be called while the slots are iterated over.
+     */
+    public void compactIfSparse() {
+        if (slots - size < INITIAL_CAPACITY || slots - size < size) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < slots; i++) {
+            if (items[i] != null) {
+                items[next] = items[i];
+                slotIds[next] = slotIds[i];
+                idSlots[slotIds[next]] = next;
+                next++;
+            }
+        }
+        Arrays.fill(items, next, slots, null);
+        slots = next;
+    }
+
+    /**
+     * @param handle a handle
+     * @return the handle's id if its item is still in the list, -1 otherwise
+     */
+    private int idOf(long handle) {
+        int id = (int) (handle & ID_MASK);
+        int generation = (int) (handle >>> ID_BITS);
+        if (handle < 0 || id >= nextId || idSlots[id] < 0 || generations[id] != generation) {
+            return -1;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,108 @@
+package Arkanoid.Utils;
+
+import java.util.Arrays;
+
+/**
+ * a histogram of non negative values (usually durations in nanoseconds) that is cheap enough to record into on
+ * every frame. values are counted in logarithmic buckets: every power of 2 is split into 16 equal buckets, so the
+ * reported percentiles are at most 1/16 (6.25%) bigger than the real values, and recording never creates objects.
+ */
+public class LatencyHistogram {
+    //values below 2^SUB_BITS get a bucket of their own, the rest share 2^(SUB_BITS - 1) buckets per power of 2
+    private static final int SUB_BITS = 5, HALF = 1 << (SUB_BITS - 1), MAX_SHIFT = Long.SIZE - 1 - SUB_BITS;
+    private static final double PERCENT = 100.0;
+    private final long[] buckets = new long[(MAX_SHIFT + 2) * HALF];
+    private long count = 0;
+    private long max = 0;
+    private long sum = 0;
+
+    /**
+     * adds a value to the histogram.
+     *
+     * @param value the value, negative values are counted as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[indexOf(v)]++;
+        count++;
+        sum += v;
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    /**
+     * finds the value that a given percent of the recorded values are smaller than or equal to.
+     *
+     * @param percent the percentile, between 0 and 100
+     * @return the highest value of the percentile's bucket (but no more than the maximum), 0 if nothing was recorded
+     */
+    public long percentile(double percent) {
+        if (percent < 0 || percent > PERCENT) {
+            throw new IllegalArgumentException("Error: percentile must be between 0 and 100");
+        }
+        //nothing was recorded scenario
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / PERCENT * count)), seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the biggest recorded value, 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average of the recorded values, 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * forgets all the recorded values.
+     */
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    private static int indexOf(long v) {
+        //small value scenario, each value has its own bucket
+        if (v < 2 * HALF) {
+            return (int) v;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(v)) - (SUB_BITS - 1);
+        //the top SUB_BITS bits of the value, between HALF and 2 * HALF - 1
+        int sub = (int) (v >>> shift);
+        return shift * HALF + sub;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1, sub = index % HALF + HALF;
+        //the end of the highest bucket is 2^63, which wraps around to Long.MAX_VALUE after subtracting 1
+        return ((long) (sub + 1) << shift) - 1;
+    }
+}
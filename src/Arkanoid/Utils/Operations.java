@@ -1,7 +1,6 @@
 package Arkanoid.Utils;
 
 import java.awt.Color;
-import java.util.Random;
 
 /**
  * class contains useful general methods for our program.
@@ -15,7 +14,16 @@ public class Operations {
      * @return random color
      */
     public static Color getRandColor() {
-        Random rand = new Random();
+        return getRandColor(new GameRandom());
+    }
+
+    /**
+     * generates a random color from a given random numbers generator.
+     *
+     * @param rand the random numbers generator
+     * @return random color
+     */
+    public static Color getRandColor(GameRandom rand) {
         int rgbLimit = 256;
         int r = rand.nextInt(rgbLimit), g = rand.nextInt(rgbLimit), b = rand.nextInt(rgbLimit);
         return new Color(r, g, b);
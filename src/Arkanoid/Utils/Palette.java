@@ -0,0 +1,70 @@
+package Arkanoid.Utils;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * the colors of a game, each kept once and known by a small id (its index in the palette).
+ * blocks and balls carry the id of their color, so comparing two colors of the same palette is an int compare,
+ * and the Color objects are only read when something is drawn. the first 256 ids fit in a byte, so tiles and
+ * stored states can keep a color in a single byte.
+ * a game has its own palette, so its ids stay small no matter how many games ran before it. objects created
+ * with a plain Color (outside of a game) share a single palette.
+ */
+public class Palette {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Palette SHARED = new Palette();
+    //RGB value (with alpha) of every color to its id
+    private final Map<Integer, Integer> ids = new HashMap<>();
+    //replaced on every addition, so readers on other threads always see the colors of the ids they were given
+    private volatile Color[] colors = new Color[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @return the palette of the objects that were created with a plain Color
+     */
+    public static Palette shared() {
+        return SHARED;
+    }
+
+    /**
+     * finds the id of a color, adding it to the palette if it's new. two colors with the same RGB and alpha values
+     * get the same id, like Color.equals.
+     *
+     * @param color the color
+     * @return the color's id
+     */
+    public synchronized int idOf(Color color) {
+        Integer id = ids.get(color.getRGB());
+        //known color scenario
+        if (id != null) {
+            return id;
+        }
+        Color[] updated = size == colors.length ? Arrays.copyOf(colors, 2 * size) : colors.clone();
+        updated[size] = color;
+        ids.put(color.getRGB(), size);
+        colors = updated;
+        return size++;
+    }
+
+    /**
+     * @param id a color's id
+     * @return the color, the same object for every read of the id
+     */
+    public Color getColor(int id) {
+        Color[] current = colors;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Error: color id " + id + " isn't in the palette");
+        }
+        return current[id];
+    }
+
+    /**
+     * @return the number of colors in the palette
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
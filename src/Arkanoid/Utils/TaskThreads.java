@@ -0,0 +1,48 @@
+package Arkanoid.Utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * creates executors that run every task on its own thread, for tasks that spend most of their time blocked
+ * (like reading from a socket). on a JVM with virtual threads (java 21 and later) the tasks run on virtual threads,
+ * so a blocked task costs a few hundred bytes instead of a platform thread's stack. on older JVMs they run on
+ * a cached pool of daemon platform threads. the virtual threads are looked up by reflection, so the code still
+ * compiles and runs on java 11.
+ */
+public class TaskThreads {
+    private static final String VIRTUAL_EXECUTOR = "newVirtualThreadPerTaskExecutor";
+
+    /**
+     * @return true if the JVM has virtual threads
+     */
+    public static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod(VIRTUAL_EXECUTOR);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * creates an executor that starts a new thread for every task, a virtual one if the JVM has virtual threads.
+     *
+     * @param name the name of the platform threads, used when there are no virtual threads
+     * @return the executor
+     */
+    public static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            //no virtual threads scenario
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, name + " " + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
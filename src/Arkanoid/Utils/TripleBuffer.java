@@ -0,0 +1,69 @@
+package Arkanoid.Utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * passes the latest of a stream of values from one producer thread to one consumer thread without locks.
+ * there are three buffers: the producer fills the back buffer and publishes it, the consumer reads the front buffer,
+ * and the third one sits in the middle, holding the latest published value. publishing and taking the latest value
+ * each swap a buffer with the middle one in a single atomic operation, so neither side ever waits for the other,
+ * a buffer is never used by both sides at once, and values the consumer was too slow to take are skipped.
+ *
+ * @param <T> the buffers' type
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3, FRESH = 4;
+    private final Object[] buffers = new Object[3];
+    //the middle buffer's index, with the fresh bit set when it holds a value the consumer hasn't taken yet
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    /**
+     * class constructor.
+     *
+     * @param factory creates each of the three buffers
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * @return the buffer the producer fills, only the producer may use it
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * publishes the back buffer as the latest value, the producer then gets another buffer to fill.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * makes the latest published value the front buffer, if a value was published since the last call.
+     *
+     * @return true if the front buffer changed
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * @return the buffer the consumer reads, only the consumer may use it
+     */
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,74 @@
+package Arkanoid.Geometry;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * the SlabBatch that tests as many boxes per instruction as the CPU's widest vectors hold doubles (4 with AVX2,
+ * 8 with AVX-512), with the Vector API. the side a segment enters a slab through is the same for all the boxes,
+ * so every lane only loads its box's near and far sides, and the slab test becomes a few subtractions,
+ * multiplications, minimums and maximums, and a mask of the boxes that are reached.
+ * the boxes left over after the last full vector, and vertical and horizontal segments (which have no near and far
+ * sides on one of the axes), are tested one by one, like in the scalar batch.
+ * needs --add-modules jdk.incubator.vector to compile and to run, SlabBatch.create falls back to the scalar batch
+ * when the module is missing.
+ */
+final class VectorSlabBatch implements SlabBatch {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    //lane i holds 2 to the power of i, so adding up the reached lanes' values gives the mask's bits
+    private static final DoubleVector LANE_BITS = DoubleVector.fromArray(SPECIES, laneBits(), 0);
+
+    @Override
+    public int reachAll(SlabRay ray, BoxColumns boxes, int[] out) {
+        double x1 = ray.startX(), y1 = ray.startY(), dx = ray.directionX(), dy = ray.directionY();
+        double invDx = ray.inverseX(), invDy = ray.inverseY();
+        int size = boxes.size(), count = 0, i = 0;
+        //a segment that doesn't move along an axis has no near and far sides on it, so it's tested one box at a time
+        if (dx != 0 && dy != 0) {
+            double[] nearXs = dx > 0 ? boxes.left() : boxes.right(), farXs = dx > 0 ? boxes.right() : boxes.left();
+            double[] nearYs = dy > 0 ? boxes.top() : boxes.bottom(), farYs = dy > 0 ? boxes.bottom() : boxes.top();
+            DoubleVector zero = DoubleVector.zero(SPECIES), one = DoubleVector.broadcast(SPECIES, 1);
+            for (int bound = SPECIES.loopBound(size); i < bound; i += SPECIES.length()) {
+                DoubleVector near = DoubleVector.fromArray(SPECIES, nearXs, i).sub(x1).mul(invDx)
+                        .max(DoubleVector.fromArray(SPECIES, nearYs, i).sub(y1).mul(invDy));
+                DoubleVector far = DoubleVector.fromArray(SPECIES, farXs, i).sub(x1).mul(invDx)
+                        .min(DoubleVector.fromArray(SPECIES, farYs, i).sub(y1).mul(invDy));
+                //near <= far, far >= 0 and near <= 1 in a single comparison
+                VectorMask<Double> reached = near.max(zero).compare(VectorOperators.LE, far.min(one));
+                //most vectors don't hold a reached box scenario
+                if (!reached.anyTrue()) {
+                    continue;
+                }
+                //the reached lanes' indexes are written in increasing order, like the scalar batch writes them.
+                //VectorMask.toLong isn't compiled to vector instructions on every JDK, the sum always is
+                long lanes = (long) zero.blend(LANE_BITS, reached).reduceLanes(VectorOperators.ADD);
+                while (lanes != 0) {
+                    out[count++] = i + Long.numberOfTrailingZeros(lanes);
+                    lanes &= lanes - 1;
+                }
+            }
+        }
+        double[] left = boxes.left(), top = boxes.top(), right = boxes.right(), bottom = boxes.bottom();
+        for (; i < size; i++) {
+            if (ray.reach(left[i], top[i], right[i], bottom[i]) != SlabRay.NO_HIT) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    private static double[] laneBits() {
+        double[] bits = new double[SPECIES.length()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 1L << i;
+        }
+        return bits;
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+}